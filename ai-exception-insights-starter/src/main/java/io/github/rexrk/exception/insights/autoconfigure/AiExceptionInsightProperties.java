@@ -2,18 +2,34 @@ package io.github.rexrk.exception.insights.autoconfigure;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import io.github.rexrk.exception.insights.service.ai.PromptCompactor;
+import io.github.rexrk.exception.insights.service.output.file.JsonLinesFileOutput;
+import org.springframework.util.unit.DataSize;
+
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 @ConfigurationProperties(AiExceptionInsightProperties.prefix)
 public class AiExceptionInsightProperties {
     public static final String prefix = "devtools.ai.exception-insights";
-    public enum OutputMode { UI, CONSOLE }
+    public enum OutputMode { UI, CONSOLE, FILE, COLLECTOR }
 
     private boolean enabled = true;
     private int maxEvents = 10;
     private Duration deduplicationWindow = Duration.ofSeconds(5);
     private int logBufferSize = 5;
     private OutputMode output = OutputMode.CONSOLE;
+    private List<OutputMode> outputs = new ArrayList<>();
+    private int outputQueueCapacity = 1_000;
+    private int outputMaxBatch = 256;
+    private final Resilience resilience = new Resilience();
+    private final Prompt prompt = new Prompt();
+    private final Similarity similarity = new Similarity();
+    private final Rules rules = new Rules();
+    private final Ui ui = new Ui();
+    private final File file = new File();
+    private final Collector collector = new Collector();
 
     // getters and setters
     public boolean isEnabled()                       { return enabled; }
@@ -31,4 +47,193 @@ public class AiExceptionInsightProperties {
     public OutputMode getOutput()                    { return output; }
     public void setOutput(OutputMode output)         { this.output = output; }
 
-}
\ No newline at end of file
+    public List<OutputMode> getOutputs()             { return outputs; }
+    public void setOutputs(List<OutputMode> outputs) { this.outputs = outputs; }
+
+    public int getOutputQueueCapacity()              { return outputQueueCapacity; }
+    public void setOutputQueueCapacity(int capacity) { this.outputQueueCapacity = capacity; }
+
+    public int getOutputMaxBatch()                   { return outputMaxBatch; }
+    public void setOutputMaxBatch(int maxBatch)      { this.outputMaxBatch = maxBatch; }
+
+    /** The configured sinks: {@code outputs} when set, otherwise the single {@code output}. */
+    public List<OutputMode> resolveOutputs() {
+        return outputs.isEmpty() ? List.of(output) : outputs.stream().distinct().toList();
+    }
+
+    public Resilience getResilience()                { return resilience; }
+
+    public Prompt getPrompt()                        { return prompt; }
+
+    public Similarity getSimilarity()                { return similarity; }
+
+    public Rules getRules()                          { return rules; }
+
+    public Ui getUi()                                { return ui; }
+
+    public File getFile()                            { return file; }
+
+    public Collector getCollector()                  { return collector; }
+
+    /**
+     * Deadlines, retries and circuit breaking around the chat model calls.
+     */
+    public static class Resilience {
+        private Duration callTimeout = Duration.ofSeconds(20);
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofMillis(500);
+        private Duration maxBackoff = Duration.ofSeconds(5);
+        private int failureThreshold = 5;
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int maxDeferredEvents = 100;
+
+        public Duration getCallTimeout()                     { return callTimeout; }
+        public void setCallTimeout(Duration callTimeout)     { this.callTimeout = callTimeout; }
+
+        public int getMaxAttempts()                          { return maxAttempts; }
+        public void setMaxAttempts(int maxAttempts)          { this.maxAttempts = maxAttempts; }
+
+        public Duration getInitialBackoff()                  { return initialBackoff; }
+        public void setInitialBackoff(Duration d)            { this.initialBackoff = d; }
+
+        public Duration getMaxBackoff()                      { return maxBackoff; }
+        public void setMaxBackoff(Duration maxBackoff)       { this.maxBackoff = maxBackoff; }
+
+        public int getFailureThreshold()                     { return failureThreshold; }
+        public void setFailureThreshold(int threshold)       { this.failureThreshold = threshold; }
+
+        public Duration getOpenDuration()                    { return openDuration; }
+        public void setOpenDuration(Duration openDuration)   { this.openDuration = openDuration; }
+
+        public int getMaxDeferredEvents()                    { return maxDeferredEvents; }
+        public void setMaxDeferredEvents(int max)            { this.maxDeferredEvents = max; }
+    }
+
+    /**
+     * Compaction of the stack trace and logs sent to the model.
+     */
+    public static class Prompt {
+        private int tokenBudget = 1200;
+        private int maxStackFrames = 20;
+        private int maxLogLines = 8;
+        private List<String> appPackages = new ArrayList<>();
+        private List<String> frameworkPackages = new ArrayList<>(PromptCompactor.DEFAULT_FRAMEWORK_PACKAGES);
+
+        public int getTokenBudget()                              { return tokenBudget; }
+        public void setTokenBudget(int tokenBudget)              { this.tokenBudget = tokenBudget; }
+
+        public int getMaxStackFrames()                           { return maxStackFrames; }
+        public void setMaxStackFrames(int maxStackFrames)        { this.maxStackFrames = maxStackFrames; }
+
+        public int getMaxLogLines()                              { return maxLogLines; }
+        public void setMaxLogLines(int maxLogLines)              { this.maxLogLines = maxLogLines; }
+
+        public List<String> getAppPackages()                     { return appPackages; }
+        public void setAppPackages(List<String> appPackages)     { this.appPackages = appPackages; }
+
+        public List<String> getFrameworkPackages()               { return frameworkPackages; }
+        public void setFrameworkPackages(List<String> packages)  { this.frameworkPackages = packages; }
+    }
+
+    /**
+     * Reuse of explanations for events whose stack shape is near-identical to one already explained.
+     */
+    public static class Similarity {
+        private boolean enabled = true;
+        private int maxDistance = 3;
+        private int capacity = 10_000;
+
+        public boolean isEnabled()                       { return enabled; }
+        public void setEnabled(boolean enabled)          { this.enabled = enabled; }
+
+        public int getMaxDistance()                      { return maxDistance; }
+        public void setMaxDistance(int maxDistance)      { this.maxDistance = maxDistance; }
+
+        public int getCapacity()                         { return capacity; }
+        public void setCapacity(int capacity)            { this.capacity = capacity; }
+    }
+
+    /**
+     * Local rule-based explanations tried before the chat model.
+     */
+    public static class Rules {
+        private boolean enabled = true;
+        private boolean enrichWithAi = false;
+
+        public boolean isEnabled()                       { return enabled; }
+        public void setEnabled(boolean enabled)          { this.enabled = enabled; }
+
+        public boolean isEnrichWithAi()                  { return enrichWithAi; }
+        public void setEnrichWithAi(boolean enrich)      { this.enrichWithAi = enrich; }
+    }
+
+    /**
+     * Dashboard output in {@code UI} mode.
+     */
+    public static class Ui {
+        private Duration batchWindow = Duration.ofMillis(100);
+
+        public Duration getBatchWindow()                 { return batchWindow; }
+        public void setBatchWindow(Duration window)      { this.batchWindow = window; }
+    }
+
+    /**
+     * JSON-lines file written in {@code FILE} mode.
+     */
+    public static class File {
+        private String path = "logs/exception-insights.jsonl";
+        private DataSize maxFileSize = DataSize.ofMegabytes(100);
+        private Duration rollInterval = Duration.ofDays(1);
+        private boolean compressRolled = true;
+        private int maxHistory = 10;
+        private JsonLinesFileOutput.FsyncPolicy fsync = JsonLinesFileOutput.FsyncPolicy.INTERVAL;
+        private Duration fsyncInterval = Duration.ofSeconds(1);
+
+        public String getPath()                                      { return path; }
+        public void setPath(String path)                             { this.path = path; }
+
+        public DataSize getMaxFileSize()                             { return maxFileSize; }
+        public void setMaxFileSize(DataSize maxFileSize)             { this.maxFileSize = maxFileSize; }
+
+        public Duration getRollInterval()                            { return rollInterval; }
+        public void setRollInterval(Duration rollInterval)           { this.rollInterval = rollInterval; }
+
+        public boolean isCompressRolled()                            { return compressRolled; }
+        public void setCompressRolled(boolean compressRolled)        { this.compressRolled = compressRolled; }
+
+        public int getMaxHistory()                                   { return maxHistory; }
+        public void setMaxHistory(int maxHistory)                    { this.maxHistory = maxHistory; }
+
+        public JsonLinesFileOutput.FsyncPolicy getFsync()            { return fsync; }
+        public void setFsync(JsonLinesFileOutput.FsyncPolicy fsync)  { this.fsync = fsync; }
+
+        public Duration getFsyncInterval()                           { return fsyncInterval; }
+        public void setFsyncInterval(Duration fsyncInterval)         { this.fsyncInterval = fsyncInterval; }
+    }
+
+    /**
+     * Central collector that {@code COLLECTOR} mode ships events to.
+     */
+    public static class Collector {
+        private String url = "http://localhost:9090/collector/ingest";
+        private String nodeId;
+        private Duration flushInterval = Duration.ofSeconds(1);
+        private DataSize maxBatchSize = DataSize.ofKilobytes(512);
+        private Duration timeout = Duration.ofSeconds(5);
+
+        public String getUrl()                                 { return url; }
+        public void setUrl(String url)                         { this.url = url; }
+
+        public String getNodeId()                              { return nodeId; }
+        public void setNodeId(String nodeId)                   { this.nodeId = nodeId; }
+
+        public Duration getFlushInterval()                     { return flushInterval; }
+        public void setFlushInterval(Duration flushInterval)   { this.flushInterval = flushInterval; }
+
+        public DataSize getMaxBatchSize()                      { return maxBatchSize; }
+        public void setMaxBatchSize(DataSize maxBatchSize)     { this.maxBatchSize = maxBatchSize; }
+
+        public Duration getTimeout()                           { return timeout; }
+        public void setTimeout(Duration timeout)               { this.timeout = timeout; }
+    }
+}
@@ -4,21 +4,40 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.rexrk.exception.insights.capture.*;
 import io.github.rexrk.exception.insights.controller.ExceptionInsightsController;
 import io.github.rexrk.exception.insights.service.ai.AiExplanationService;
+import io.github.rexrk.exception.insights.service.ai.metrics.AiExplanationMetrics;
+import io.github.rexrk.exception.insights.service.ai.metrics.MicrometerAiExplanationMetrics;
+import io.github.rexrk.exception.insights.service.local.LocalExplainer;
 import io.github.rexrk.exception.insights.service.output.console.ConsoleErrorOutput;
+import io.github.rexrk.exception.insights.service.output.file.JsonLinesFileOutput;
+import io.github.rexrk.exception.insights.service.output.http.HttpCollectorOutput;
+import io.github.rexrk.exception.insights.service.output.AsyncErrorOutput;
+import io.github.rexrk.exception.insights.service.output.CompositeErrorOutput;
 import io.github.rexrk.exception.insights.service.output.ErrorOutput;
 import io.github.rexrk.exception.insights.service.output.ui.UiErrorOutput;
 import io.github.rexrk.exception.insights.store.InMemoryErrorEventStore;
 import io.github.rexrk.ui.dashboard.SseEmitterRegistry;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.ObjectProvider;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 @AutoConfiguration
 @EnableAsync
@@ -33,20 +52,47 @@ public class AiExceptionInsightsAutoConfiguration {
     // --- Output Service ---
 
     @Bean
-    @ConditionalOnProperty(prefix = AiExceptionInsightProperties.prefix,
-            name = "output",
-            havingValue = "CONSOLE",
-            matchIfMissing = true)
-    public ErrorOutput consoleErrorOutputService() {
-        return new ConsoleErrorOutput();
+    @ConditionalOnMissingBean
+    public ErrorOutput errorOutputService(AiExceptionInsightProperties props,
+                                          ObjectProvider<SseEmitterRegistry> emitterRegistry,
+                                          ObjectProvider<JsonMapper> jsonMapper) {
+        List<ErrorOutput> sinks = new ArrayList<>();
+        for (AiExceptionInsightProperties.OutputMode mode : props.resolveOutputs()) {
+            ErrorOutput sink = switch (mode) {
+                case CONSOLE -> new ConsoleErrorOutput(true);
+                case UI -> new UiErrorOutput(emitterRegistry.getObject(), props.getUi().getBatchWindow());
+                case FILE -> fileOutput(props.getFile(), jsonMapper.getIfAvailable(JsonMapper::new));
+                case COLLECTOR -> collectorOutput(props.getCollector(), jsonMapper.getIfAvailable(JsonMapper::new));
+            };
+            sinks.add(new AsyncErrorOutput(mode.name().toLowerCase(), sink, props.getOutputQueueCapacity(),
+                    props.getOutputMaxBatch()));
+        }
+        return new CompositeErrorOutput(sinks);
     }
 
-    @Bean
-    @ConditionalOnProperty(prefix = AiExceptionInsightProperties.prefix,
-            name = "output",
-            havingValue = "UI")
-    public ErrorOutput uiErrorOutputService(SseEmitterRegistry emitterRegistry) {
-        return new UiErrorOutput(emitterRegistry);
+    private static JsonLinesFileOutput fileOutput(AiExceptionInsightProperties.File file, JsonMapper mapper) {
+        return new JsonLinesFileOutput(Path.of(file.getPath()), file.getMaxFileSize().toBytes(),
+                file.getRollInterval(), file.isCompressRolled(), file.getMaxHistory(),
+                file.getFsync(), file.getFsyncInterval(), mapper);
+    }
+
+    private static HttpCollectorOutput collectorOutput(AiExceptionInsightProperties.Collector collector,
+                                                       JsonMapper mapper) {
+        String nodeId = collector.getNodeId() != null ? collector.getNodeId() : defaultNodeId();
+        return new HttpCollectorOutput(URI.create(collector.getUrl()), nodeId, collector.getFlushInterval(),
+                (int) collector.getMaxBatchSize().toBytes(), collector.getTimeout(), mapper);
+    }
+
+    private static String defaultNodeId() {
+        String host = System.getenv("HOSTNAME");
+        if (host == null) {
+            try {
+                host = InetAddress.getLocalHost().getHostName();
+            } catch (UnknownHostException e) {
+                host = "localhost";
+            }
+        }
+        return host + ":" + ProcessHandle.current().pid();
     }
 
     // --- Store ---
@@ -81,8 +127,28 @@ public class AiExceptionInsightsAutoConfiguration {
     @ConditionalOnMissingBean
     public AiExplanationService aiExplanationService(ChatClient.Builder builder,
                                                      ObjectMapper  objectMapper,
-                                                     ErrorOutput outputService) {
-        return new AiExplanationService(builder.build(),objectMapper, outputService);
+                                                     ErrorOutput outputService,
+                                                     ObjectProvider<LocalExplainer> localExplainers,
+                                                     ObjectProvider<AiExplanationMetrics> metrics,
+                                                     AiExceptionInsightProperties props) {
+        return new AiExplanationService(builder.build(), objectMapper, outputService, props,
+                localExplainers.orderedStream().toList(), metrics.getIfAvailable(() -> AiExplanationMetrics.NOOP));
+    }
+
+    // --- Metrics ---
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class MetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public AiExplanationMetrics aiExplanationMetrics(ObjectProvider<MeterRegistry> registry) {
+            MeterRegistry meterRegistry = registry.getIfUnique();
+            return meterRegistry != null
+                    ? new MicrometerAiExplanationMetrics(meterRegistry)
+                    : AiExplanationMetrics.NOOP;
+        }
     }
 
     // --- Capture Mechanisms ---
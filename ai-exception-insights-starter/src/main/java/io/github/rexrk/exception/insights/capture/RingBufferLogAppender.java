@@ -5,6 +5,7 @@ import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.classic.spi.IThrowableProxy;
 import ch.qos.logback.core.AppenderBase;
 import io.github.rexrk.exception.insights.model.LogLine;
+import io.github.rexrk.exception.insights.service.output.console.ConsoleErrorOutput;
 
 import java.time.Instant;
 import java.util.ArrayDeque;
@@ -25,6 +26,8 @@ public class RingBufferLogAppender extends AppenderBase<ILoggingEvent> {
     @Override
     protected synchronized void append(ILoggingEvent event) {
         if (!event.getLevel().isGreaterOrEqual(Level.WARN)) return;
+        // our own console rendering must not push application lines out of the buffer
+        if (event.getLoggerName().startsWith(ConsoleErrorOutput.LOGGER_NAME)) return;
 
         if (buffer.size() == bufferSize) {
             buffer.pollFirst();
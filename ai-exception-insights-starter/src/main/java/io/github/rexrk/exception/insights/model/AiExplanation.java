@@ -6,5 +6,24 @@ public record AiExplanation(
         String summary,
         List<String> causes,
         List<String> fixes,
-        String rawResponse
-) {}
\ No newline at end of file
+        String rawResponse,
+        Origin origin
+) {
+
+    public enum Origin {
+        /** Produced by the chat model for this event. */
+        AI,
+        /** Reused from a previously explained, near-identical event. */
+        INFERRED,
+        /** Produced by a local rule without calling the model. */
+        RULE
+    }
+
+    public AiExplanation(String summary, List<String> causes, List<String> fixes, String rawResponse) {
+        this(summary, causes, fixes, rawResponse, Origin.AI);
+    }
+
+    public AiExplanation withOrigin(Origin origin) {
+        return new AiExplanation(summary, causes, fixes, rawResponse, origin);
+    }
+}
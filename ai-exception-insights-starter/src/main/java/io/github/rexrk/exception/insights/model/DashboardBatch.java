@@ -0,0 +1,17 @@
+package io.github.rexrk.exception.insights.model;
+
+import java.util.List;
+
+/**
+ * Everything captured during one coalescing window, pushed as a single SSE
+ * message. Errors are grouped by fingerprint with the latest event of each
+ * group; {@code omitted} counts events beyond the per-batch group limit.
+ */
+public record DashboardBatch(
+        List<Occurrence> errors,
+        List<DashboardEvent> insights,
+        int omitted
+) {
+
+    public record Occurrence(DashboardEvent event, int count) {}
+}
@@ -1,8 +1,65 @@
 package io.github.rexrk.exception.insights.model;
 
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Size-capped projection of an {@link ErrorEvent} pushed over SSE, complete
+ * enough for the dashboard to render without fetching the event. Only the
+ * stack trace is left out; {@code hasStackTrace} tells the UI to fetch it on demand.
+ */
 public record DashboardEvent(
         String id,
         String type,
+        String timestamp,
         String exceptionClass,
-        String timestamp
-) {}
\ No newline at end of file
+        String message,
+        String rootCauseClass,
+        String rootCauseMessage,
+        String fingerprint,
+        String httpMethod,
+        String requestUri,
+        String requestBody,
+        Map<String, String> context,
+        List<LogLine> recentLogs,
+        AiExplanation aiExplanation,
+        boolean hasStackTrace
+) {
+
+    private static final int MAX_MESSAGE_CHARS = 2_000;
+    private static final int MAX_BODY_CHARS = 4_000;
+    private static final int MAX_LOG_LINES = 20;
+    private static final int MAX_LOG_CHARS = 500;
+
+    public static DashboardEvent from(ErrorEvent event) {
+        List<LogLine> logs = event.getRecentLogs();
+        return new DashboardEvent(
+                event.getId(),
+                event.getType().name(),
+                event.getTimestamp().toString(),
+                event.getExceptionClass(),
+                cap(event.getMessage(), MAX_MESSAGE_CHARS),
+                event.getRootCauseClass(),
+                cap(event.getRootCauseMessage(), MAX_MESSAGE_CHARS),
+                event.getFingerprint(),
+                event.getHttpMethod(),
+                event.getRequestUri(),
+                cap(event.getRequestBody(), MAX_BODY_CHARS),
+                event.getContext(),
+                logs.subList(Math.max(0, logs.size() - MAX_LOG_LINES), logs.size()).stream()
+                        .map(DashboardEvent::cap)
+                        .toList(),
+                event.getAiExplanation(),
+                event.getStackTrace() != null && !event.getStackTrace().isEmpty()
+        );
+    }
+
+    private static LogLine cap(LogLine line) {
+        return new LogLine(line.level(), cap(line.message(), MAX_LOG_CHARS), line.loggerName(), line.threadName(),
+                line.throwableClass(), cap(line.throwableMessage(), MAX_LOG_CHARS), line.timestamp());
+    }
+
+    private static String cap(String text, int max) {
+        return text == null || text.length() <= max ? text : text.substring(0, max) + "…";
+    }
+}
@@ -2,54 +2,278 @@ package io.github.rexrk.exception.insights.service.ai;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.rexrk.ai.resilience.CallNotPermittedException;
+import io.github.rexrk.ai.resilience.ChatCallGuard;
+import io.github.rexrk.ai.resilience.CircuitBreaker;
+import io.github.rexrk.exception.insights.autoconfigure.AiExceptionInsightProperties;
 import io.github.rexrk.exception.insights.model.AiExplanation;
 import io.github.rexrk.exception.insights.model.AiPromptContext;
 import io.github.rexrk.exception.insights.model.ErrorEvent;
+import io.github.rexrk.exception.insights.service.ai.metrics.AiExplanationMetrics;
+import io.github.rexrk.exception.insights.service.ai.metrics.AiExplanationMetrics.Outcome;
+import io.github.rexrk.exception.insights.service.ai.similarity.SimilarityIndex;
+import io.github.rexrk.exception.insights.service.ai.similarity.TraceSimHash;
+import io.github.rexrk.exception.insights.service.local.LocalExplainer;
+import io.github.rexrk.exception.insights.service.local.LocalExplainerChain;
 import io.github.rexrk.exception.insights.service.output.ErrorOutput;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.scheduling.annotation.Async;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class AiExplanationService {
 
     private final ChatClient chatClient;
     private final ObjectMapper objectMapper;
     private final ErrorOutput outputService;
+    private final ChatCallGuard callGuard;
+    private final PromptCompactor promptCompactor;
+    private final SimilarityIndex<AiExplanation> similarityIndex;
+    private final LocalExplainerChain localExplainers;
+    private final boolean enrichRulesWithAi;
+    private final AiExplanationMetrics metrics;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // events rejected by the open circuit, re-driven once it closes
+    private final BlockingDeque<Deferred> deferred;
+    private final AtomicBoolean redriveScheduled = new AtomicBoolean();
 
     public AiExplanationService(ChatClient chatClient,
                                 ObjectMapper objectMapper,
                                 ErrorOutput outputService) {
+        this(chatClient, objectMapper, outputService, new AiExceptionInsightProperties(), List.of(),
+                AiExplanationMetrics.NOOP);
+    }
+
+    /**
+     * Builds the call guard, prompt compactor, similarity index and rule chain from {@code props}.
+     *
+     * @param localExplainers custom rules, tried before the built-in ones
+     */
+    public AiExplanationService(ChatClient chatClient,
+                                ObjectMapper objectMapper,
+                                ErrorOutput outputService,
+                                AiExceptionInsightProperties props,
+                                List<LocalExplainer> localExplainers,
+                                AiExplanationMetrics metrics) {
+        this(chatClient, objectMapper, outputService,
+                callGuard(props.getResilience()),
+                props.getResilience().getMaxDeferredEvents(),
+                promptCompactor(props.getPrompt()),
+                props.getSimilarity().isEnabled()
+                        ? new SimilarityIndex<>(props.getSimilarity().getCapacity(), props.getSimilarity().getMaxDistance())
+                        : null,
+                props.getRules().isEnabled() ? LocalExplainerChain.withBuiltIns(localExplainers) : null,
+                props.getRules().isEnrichWithAi(),
+                metrics);
+    }
+
+    public AiExplanationService(ChatClient chatClient,
+                                ObjectMapper objectMapper,
+                                ErrorOutput outputService,
+                                ChatCallGuard callGuard,
+                                int maxDeferredEvents,
+                                PromptCompactor promptCompactor,
+                                SimilarityIndex<AiExplanation> similarityIndex,
+                                LocalExplainerChain localExplainers,
+                                boolean enrichRulesWithAi,
+                                AiExplanationMetrics metrics) {
         this.chatClient = chatClient;
         this.objectMapper = objectMapper;
         this.outputService = outputService;
+        this.callGuard = callGuard;
+        this.promptCompactor = promptCompactor;
+        this.similarityIndex = similarityIndex;
+        this.localExplainers = localExplainers;
+        this.enrichRulesWithAi = enrichRulesWithAi;
+        this.metrics = metrics;
+        this.deferred = new LinkedBlockingDeque<>(Math.max(1, maxDeferredEvents));
+        callGuard.getCircuitBreaker().onClose(() -> {
+            if (!deferred.isEmpty()) {
+                Thread.ofVirtual().name("ai-explanation-redrive").start(this::redrive);
+            }
+        });
+        metrics.bindGauges(deferred::size, inFlight::get);
+    }
+
+    private static ChatCallGuard callGuard(AiExceptionInsightProperties.Resilience resilience) {
+        return new ChatCallGuard(
+                resilience.getCallTimeout(),
+                resilience.getMaxAttempts(),
+                resilience.getInitialBackoff(),
+                resilience.getMaxBackoff(),
+                new CircuitBreaker(resilience.getFailureThreshold(), resilience.getOpenDuration())
+        );
+    }
+
+    private static PromptCompactor promptCompactor(AiExceptionInsightProperties.Prompt prompt) {
+        return new PromptCompactor(
+                prompt.getTokenBudget(),
+                prompt.getMaxStackFrames(),
+                prompt.getMaxLogLines(),
+                prompt.getAppPackages(),
+                prompt.getFrameworkPackages()
+        );
     }
 
     @Async
     public void explainAsync(ErrorEvent event) {
+        explain(event);
+    }
+
+    public int getDeferredCount() {
+        return deferred.size();
+    }
+
+    void explain(ErrorEvent event) {
+        Optional<AiExplanation> local = localExplainers != null
+                ? localExplainers.explain(event)
+                : Optional.empty();
+        if (local.isPresent()) {
+            event.setAiExplanation(local.get());
+            outputService.onAiExplanationReady(event);
+            // already off the request thread, so this is the background enrichment
+            if (enrichRulesWithAi) explainWithModel(event, true);
+            return;
+        }
+        explainWithModel(event, false);
+    }
+
+    /**
+     * @param enrichment the event already carries a rule explanation; keep it
+     *                   unless the model produces a usable answer
+     */
+    private void explainWithModel(ErrorEvent event, boolean enrichment) {
+        long signature = TraceSimHash.of(event);
+        // an inferred answer is no better than the rule's, so enrichment always asks the model
+        if (similarityIndex != null && !enrichment) {
+            Optional<SimilarityIndex.Match<AiExplanation>> match = similarityIndex.findNearest(signature);
+            if (match.isPresent()) {
+                event.setAiExplanation(match.get().value().withOrigin(AiExplanation.Origin.INFERRED));
+                outputService.onAiExplanationReady(event);
+                return;
+            }
+        }
+
+        inFlight.incrementAndGet();
         try {
-            AiPromptContext context = AiPromptMapper.from(event);
+            AiPromptContext context = AiPromptMapper.from(event, promptCompactor);
             String prompt = buildPrompt(context);
+            metrics.recordPromptSize(prompt.length(), TokenEstimator.estimate(prompt));
 
-            String raw = chatClient.prompt()
-                    .user(prompt)
-                    .call()
-                    .content();
+            ChatResponse response = callGuard.call(() -> timedCall(prompt));
+            recordUsage(response);
 
-            AiExplanation explanation = parse(raw);
+            String raw = response != null && response.getResult() != null
+                    ? response.getResult().getOutput().getText()
+                    : null;
+            metrics.recordResponseSize(raw != null ? raw.length() : 0);
+
+            AiExplanation explanation = tryParse(raw);
+            if (explanation == null) {
+                metrics.recordParseFailure();
+                metrics.recordOutcome(Outcome.FAILURE);
+                if (enrichment) return;
+                explanation = new AiExplanation("Failed to parse AI response", List.of(), List.of(), raw);
+            } else {
+                metrics.recordOutcome(Outcome.SUCCESS);
+                if (similarityIndex != null) similarityIndex.put(signature, explanation);
+            }
             event.setAiExplanation(explanation);
             outputService.onAiExplanationReady(event);
 
+        } catch (CallNotPermittedException e) {
+            metrics.recordOutcome(Outcome.REJECTED);
+            defer(new Deferred(event, enrichment), e.getRetryAfter());
+
         } catch (Exception e) {
+            metrics.recordOutcome(Outcome.FAILURE);
+            if (enrichment) return;
             event.setAiExplanation(new AiExplanation(
                     "AI explanation unavailable: " + e.getMessage(),
                     List.of(),
                     List.of(),
                     null
             ));
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private ChatResponse timedCall(String prompt) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            ChatResponse response = chatClient.prompt()
+                    .user(prompt)
+                    .call()
+                    .chatResponse();
+            success = true;
+            return response;
+        } finally {
+            metrics.recordAttempt(Duration.ofNanos(System.nanoTime() - start), success);
+        }
+    }
+
+    private void recordUsage(ChatResponse response) {
+        if (response == null || response.getMetadata() == null) return;
+        Usage usage = response.getMetadata().getUsage();
+        if (usage == null) return;
+        long promptTokens = usage.getPromptTokens() != null ? usage.getPromptTokens() : 0;
+        long completionTokens = usage.getCompletionTokens() != null ? usage.getCompletionTokens() : 0;
+        if (promptTokens > 0 || completionTokens > 0) {
+            metrics.recordTokenUsage(promptTokens, completionTokens);
+        }
+    }
+
+    private void defer(Deferred call, Duration retryAfter) {
+        while (!deferred.offerLast(call)) {
+            deferred.pollFirst(); // drop oldest, same policy as the store
+        }
+        scheduleRedrive(retryAfter);
+    }
+
+    private void scheduleRedrive(Duration delay) {
+        if (!redriveScheduled.compareAndSet(false, true)) return;
+
+        Thread.ofVirtual().name("ai-explanation-redrive").start(() -> {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                redriveScheduled.set(false);
+            }
+            redrive();
+        });
+    }
+
+    /**
+     * Replays deferred events. When nothing else is hitting the model, the
+     * first replayed call doubles as the circuit breaker's half-open probe.
+     */
+    private void redrive() {
+        // bounded by the snapshot so events re-deferred during this pass wait for the next one
+        int pending = deferred.size();
+        for (int i = 0; i < pending; i++) {
+            Deferred next = deferred.pollFirst();
+            if (next == null) break;
+            // the rule chain already ran for these; only the model call is replayed
+            explainWithModel(next.event(), next.enrichment());
         }
     }
 
+    private record Deferred(ErrorEvent event, boolean enrichment) {}
+
     private String buildPrompt(AiPromptContext ctx) {
         return """
                 You are a Spring Boot expert helping a developer debug a runtime error.
@@ -60,7 +284,7 @@ public class AiExplanationService {
                 EXCEPTION: %s
                 MESSAGE: %s
                 
-                STACK TRACE (top frames):
+                STACK TRACE (framework frames collapsed):
                 %s
                 
                 RECENT LOGS:
@@ -81,7 +305,7 @@ public class AiExplanationService {
         );
     }
 
-    private AiExplanation parse(String raw) {
+    private AiExplanation tryParse(String raw) {
         try {
             String clean = raw.replaceAll("```json|```", "").trim();
             JsonNode node = objectMapper.readTree(clean);
@@ -96,12 +320,7 @@ public class AiExplanationService {
                     raw
             );
         } catch (Exception e) {
-            return new AiExplanation(
-                    "Failed to parse AI response",
-                    List.of(),
-                    List.of(),
-                    raw
-            );
+            return null;
         }
     }
 }
\ No newline at end of file
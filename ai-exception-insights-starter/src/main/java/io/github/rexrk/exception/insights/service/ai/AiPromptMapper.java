@@ -8,33 +8,33 @@ import java.util.List;
 
 public final class AiPromptMapper {
 
-    private static final int MAX_STACK_FRAMES = 8;
-    private static final int MAX_LOG_LINES = 8;
-
     private AiPromptMapper() {}
 
     public static AiPromptContext from(ErrorEvent event) {
-        return new AiPromptContext(
+        return from(event, PromptCompactor.DEFAULT);
+    }
+
+    public static AiPromptContext from(ErrorEvent event, PromptCompactor compactor) {
+        return compactor.compact(new AiPromptContext(
             event.getExceptionClass(),
             event.getMessage(),
-            topStackFrames(event.getStackTrace()),
+            stackLines(event.getStackTrace()),
             recentLogs(event.getRecentLogs()),
             executionContext(event)
-        );
+        ));
     }
 
-    private static List<String> topStackFrames(String stackTrace) {
+    // every frame and cause header; PromptCompactor decides what survives
+    private static List<String> stackLines(String stackTrace) {
         if (stackTrace == null) return List.of();
         return stackTrace.lines()
-            .filter(l -> l.startsWith("\tat "))
-            .limit(MAX_STACK_FRAMES)
+            .filter(l -> l.startsWith("\tat ") || l.startsWith("Caused by: "))
             .toList();
     }
 
     private static List<String> recentLogs(List<LogLine> logs) {
         return logs.stream()
             .filter(l -> "ERROR".equals(l.level()) || "WARN".equals(l.level()))
-            .limit(MAX_LOG_LINES)
             .map(l -> l.level() + " " + l.loggerName() + " - " + l.message())
             .toList();
     }
@@ -0,0 +1,282 @@
+package io.github.rexrk.exception.insights.service.ai;
+
+import io.github.rexrk.exception.insights.model.AiPromptContext;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shrinks a raw {@link AiPromptContext} so the model sees the frames that
+ * matter within a fixed token budget.
+ * <ul>
+ *   <li>framework and proxy frames are collapsed into "... N frames omitted" markers</li>
+ *   <li>application frames, the throw site of every section and the top of the root cause are kept</li>
+ *   <li>repeated log messages (ignoring digits) are folded into one line with a count</li>
+ *   <li>if still over budget: oldest logs go first, then outer-section frames, then the message is truncated</li>
+ * </ul>
+ */
+public class PromptCompactor {
+
+    public static final List<String> DEFAULT_FRAMEWORK_PACKAGES = List.of(
+            "org.springframework.",
+            "org.apache.catalina.",
+            "org.apache.coyote.",
+            "org.apache.tomcat.",
+            "org.eclipse.jetty.",
+            "io.undertow.",
+            "jakarta.servlet.",
+            "org.aspectj.",
+            "net.bytebuddy.",
+            "io.micrometer.",
+            "reactor."
+    );
+
+    private static final List<String> PROXY_MARKERS = List.of(
+            "$$SpringCGLIB$$",
+            "$$EnhancerBySpringCGLIB$$",
+            "$$FastClassBySpringCGLIB$$",
+            "jdk.proxy",
+            "$Proxy"
+    );
+
+    public static final PromptCompactor DEFAULT =
+            new PromptCompactor(1200, 20, 8, List.of(), DEFAULT_FRAMEWORK_PACKAGES);
+
+    private static final int ROOT_CAUSE_FRAMES = 3;
+    private static final int MARKER_TOKENS = TokenEstimator.estimate("\t... 99 frames omitted") + 1;
+
+    private final int tokenBudget;
+    private final int maxStackFrames;
+    private final int maxLogLines;
+    private final List<String> appPackages;
+    private final List<String> frameworkPackages;
+
+    public PromptCompactor(int tokenBudget,
+                           int maxStackFrames,
+                           int maxLogLines,
+                           List<String> appPackages,
+                           List<String> frameworkPackages) {
+        this.tokenBudget = tokenBudget;
+        this.maxStackFrames = maxStackFrames;
+        this.maxLogLines = maxLogLines;
+        this.appPackages = List.copyOf(appPackages);
+        this.frameworkPackages = List.copyOf(frameworkPackages);
+    }
+
+    /**
+     * @param raw context whose {@code topStackFrames} holds every {@code \tat}
+     *            and {@code Caused by:} line, and whose logs are in chronological order
+     */
+    public AiPromptContext compact(AiPromptContext raw) {
+        List<Section> sections = parse(raw.topStackFrames());
+        List<String> logs = dedupe(raw.recentLogMessages());
+        String message = raw.exceptionMessage();
+
+        while (keptFrames(sections) > maxStackFrames && dropFrame(sections)) {
+            // cap application frames independently of the token budget
+        }
+
+        int fixed = TokenEstimator.estimate(raw.exceptionClass())
+                + TokenEstimator.estimate(raw.executionContext());
+
+        while (fixed + TokenEstimator.estimate(message) + frameTokens(sections)
+                + TokenEstimator.estimate(logs) > tokenBudget) {
+            if (!logs.isEmpty()) {
+                logs.removeFirst();
+            } else if (!dropFrame(sections)) {
+                break;
+            }
+        }
+
+        int remaining = tokenBudget - fixed - frameTokens(sections);
+        message = truncate(message, remaining);
+
+        return new AiPromptContext(
+                raw.exceptionClass(),
+                message,
+                render(sections),
+                List.copyOf(logs),
+                raw.executionContext()
+        );
+    }
+
+    // -------------------------------------------------------------------------
+    // Stack frames
+    // -------------------------------------------------------------------------
+
+    private List<Section> parse(List<String> lines) {
+        List<Section> sections = new ArrayList<>();
+        Section current = new Section(null);
+        sections.add(current);
+
+        for (String line : lines) {
+            if (line.startsWith("Caused by: ")) {
+                current = new Section(line);
+                sections.add(current);
+            } else if (line.startsWith("\tat ")) {
+                boolean throwSite = current.frames.isEmpty();
+                current.frames.add(new Frame(line, TokenEstimator.estimate(line) + 1,
+                        throwSite, throwSite || isApplicationFrame(line.substring(4))));
+            }
+        }
+
+        if (sections.getFirst().frames.isEmpty() && sections.size() > 1) {
+            sections.removeFirst();
+        }
+        // the deepest cause is what the developer actually has to fix,
+        // so its top frames survive even when they sit inside a library
+        Section root = sections.getLast();
+        root.root = true;
+        for (int i = 0; i < Math.min(ROOT_CAUSE_FRAMES, root.frames.size()); i++) {
+            root.frames.get(i).pinned = true;
+            root.frames.get(i).kept = true;
+        }
+        return sections;
+    }
+
+    private boolean isApplicationFrame(String frame) {
+        // strip module prefix, e.g. "java.base/java.lang.Thread.run(Thread.java:1583)"
+        int slash = frame.indexOf('/');
+        int paren = frame.indexOf('(');
+        String location = slash >= 0 && (paren < 0 || slash < paren) ? frame.substring(slash + 1) : frame;
+
+        for (String marker : PROXY_MARKERS) {
+            if (location.contains(marker)) return false;
+        }
+        if (!appPackages.isEmpty()) {
+            return appPackages.stream().anyMatch(location::startsWith);
+        }
+        return frameworkPackages.stream().noneMatch(location::startsWith)
+                && !location.startsWith("java.") && !location.startsWith("javax.")
+                && !location.startsWith("jdk.") && !location.startsWith("sun.");
+    }
+
+    /** Collapses the lowest kept frame, taking from outer sections before the root cause. */
+    private boolean dropFrame(List<Section> sections) {
+        for (Section section : sections) {
+            if (!section.root && dropLowest(section)) return true;
+        }
+        return dropLowest(sections.getLast());
+    }
+
+    private boolean dropLowest(Section section) {
+        for (int i = section.frames.size() - 1; i >= 0; i--) {
+            Frame frame = section.frames.get(i);
+            if (frame.kept && !frame.pinned) {
+                frame.kept = false;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int keptFrames(List<Section> sections) {
+        int kept = 0;
+        for (Section section : sections) {
+            for (Frame frame : section.frames) {
+                if (frame.kept) kept++;
+            }
+        }
+        return kept;
+    }
+
+    private int frameTokens(List<Section> sections) {
+        int tokens = 0;
+        for (Section section : sections) {
+            if (section.header != null) tokens += TokenEstimator.estimate(section.header) + 1;
+            boolean inRun = false;
+            for (Frame frame : section.frames) {
+                if (frame.kept) {
+                    tokens += frame.tokens;
+                    inRun = false;
+                } else if (!inRun) {
+                    tokens += MARKER_TOKENS;
+                    inRun = true;
+                }
+            }
+        }
+        return tokens;
+    }
+
+    private List<String> render(List<Section> sections) {
+        List<String> lines = new ArrayList<>();
+        for (Section section : sections) {
+            if (section.header != null) lines.add(section.header);
+            int omitted = 0;
+            for (Frame frame : section.frames) {
+                if (frame.kept) {
+                    if (omitted > 0) lines.add(omittedMarker(omitted));
+                    omitted = 0;
+                    lines.add(frame.line);
+                } else {
+                    omitted++;
+                }
+            }
+            if (omitted > 0) lines.add(omittedMarker(omitted));
+        }
+        return lines;
+    }
+
+    private static String omittedMarker(int count) {
+        return "\t... " + count + (count == 1 ? " frame omitted" : " frames omitted");
+    }
+
+    // -------------------------------------------------------------------------
+    // Logs and message
+    // -------------------------------------------------------------------------
+
+    private List<String> dedupe(List<String> logs) {
+        // keyed on the digit-insensitive text, ordered by last occurrence
+        Map<String, String> latest = new LinkedHashMap<>();
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (String line : logs) {
+            String key = line.replaceAll("\\d+", "#");
+            latest.remove(key);
+            latest.put(key, line);
+            counts.merge(key, 1, Integer::sum);
+        }
+
+        List<String> deduped = new ArrayList<>(latest.size());
+        latest.forEach((key, line) -> {
+            int count = counts.get(key);
+            deduped.add(count > 1 ? line + " (x" + count + ")" : line);
+        });
+
+        int from = Math.max(0, deduped.size() - maxLogLines);
+        return new ArrayList<>(deduped.subList(from, deduped.size()));
+    }
+
+    private static String truncate(String message, int tokens) {
+        if (message == null || TokenEstimator.estimate(message) <= tokens) return message;
+        int chars = Math.max(0, tokens) * 3; // conservative: messages are punctuation-heavy
+        return chars >= message.length() ? message : message.substring(0, chars) + "…";
+    }
+
+    // -------------------------------------------------------------------------
+
+    private static final class Section {
+        private final String header;
+        private final List<Frame> frames = new ArrayList<>();
+        private boolean root;
+
+        private Section(String header) {
+            this.header = header;
+        }
+    }
+
+    private static final class Frame {
+        private final String line;
+        private final int tokens;
+        private boolean pinned;
+        private boolean kept;
+
+        private Frame(String line, int tokens, boolean pinned, boolean kept) {
+            this.line = line;
+            this.tokens = tokens;
+            this.pinned = pinned;
+            this.kept = kept;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.rexrk.exception.insights.service.ai;
+
+/**
+ * Cheap local approximation of BPE token counts, good enough for budgeting.
+ * <p>
+ * Letter/digit runs cost roughly one token per four characters, every other
+ * visible character (dots, parens, colons — most of a stack frame) costs one,
+ * and whitespace is free. It tends to overestimate slightly, which is the
+ * safe direction for a budget.
+ */
+public final class TokenEstimator {
+
+    private TokenEstimator() {}
+
+    public static int estimate(String text) {
+        if (text == null || text.isEmpty()) return 0;
+
+        int tokens = 0;
+        int run = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                run++;
+                continue;
+            }
+            tokens += (run + 3) / 4;
+            run = 0;
+            if (!Character.isWhitespace(c)) tokens++;
+        }
+        return tokens + (run + 3) / 4;
+    }
+
+    public static int estimate(Iterable<String> lines) {
+        int tokens = 0;
+        for (String line : lines) {
+            tokens += estimate(line) + 1; // newline
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,31 @@
+package io.github.rexrk.exception.insights.service.ai.metrics;
+
+import java.time.Duration;
+import java.util.function.IntSupplier;
+
+/**
+ * Recording hooks for the explanation pipeline. {@link #NOOP} is used when no
+ * {@code MeterRegistry} is available, so the service never has to null-check.
+ */
+public interface AiExplanationMetrics {
+
+    AiExplanationMetrics NOOP = new AiExplanationMetrics() {};
+
+    enum Outcome { SUCCESS, FAILURE, REJECTED }
+
+    /** One model attempt; retries are recorded individually. */
+    default void recordAttempt(Duration latency, boolean success) {}
+
+    /** One explanation request, after retries. */
+    default void recordOutcome(Outcome outcome) {}
+
+    default void recordParseFailure() {}
+
+    default void recordPromptSize(int chars, int estimatedTokens) {}
+
+    default void recordResponseSize(int chars) {}
+
+    default void recordTokenUsage(long promptTokens, long completionTokens) {}
+
+    default void bindGauges(IntSupplier deferred, IntSupplier inFlight) {}
+}
@@ -0,0 +1,35 @@
+package io.github.rexrk.exception.insights.service.ai.metrics;
+
+import io.github.rexrk.ai.metrics.MicrometerAiMetrics;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.function.IntSupplier;
+
+public class MicrometerAiExplanationMetrics extends MicrometerAiMetrics<AiExplanationMetrics.Outcome>
+        implements AiExplanationMetrics {
+
+    static final String PREFIX = "devtools.ai.exception.insights";
+
+    private final DistributionSummary promptTokens;
+
+    public MicrometerAiExplanationMetrics(MeterRegistry registry) {
+        super(registry, PREFIX, Outcome.class);
+        this.promptTokens = DistributionSummary.builder(PREFIX + ".prompt.tokens.estimated")
+                .description("Locally estimated prompt tokens")
+                .baseUnit("tokens")
+                .register(registry);
+    }
+
+    @Override
+    public void recordPromptSize(int chars, int estimatedTokens) {
+        recordPromptSize(chars);
+        promptTokens.record(estimatedTokens);
+    }
+
+    @Override
+    public void bindGauges(IntSupplier deferred, IntSupplier inFlight) {
+        gauge("deferred", "Events waiting for the circuit breaker to close", deferred);
+        gauge("inflight", "Explanations currently waiting on the model", inFlight);
+    }
+}
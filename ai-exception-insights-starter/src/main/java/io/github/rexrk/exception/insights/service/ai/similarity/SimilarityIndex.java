@@ -0,0 +1,155 @@
+package io.github.rexrk.exception.insights.service.ai.similarity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded nearest-neighbour index over 64-bit SimHashes using LSH banding.
+ * <p>
+ * The hash is split into {@code maxDistance + 1} bands. Two hashes within
+ * {@code maxDistance} bits of each other must agree on at least one whole
+ * band (pigeonhole), so a lookup only compares against the entries sharing a
+ * band bucket instead of scanning the index. Oldest entries are evicted once
+ * {@code capacity} is reached.
+ */
+public class SimilarityIndex<V> {
+
+    public record Match<V>(V value, int distance) {}
+
+    private final int capacity;
+    private final int maxDistance;
+    private final int[] bandShift;
+    private final long[] bandMask;
+    private final List<Map<Long, Slots>> buckets;
+
+    private final long[] hashes;
+    private final Object[] values;
+    private int next;
+    private int size;
+
+    public SimilarityIndex(int capacity, int maxDistance) {
+        this.capacity = Math.max(1, capacity);
+        this.maxDistance = Math.clamp(maxDistance, 0, 15);
+
+        int bands = this.maxDistance + 1;
+        this.bandShift = new int[bands];
+        this.bandMask = new long[bands];
+        this.buckets = new ArrayList<>(bands);
+        int width = 64 / bands;
+        for (int b = 0; b < bands; b++) {
+            int bits = b == bands - 1 ? 64 - width * b : width;
+            bandShift[b] = width * b;
+            bandMask[b] = bits == 64 ? -1L : (1L << bits) - 1;
+            buckets.add(new HashMap<>());
+        }
+
+        this.hashes = new long[this.capacity];
+        this.values = new Object[this.capacity];
+    }
+
+    public synchronized void put(long hash, V value) {
+        Integer existing = exactSlot(hash);
+        if (existing != null) {
+            values[existing] = value;
+            return;
+        }
+
+        if (size == capacity) {
+            unlink(next);
+        } else {
+            size++;
+        }
+        hashes[next] = hash;
+        values[next] = value;
+        for (int b = 0; b < bandMask.length; b++) {
+            buckets.get(b).computeIfAbsent(band(hash, b), k -> new Slots()).add(next);
+        }
+        next = (next + 1) % capacity;
+    }
+
+    @SuppressWarnings("unchecked")
+    public synchronized Optional<Match<V>> findNearest(long hash) {
+        int bestSlot = -1;
+        int bestDistance = maxDistance + 1;
+
+        for (int b = 0; b < bandMask.length && bestDistance > 0; b++) {
+            Slots slots = buckets.get(b).get(band(hash, b));
+            if (slots == null) continue;
+            for (int i = 0; i < slots.size; i++) {
+                int slot = slots.items[i];
+                int distance = Long.bitCount(hashes[slot] ^ hash);
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    bestSlot = slot;
+                }
+            }
+        }
+        return bestSlot < 0
+                ? Optional.empty()
+                : Optional.of(new Match<>((V) values[bestSlot], bestDistance));
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void clear() {
+        buckets.forEach(Map::clear);
+        Arrays.fill(values, null);
+        next = 0;
+        size = 0;
+    }
+
+    private Integer exactSlot(long hash) {
+        Slots slots = buckets.getFirst().get(band(hash, 0));
+        if (slots == null) return null;
+        for (int i = 0; i < slots.size; i++) {
+            if (hashes[slots.items[i]] == hash) return slots.items[i];
+        }
+        return null;
+    }
+
+    private void unlink(int slot) {
+        long hash = hashes[slot];
+        for (int b = 0; b < bandMask.length; b++) {
+            Map<Long, Slots> bucket = buckets.get(b);
+            long key = band(hash, b);
+            Slots slots = bucket.get(key);
+            if (slots != null && slots.remove(slot) && slots.size == 0) {
+                bucket.remove(key);
+            }
+        }
+        values[slot] = null;
+    }
+
+    private long band(long hash, int b) {
+        return (hash >>> bandShift[b]) & bandMask[b];
+    }
+
+    // -------------------------------------------------------------------------
+
+    /** Minimal growable int list; buckets are small, so removal is a linear scan. */
+    private static final class Slots {
+        private int[] items = new int[2];
+        private int size;
+
+        void add(int slot) {
+            if (size == items.length) items = Arrays.copyOf(items, size * 2);
+            items[size++] = slot;
+        }
+
+        boolean remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (items[i] == slot) {
+                    items[i] = items[--size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
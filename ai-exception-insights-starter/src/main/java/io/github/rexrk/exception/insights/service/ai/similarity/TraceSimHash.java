@@ -0,0 +1,107 @@
+package io.github.rexrk.exception.insights.service.ai.similarity;
+
+import io.github.rexrk.exception.insights.model.ErrorEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+/**
+ * 64-bit SimHash of an error's shape: exception and root-cause classes, the
+ * message with its parameters replaced by placeholders, and the stack frames
+ * without line numbers. Events that differ only in ids, counts or line
+ * numbers land within a few bits of each other.
+ */
+public final class TraceSimHash {
+
+    private static final int MAX_FRAMES_PER_SECTION = 24;
+
+    private static final Pattern QUOTED = Pattern.compile("'[^']*'|\"[^\"]*\"");
+    private static final Pattern UUID = Pattern.compile(
+            "\\b[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}\\b");
+    private static final Pattern HEX = Pattern.compile("\\b0x[0-9a-fA-F]+\\b|\\b[0-9a-fA-F]{12,}\\b");
+    private static final Pattern NUMBER = Pattern.compile("\\d+(\\.\\d+)?");
+
+    private TraceSimHash() {}
+
+    public static long of(ErrorEvent event) {
+        Accumulator acc = new Accumulator();
+
+        acc.add("class:" + event.getExceptionClass(), 4);
+        if (event.getRootCauseClass() != null) {
+            acc.add("root:" + event.getRootCauseClass(), 4);
+        }
+
+        for (String token : messageTemplate(event.getMessage()).split("\\s+")) {
+            if (!token.isEmpty()) acc.add("msg:" + token, 1);
+        }
+
+        String previous = null;
+        int inSection = 0;
+        if (event.getStackTrace() != null) {
+            for (String line : event.getStackTrace().lines().toList()) {
+                if (line.startsWith("Caused by: ")) {
+                    int colon = line.indexOf(':', "Caused by: ".length());
+                    acc.add("cause:" + (colon < 0 ? line : line.substring(0, colon)), 2);
+                    previous = null;
+                    inSection = 0;
+                } else if (line.startsWith("\tat ") && inSection++ < MAX_FRAMES_PER_SECTION) {
+                    String frame = frameWithoutLine(line.substring(4));
+                    // top frames say the most about where it broke
+                    acc.add("frame:" + frame, inSection <= 5 ? 3 : 1);
+                    if (previous != null) acc.add("edge:" + previous + ">" + frame, 1);
+                    previous = frame;
+                }
+            }
+        }
+        return acc.hash();
+    }
+
+    static String messageTemplate(String message) {
+        if (message == null) return "";
+        String template = QUOTED.matcher(message).replaceAll("<str>");
+        template = UUID.matcher(template).replaceAll("<uuid>");
+        template = HEX.matcher(template).replaceAll("<hex>");
+        return NUMBER.matcher(template).replaceAll("<n>");
+    }
+
+    static String frameWithoutLine(String frame) {
+        int paren = frame.indexOf('(');
+        return paren < 0 ? frame : frame.substring(0, paren);
+    }
+
+    // -------------------------------------------------------------------------
+
+    private static final class Accumulator {
+        private final int[] weights = new int[64];
+
+        void add(String feature, int weight) {
+            long h = hash64(feature);
+            for (int bit = 0; bit < 64; bit++) {
+                weights[bit] += ((h >>> bit) & 1L) != 0 ? weight : -weight;
+            }
+        }
+
+        long hash() {
+            long simHash = 0L;
+            for (int bit = 0; bit < 64; bit++) {
+                if (weights[bit] > 0) simHash |= 1L << bit;
+            }
+            return simHash;
+        }
+
+        // FNV-1a followed by the murmur3 finalizer for a well-mixed 64-bit value
+        private static long hash64(String feature) {
+            long h = 0xcbf29ce484222325L;
+            for (byte b : feature.getBytes(StandardCharsets.UTF_8)) {
+                h ^= b;
+                h *= 0x100000001b3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package io.github.rexrk.exception.insights.service.local;
+
+import io.github.rexrk.exception.insights.model.AiExplanation;
+import io.github.rexrk.exception.insights.model.ErrorEvent;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rules for failures common enough that the answer is always the same:
+ * <ul>
+ *   <li>{@code NullPointerException} with a helpful message (JEP 358)</li>
+ *   <li>{@code DataIntegrityViolationException} and JDBC/Hibernate constraint violations</li>
+ *   <li>{@code HttpMessageNotReadableException}</li>
+ *   <li>{@code MethodArgumentTypeMismatchException}</li>
+ *   <li>JDBC connection pool exhaustion (Hikari, DBCP2, Tomcat JDBC)</li>
+ * </ul>
+ */
+public final class BuiltInExplainers {
+
+    private BuiltInExplainers() {}
+
+    public static List<LocalExplainer> all() {
+        return List.of(
+                BuiltInExplainers::helpfulNullPointer,
+                BuiltInExplainers::connectionPoolExhausted,
+                BuiltInExplainers::dataIntegrityViolation,
+                BuiltInExplainers::messageNotReadable,
+                BuiltInExplainers::argumentTypeMismatch
+        );
+    }
+
+    // -------------------------------------------------------------------------
+    // NullPointerException
+    // -------------------------------------------------------------------------
+
+    private static final Pattern HELPFUL_NPE = Pattern.compile("^Cannot (.+?) because (.+) is null$");
+    private static final Pattern RETURN_VALUE = Pattern.compile("^the return value of \"(.+)\"$");
+    private static final Pattern SYNTHETIC_NAME = Pattern.compile("^<(local|parameter)\\d+>$");
+    private static final Pattern UNBOXING = Pattern.compile(
+            "^invoke \"java\\.lang\\.(Integer|Long|Short|Byte|Double|Float|Boolean|Character)\\.\\w+Value\\(\\)\"$");
+
+    static Optional<AiExplanation> helpfulNullPointer(ErrorEvent event) {
+        Optional<ExceptionChain.Link> npe = ExceptionChain.of(event).find("java.lang.NullPointerException");
+        if (npe.isEmpty() || npe.get().message() == null) return Optional.empty();
+
+        Matcher m = HELPFUL_NPE.matcher(npe.get().message());
+        if (!m.matches()) return Optional.empty();
+
+        String action = m.group(1);
+        String subject = m.group(2);
+        String where = throwSite(event);
+
+        Matcher returnValue = RETURN_VALUE.matcher(subject);
+        String what;
+        String cause;
+        String fix;
+        if (returnValue.matches()) {
+            what = "the return value of " + returnValue.group(1);
+            cause = returnValue.group(1) + " returned null (e.g. a missing map entry, an absent lookup result or an unset property).";
+            fix = "Handle the null result of " + returnValue.group(1) + ", or make it return Optional / a default value.";
+        } else {
+            String expression = unquote(subject);
+            what = "'" + expression + "'";
+            if (expression.startsWith("this.")) {
+                cause = "Field '" + expression.substring(5) + "' was never assigned - e.g. a missing constructor"
+                        + " argument, a bean created with 'new' instead of being injected, or a setter not called.";
+                fix = "Initialise '" + expression.substring(5) + "' in the constructor (constructor injection makes this impossible to miss).";
+            } else if (SYNTHETIC_NAME.matcher(expression).matches()) {
+                cause = "A local variable or parameter was null; the class was compiled without debug info, so its name is unknown.";
+                fix = "Compile with '-g' (or '-parameters') to get variable names in the message, then add a null check at " + where + ".";
+            } else {
+                cause = "'" + expression + "' was null when it was dereferenced.";
+                fix = "Validate '" + expression + "' where it is produced, or add a null check before it is used at " + where + ".";
+            }
+        }
+
+        List<String> causes = UNBOXING.matcher(action).matches()
+                ? List.of(cause, "A null wrapper (e.g. Integer) was auto-unboxed into a primitive.")
+                : List.of(cause);
+
+        return Optional.of(explanation(
+                "NullPointerException at " + where + ": cannot " + action + " because " + what + " is null.",
+                causes,
+                List.of(fix, "Add a test that covers the null case so it cannot regress.")
+        ));
+    }
+
+    // -------------------------------------------------------------------------
+    // Data integrity violations
+    // -------------------------------------------------------------------------
+
+    private static final List<String> INTEGRITY_CLASSES = List.of(
+            "org.springframework.dao.DataIntegrityViolationException",
+            "org.springframework.dao.DuplicateKeyException",
+            "java.sql.SQLIntegrityConstraintViolationException",
+            "org.hibernate.exception.ConstraintViolationException"
+    );
+    private static final Pattern CONSTRAINT_NAME = Pattern.compile(
+            "\\bconstraint\\b\\s*\\[?[\"'`]?(?!null\\b|violat)([\\w.$]+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern COLUMN_NAME = Pattern.compile(
+            "column\\s*[\"'`]?([\\w.$]+)", Pattern.CASE_INSENSITIVE);
+
+    static Optional<AiExplanation> dataIntegrityViolation(ErrorEvent event) {
+        ExceptionChain chain = ExceptionChain.of(event);
+        if (INTEGRITY_CLASSES.stream().noneMatch(chain::contains)) return Optional.empty();
+
+        String text = allMessages(chain);
+        String constraint = firstGroup(CONSTRAINT_NAME, text);
+        String named = constraint != null ? " '" + constraint + "'" : "";
+
+        if (containsAny(text, "duplicate key", "duplicate entry", "unique constraint", "unique index", "unique_violation")
+                || chain.contains("org.springframework.dao.DuplicateKeyException")) {
+            return Optional.of(explanation(
+                    "A row with the same unique key already exists (unique constraint" + named + ").",
+                    List.of("The insert or update duplicates a value that must be unique.",
+                            "Two concurrent requests may have passed an 'exists?' check before either inserted."),
+                    List.of("Return 409 Conflict for this case instead of a 500.",
+                            "Rely on the constraint (catch DuplicateKeyException) rather than a check-then-insert.",
+                            "Use an upsert if overwriting the existing row is the intended behaviour.")));
+        }
+        if (containsAny(text, "foreign key")) {
+            return Optional.of(explanation(
+                    "A foreign key constraint" + named + " was violated.",
+                    List.of("The row references a parent that does not exist, or a parent with children was deleted."),
+                    List.of("Verify the referenced id exists before saving, and return 400/404 if it does not.",
+                            "When deleting, remove or re-parent the children first, or configure cascading.")));
+        }
+        if (containsAny(text, "null value in column", "cannot be null", "not-null", "not null constraint", "null not allowed")) {
+            String column = firstGroup(COLUMN_NAME, text);
+            return Optional.of(explanation(
+                    "A NOT NULL column" + (column != null ? " '" + column + "'" : "") + " was written as null.",
+                    List.of("The entity field was not populated before save, or the request omitted it."),
+                    List.of("Validate the field with @NotNull on the request DTO so the client gets a 400.",
+                            "Give the column a default in the entity or the schema if null is never meaningful.")));
+        }
+        if (containsAny(text, "value too long", "data too long", "would be truncated")) {
+            return Optional.of(explanation(
+                    "A value is longer than its column allows.",
+                    List.of("The input exceeds the column length defined in the schema."),
+                    List.of("Add @Size to the request DTO matching the column length.",
+                            "Widen the column if longer values are legitimate.")));
+        }
+        return Optional.of(explanation(
+                "The database rejected the write because it violates constraint" + (named.isEmpty() ? "s" : named) + ".",
+                List.of("The data does not satisfy a unique, foreign key, not-null or check constraint."),
+                List.of("Inspect the root cause message for the exact constraint and validate that rule before saving.")));
+    }
+
+    // -------------------------------------------------------------------------
+    // Web binding
+    // -------------------------------------------------------------------------
+
+    private static final Pattern JACKSON_TYPE = Pattern.compile("type `([^`]+)`");
+    private static final Pattern UNRECOGNIZED_FIELD = Pattern.compile("Unrecognized field \"([^\"]+)\"");
+
+    static Optional<AiExplanation> messageNotReadable(ErrorEvent event) {
+        ExceptionChain chain = ExceptionChain.of(event);
+        Optional<ExceptionChain.Link> link =
+                chain.find("org.springframework.http.converter.HttpMessageNotReadableException");
+        if (link.isEmpty()) return Optional.empty();
+
+        String message = link.get().message() != null ? link.get().message() : "";
+        String request = request(event);
+
+        if (message.startsWith("Required request body is missing")) {
+            return Optional.of(explanation(
+                    "The request" + request + " has no body, but the endpoint requires one.",
+                    List.of("The client sent no body, or the body was consumed earlier (e.g. by a filter)."),
+                    List.of("Send a JSON body with Content-Type: application/json.",
+                            "Use @RequestBody(required = false) if the body is optional.")));
+        }
+        Matcher unrecognized = UNRECOGNIZED_FIELD.matcher(message);
+        if (unrecognized.find()) {
+            return Optional.of(explanation(
+                    "The request body" + request + " contains field '" + unrecognized.group(1) + "', which the target type does not declare.",
+                    List.of("The client and server disagree on the payload shape, and unknown properties are configured to fail."),
+                    List.of("Remove or rename the field on the client side.",
+                            "Or add @JsonIgnoreProperties(ignoreUnknown = true) to the DTO if extra fields are acceptable.")));
+        }
+        String type = firstGroup(JACKSON_TYPE, message);
+        if (message.contains("Cannot deserialize value of type") && type != null) {
+            return Optional.of(explanation(
+                    "A value in the request body" + request + " could not be converted to " + simpleName(type) + ".",
+                    List.of("The JSON value has the wrong type or format for " + type + " (e.g. a string for a number, or a bad date/enum value)."),
+                    List.of("Send the value in the expected format.",
+                            "Return a 400 with the offending field by handling HttpMessageNotReadableException in a @ControllerAdvice.")));
+        }
+        if (message.contains("Cannot construct instance of") && type != null) {
+            return Optional.of(explanation(
+                    "Jackson cannot create " + simpleName(type) + " from the request body" + request + ".",
+                    List.of(type + " has no default constructor, @JsonCreator or record canonical constructor Jackson can use, or it is abstract without type info."),
+                    List.of("Add a no-args constructor or a @JsonCreator, or use a record.",
+                            "For abstract types, add @JsonTypeInfo/@JsonSubTypes.")));
+        }
+        if (containsAny(message.toLowerCase(), "json parse error", "unexpected character", "unrecognized token", "unexpected end-of-input")) {
+            return Optional.of(explanation(
+                    "The request body" + request + " is not valid JSON.",
+                    List.of("The client sent malformed JSON (trailing comma, unquoted key, truncated body) or a non-JSON payload."),
+                    List.of("Validate the payload with a JSON linter and check the client serialiser.",
+                            "Make sure Content-Type matches the actual payload.")));
+        }
+        return Optional.empty();
+    }
+
+    private static final Pattern PARAMETER_NAME = Pattern.compile("parameter '([^']+)'");
+    private static final Pattern REQUIRED_TYPE = Pattern.compile("required type '([^']+)'");
+    private static final Pattern INPUT_STRING = Pattern.compile("For input string: \"([^\"]*)\"");
+    private static final Pattern ENUM_CONSTANT = Pattern.compile("No enum constant [\\w.$]+\\.([\\w$]+)");
+
+    static Optional<AiExplanation> argumentTypeMismatch(ErrorEvent event) {
+        Optional<ExceptionChain.Link> link = ExceptionChain.of(event)
+                .find("org.springframework.web.method.annotation.MethodArgumentTypeMismatchException");
+        if (link.isEmpty() || link.get().message() == null) return Optional.empty();
+
+        String message = link.get().message();
+        String parameter = firstGroup(PARAMETER_NAME, message);
+        String type = firstGroup(REQUIRED_TYPE, message);
+        String value = firstGroup(INPUT_STRING, message);
+        if (value == null) value = firstGroup(ENUM_CONSTANT, message);
+
+        String subject = parameter != null ? "Parameter '" + parameter + "'" : "A request parameter";
+        return Optional.of(explanation(
+                subject + (value != null ? " value '" + value + "'" : "") + " could not be converted to "
+                        + (type != null ? simpleName(type) : "the declared type") + request(event) + ".",
+                List.of("The client sent a path variable or query parameter in the wrong format.",
+                        "A route may be shadowing another (e.g. '/orders/{id}' matching '/orders/search')."),
+                List.of("Send the value in the expected format.",
+                        "Handle MethodArgumentTypeMismatchException in a @ControllerAdvice to return 400 instead of 500.")));
+    }
+
+    // -------------------------------------------------------------------------
+    // Connection pool exhaustion
+    // -------------------------------------------------------------------------
+
+    private static final Pattern HIKARI_TIMEOUT = Pattern.compile(
+            "(\\S+) - Connection is not available, request timed out after (\\d+)ms");
+    private static final Pattern HIKARI_STATS = Pattern.compile(
+            "\\(total=(\\d+), active=(\\d+), idle=(\\d+), waiting=(\\d+)\\)");
+
+    static Optional<AiExplanation> connectionPoolExhausted(ErrorEvent event) {
+        ExceptionChain chain = ExceptionChain.of(event);
+        String text = allMessages(chain);
+        boolean exhausted = text.contains("Connection is not available, request timed out")
+                || text.contains("Timeout waiting for idle object")
+                || chain.contains("org.apache.tomcat.jdbc.pool.PoolExhaustedException");
+        if (!exhausted) return Optional.empty();
+
+        Matcher timeout = HIKARI_TIMEOUT.matcher(text);
+        String detail = timeout.find()
+                ? " Pool '" + timeout.group(1) + "' waited " + timeout.group(2) + "ms for a free connection."
+                : "";
+        Matcher stats = HIKARI_STATS.matcher(text);
+        if (stats.find()) {
+            detail += " Pool state: " + stats.group(2) + "/" + stats.group(1) + " active, "
+                    + stats.group(4) + " threads waiting.";
+        }
+
+        return Optional.of(explanation(
+                "The database connection pool is exhausted; no connection became free in time." + detail,
+                List.of("Connections are held for too long: slow queries, or remote calls made inside @Transactional methods.",
+                        "A connection leak: connections obtained outside Spring-managed transactions and never closed.",
+                        "The pool is too small for the request concurrency."),
+                List.of("Keep transactions short and move HTTP/messaging calls out of @Transactional methods.",
+                        "Enable leak detection (spring.datasource.hikari.leak-detection-threshold) to find unclosed connections.",
+                        "Size the pool (maximum-pool-size) for the real concurrency, within the database's connection limit.")));
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private static AiExplanation explanation(String summary, List<String> causes, List<String> fixes) {
+        return new AiExplanation(summary, causes, fixes, null, AiExplanation.Origin.RULE);
+    }
+
+    private static String throwSite(ErrorEvent event) {
+        if (event.getStackTrace() == null) return "unknown location";
+        return event.getStackTrace().lines()
+                .filter(line -> line.startsWith("\tat "))
+                .map(line -> line.substring(4))
+                .findFirst()
+                .orElse("unknown location");
+    }
+
+    private static String request(ErrorEvent event) {
+        return event.getHttpMethod() != null && event.getRequestUri() != null
+                ? " (" + event.getHttpMethod() + " " + event.getRequestUri() + ")"
+                : "";
+    }
+
+    private static String allMessages(ExceptionChain chain) {
+        StringBuilder sb = new StringBuilder();
+        for (ExceptionChain.Link link : chain.links()) {
+            if (link.message() != null) sb.append(link.message()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static boolean containsAny(String text, String... fragments) {
+        String lower = text.toLowerCase();
+        for (String fragment : fragments) {
+            if (lower.contains(fragment)) return true;
+        }
+        return false;
+    }
+
+    private static String firstGroup(Pattern pattern, String text) {
+        Matcher m = pattern.matcher(text);
+        return m.find() ? m.group(1) : null;
+    }
+
+    private static String unquote(String text) {
+        return text.length() >= 2 && text.startsWith("\"") && text.endsWith("\"")
+                ? text.substring(1, text.length() - 1)
+                : text;
+    }
+
+    private static String simpleName(String className) {
+        int dot = className.lastIndexOf('.');
+        return dot < 0 ? className : className.substring(dot + 1);
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.rexrk.exception.insights.service.local;
+
+import io.github.rexrk.exception.insights.model.ErrorEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The exception, its recorded causes and its root cause as
+ * class-name / message pairs, read back from an {@link ErrorEvent}.
+ * Rules match on class names so that optional libraries (Spring Data,
+ * Hikari, Jackson...) do not need to be on the classpath.
+ */
+public final class ExceptionChain {
+
+    public record Link(String className, String message) {}
+
+    private static final String CAUSED_BY = "Caused by: ";
+
+    private final List<Link> links;
+
+    private ExceptionChain(List<Link> links) {
+        this.links = List.copyOf(links);
+    }
+
+    public static ExceptionChain of(ErrorEvent event) {
+        List<Link> links = new ArrayList<>();
+        links.add(new Link(event.getExceptionClass(), event.getMessage()));
+
+        if (event.getStackTrace() != null) {
+            event.getStackTrace().lines()
+                    .filter(line -> line.startsWith(CAUSED_BY))
+                    .map(line -> parse(line.substring(CAUSED_BY.length())))
+                    .forEach(links::add);
+        }
+        if (event.getRootCauseClass() != null) {
+            Link root = new Link(event.getRootCauseClass(), event.getRootCauseMessage());
+            if (!links.getLast().equals(root)) links.add(root);
+        }
+        return new ExceptionChain(links);
+    }
+
+    public List<Link> links() {
+        return links;
+    }
+
+    /** First link whose class is {@code className}; subclasses are not considered. */
+    public Optional<Link> find(String className) {
+        return links.stream().filter(link -> link.className().equals(className)).findFirst();
+    }
+
+    public boolean contains(String className) {
+        return find(className).isPresent();
+    }
+
+    // Throwable.toString() is "class" or "class: message"
+    private static Link parse(String text) {
+        int colon = text.indexOf(": ");
+        return colon < 0
+                ? new Link(text.strip(), null)
+                : new Link(text.substring(0, colon), text.substring(colon + 2));
+    }
+}
@@ -0,0 +1,23 @@
+package io.github.rexrk.exception.insights.service.local;
+
+import io.github.rexrk.exception.insights.model.AiExplanation;
+import io.github.rexrk.exception.insights.model.ErrorEvent;
+
+import java.util.Optional;
+
+/**
+ * Explains well-known failures without calling the chat model.
+ * <p>
+ * Implementations must be cheap and side-effect free: they run on every
+ * captured event, before the model is consulted. Declare one as a bean to
+ * have it tried ahead of the built-in rules; use {@code @Order} to rank
+ * several of them.
+ */
+@FunctionalInterface
+public interface LocalExplainer {
+
+    /**
+     * @return an explanation if this rule recognises the event, otherwise empty
+     */
+    Optional<AiExplanation> explain(ErrorEvent event);
+}
@@ -0,0 +1,48 @@
+package io.github.rexrk.exception.insights.service.local;
+
+import io.github.rexrk.exception.insights.model.AiExplanation;
+import io.github.rexrk.exception.insights.model.ErrorEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Tries each {@link LocalExplainer} in order and returns the first match,
+ * stamped with {@link AiExplanation.Origin#RULE}. A rule that throws is
+ * logged and skipped, never allowed to break event processing.
+ */
+public class LocalExplainerChain {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalExplainerChain.class);
+
+    private final List<LocalExplainer> explainers;
+
+    public LocalExplainerChain(List<LocalExplainer> explainers) {
+        this.explainers = List.copyOf(explainers);
+    }
+
+    /** Custom explainers first, then the {@link BuiltInExplainers built-in rules}. */
+    public static LocalExplainerChain withBuiltIns(List<LocalExplainer> custom) {
+        List<LocalExplainer> all = new ArrayList<>(custom);
+        all.addAll(BuiltInExplainers.all());
+        return new LocalExplainerChain(all);
+    }
+
+    public Optional<AiExplanation> explain(ErrorEvent event) {
+        for (LocalExplainer explainer : explainers) {
+            try {
+                Optional<AiExplanation> explanation = explainer.explain(event);
+                if (explanation.isPresent()) {
+                    return Optional.of(explanation.get().withOrigin(AiExplanation.Origin.RULE));
+                }
+            } catch (RuntimeException e) {
+                log.warn("Local explainer {} failed on {}", explainer.getClass().getName(),
+                        event.getExceptionClass(), e);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,144 @@
+package io.github.rexrk.exception.insights.service.output;
+
+import io.github.rexrk.exception.insights.model.ErrorEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Flushable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs one sink on its own thread behind a bounded queue, so a slow or failing
+ * sink cannot delay the capturing thread or the other sinks.
+ * <p>
+ * When the queue is full new signals are dropped and counted. The writer
+ * drains up to {@code maxBatch} queued signals at a time and then calls
+ * {@link Flushable#flush()} on sinks that implement it, letting them batch
+ * their writes without holding more than one bounded batch. Idle writers
+ * also call it periodically, so a sink may defer sending until a batch is
+ * large or old enough.
+ */
+public class AsyncErrorOutput implements ErrorOutput, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncErrorOutput.class);
+    private static final long POLL_MILLIS = 200;
+    private static final long CLOSE_MILLIS = 5_000;
+
+    private final String name;
+    private final ErrorOutput delegate;
+    private final BlockingQueue<Signal> queue;
+    private final int maxBatch;
+    private final Thread writer;
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean closed;
+
+    public AsyncErrorOutput(String name, ErrorOutput delegate, int queueCapacity, int maxBatch) {
+        this.name = name;
+        this.delegate = delegate;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.maxBatch = Math.max(1, maxBatch);
+        this.writer = Thread.ofPlatform().name("error-output-" + name).daemon().start(this::drain);
+    }
+
+    @Override
+    public void onErrorCaptured(ErrorEvent event) {
+        enqueue(new Signal(event, false));
+    }
+
+    @Override
+    public void onAiExplanationReady(ErrorEvent event) {
+        enqueue(new Signal(event, true));
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public ErrorOutput getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Stops accepting events, writes what is already queued and closes the sink.
+     * A writer still busy after the grace period is interrupted; the sink is
+     * only closed once the writer has exited.
+     */
+    @Override
+    public void close() throws Exception {
+        closed = true;
+        writer.join(CLOSE_MILLIS);
+        if (writer.isAlive()) {
+            log.warn("Output '{}' did not finish within {} ms; interrupting it with {} event(s) queued",
+                    name, CLOSE_MILLIS, queue.size());
+            writer.interrupt();
+            writer.join(CLOSE_MILLIS);
+        }
+        if (writer.isAlive()) {
+            log.warn("Output '{}' is still writing; leaving it open", name);
+            return;
+        }
+        if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private void enqueue(Signal signal) {
+        if (closed || !queue.offer(signal)) {
+            // log the first drop and then every thousandth, not every one
+            if (dropped.getAndIncrement() % 1_000 == 0) {
+                log.warn("Output '{}' is not keeping up; dropped {} event(s) so far", name, dropped.get());
+            }
+        }
+    }
+
+    private void drain() {
+        List<Signal> batch = new ArrayList<>();
+        // polled rather than interrupted on close: an interrupt would close a sink's FileChannel mid-write
+        while (!closed || !queue.isEmpty()) {
+            try {
+                Signal first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    flush(); // lets sinks that hold data back for batching send it once traffic stops
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, maxBatch - 1);
+            batch.forEach(this::deliver);
+            batch.clear();
+            flush();
+        }
+    }
+
+    private void deliver(Signal signal) {
+        try {
+            if (signal.explanation()) {
+                delegate.onAiExplanationReady(signal.event());
+            } else {
+                delegate.onErrorCaptured(signal.event());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Output '{}' failed for event {}", name, signal.event().getId(), e);
+        }
+    }
+
+    private void flush() {
+        if (delegate instanceof Flushable flushable) {
+            try {
+                flushable.flush();
+            } catch (Exception e) {
+                log.warn("Output '{}' failed to flush", name, e);
+            }
+        }
+    }
+
+    private record Signal(ErrorEvent event, boolean explanation) {}
+}
@@ -0,0 +1,61 @@
+package io.github.rexrk.exception.insights.service.output;
+
+import io.github.rexrk.exception.insights.model.ErrorEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Dispatches every event to all configured sinks. A sink that throws is
+ * logged and skipped; the remaining sinks still receive the event.
+ */
+public class CompositeErrorOutput implements ErrorOutput, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(CompositeErrorOutput.class);
+
+    private final List<ErrorOutput> outputs;
+
+    public CompositeErrorOutput(List<ErrorOutput> outputs) {
+        this.outputs = List.copyOf(outputs);
+    }
+
+    @Override
+    public void onErrorCaptured(ErrorEvent event) {
+        for (ErrorOutput output : outputs) {
+            try {
+                output.onErrorCaptured(event);
+            } catch (RuntimeException e) {
+                log.warn("Output {} failed for event {}", output.getClass().getSimpleName(), event.getId(), e);
+            }
+        }
+    }
+
+    @Override
+    public void onAiExplanationReady(ErrorEvent event) {
+        for (ErrorOutput output : outputs) {
+            try {
+                output.onAiExplanationReady(event);
+            } catch (RuntimeException e) {
+                log.warn("Output {} failed for event {}", output.getClass().getSimpleName(), event.getId(), e);
+            }
+        }
+    }
+
+    public List<ErrorOutput> getOutputs() {
+        return outputs;
+    }
+
+    @Override
+    public void close() {
+        for (ErrorOutput output : outputs) {
+            if (output instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close output {}", output.getClass().getSimpleName(), e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package io.github.rexrk.exception.insights.service.output;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import io.github.rexrk.exception.insights.model.AiExplanation;
+import io.github.rexrk.exception.insights.model.ErrorEvent;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * The JSON-lines record format shared by the file and collector outputs: a
+ * full {@code error-captured} line per event and a small
+ * {@code ai-explanation} line once its explanation is ready.
+ */
+public final class JsonLines {
+
+    public static final String ERROR_CAPTURED = "error-captured";
+    public static final String AI_EXPLANATION = "ai-explanation";
+
+    private JsonLines() {}
+
+    public static void writeCaptured(JsonMapper mapper, ByteArrayOutputStream out, ErrorEvent event) {
+        mapper.writeValue(out, new CapturedLine(ERROR_CAPTURED, event));
+        out.write('\n');
+    }
+
+    public static void writeExplanation(JsonMapper mapper, ByteArrayOutputStream out, ErrorEvent event) {
+        mapper.writeValue(out, new ExplanationLine(AI_EXPLANATION, event.getId(), event.getFingerprint(),
+                event.getAiExplanation()));
+        out.write('\n');
+    }
+
+    private record CapturedLine(String kind, @JsonUnwrapped ErrorEvent event) {}
+
+    private record ExplanationLine(String kind, String id, String fingerprint, AiExplanation aiExplanation) {}
+}
@@ -6,14 +6,37 @@ import io.github.rexrk.exception.insights.service.output.ErrorOutput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class ConsoleErrorOutput implements ErrorOutput {
+import java.io.Flushable;
+
+/**
+ * Renders events as boxed blocks on the console.
+ * <p>
+ * Output goes to the dedicated {@value #LOGGER_NAME} logger, which
+ * {@code RingBufferLogAppender} ignores, so these blocks never evict
+ * application lines from the captured log buffer. In batched mode the blocks
+ * are only rendered into a buffer and written as one log statement on
+ * {@link #flush()}, which {@code AsyncErrorOutput} calls after each drain.
+ */
+public class ConsoleErrorOutput implements ErrorOutput, Flushable {
+
+    public static final String LOGGER_NAME = "io.github.rexrk.exception.insights.console";
 
     private static final String BORDER = "═".repeat(62);
     private static final String TOP    = "╔" + BORDER + "╗";
     private static final String BOTTOM = "╚" + BORDER + "╝";
     private static final String ROW    = "║  ";
-    private static final Logger log =
-            LoggerFactory.getLogger(ConsoleErrorOutput.class);
+    private static final Logger log = LoggerFactory.getLogger(LOGGER_NAME);
+
+    private final boolean batched;
+    private final StringBuilder pending = new StringBuilder();
+
+    public ConsoleErrorOutput() {
+        this(false);
+    }
+
+    public ConsoleErrorOutput(boolean batched) {
+        this.batched = batched;
+    }
 
     @Override
     public void onErrorCaptured(ErrorEvent event) {
@@ -38,7 +61,7 @@ public class ConsoleErrorOutput implements ErrorOutput {
         sb.append(ROW).append("Analyzing with AI...").append("\n");
         sb.append(BOTTOM).append("\n");
 
-        log.error(sb.toString());
+        write(sb);
     }
 
     @Override
@@ -49,6 +72,11 @@ public class ConsoleErrorOutput implements ErrorOutput {
         StringBuilder sb = new StringBuilder("\n");
         sb.append(TOP).append("\n");
         sb.append(ROW).append("ERROR INSIGHT — AI ANALYSIS").append("\n");
+        if (explanation.origin() == AiExplanation.Origin.INFERRED) {
+            sb.append(ROW).append("(reused from a similar, already explained error)").append("\n");
+        } else if (explanation.origin() == AiExplanation.Origin.RULE) {
+            sb.append(ROW).append("(built-in rule, no AI call)").append("\n");
+        }
         sb.append(ROW).repeat("─", 60).append("\n");
 
         sb.append(ROW).append("Summary :").append("\n");
@@ -66,6 +94,21 @@ public class ConsoleErrorOutput implements ErrorOutput {
 
         sb.append(BOTTOM).append("\n");
 
-        log.error(sb.toString());
+        write(sb);
+    }
+
+    @Override
+    public synchronized void flush() {
+        if (pending.isEmpty()) return;
+        log.error(pending.toString());
+        pending.setLength(0);
+    }
+
+    private synchronized void write(StringBuilder block) {
+        if (batched) {
+            pending.append(block);
+        } else {
+            log.error(block.toString());
+        }
     }
-}
\ No newline at end of file
+}
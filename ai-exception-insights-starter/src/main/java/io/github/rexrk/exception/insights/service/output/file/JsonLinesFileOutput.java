@@ -0,0 +1,232 @@
+package io.github.rexrk.exception.insights.service.output.file;
+
+import io.github.rexrk.exception.insights.model.ErrorEvent;
+import io.github.rexrk.exception.insights.service.output.ErrorOutput;
+import io.github.rexrk.exception.insights.service.output.JsonLines;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Appends every captured event and every later explanation as one JSON line
+ * to a file that log shippers can tail.
+ * <p>
+ * Lines are serialized into an in-memory batch and written with a single
+ * {@link FileChannel} write on {@link #flush()}, which {@code AsyncErrorOutput}
+ * calls after each drain. The active file is rolled before a line that would
+ * take it past {@code maxFileSize}, so a batch may be split across files, and
+ * when it has been open for {@code rollInterval}. A single line larger than
+ * {@code maxFileSize} gets a file of its own. Rolled files
+ * are renamed with a timestamp, optionally gzipped off the writer thread, and
+ * pruned to the newest {@code maxHistory}.
+ */
+public class JsonLinesFileOutput implements ErrorOutput, Flushable, AutoCloseable {
+
+    public enum FsyncPolicy {
+        /** Leave flushing to the operating system. */
+        NEVER,
+        /** Force every written batch to disk. */
+        EVERY_BATCH,
+        /** Force to disk at most once per {@code fsyncInterval}. */
+        INTERVAL
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(JsonLinesFileOutput.class);
+    private static final DateTimeFormatter ROLL_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final Path path;
+    private final String baseName;
+    private final String extension;
+    private final Pattern rolledName;
+    private final long maxFileSize;
+    private final long rollIntervalNanos;
+    private final boolean compressRolled;
+    private final int maxHistory;
+    private final FsyncPolicy fsync;
+    private final long fsyncIntervalNanos;
+    private final JsonMapper mapper;
+    private final ExecutorService roller =
+            Executors.newSingleThreadExecutor(Thread.ofVirtual().name("jsonl-roller").factory());
+
+    private final ByteArrayOutputStream batch = new ByteArrayOutputStream(64 * 1024);
+    private final List<Integer> lineEnds = new ArrayList<>();
+    private FileChannel channel;
+    private long size;
+    private long openedAt;
+    private long lastFsync;
+
+    public JsonLinesFileOutput(Path path, long maxFileSize, Duration rollInterval, boolean compressRolled,
+                               int maxHistory, FsyncPolicy fsync, Duration fsyncInterval, JsonMapper mapper) {
+        this.path = path.toAbsolutePath();
+        String fileName = this.path.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        this.baseName = dot > 0 ? fileName.substring(0, dot) : fileName;
+        this.extension = dot > 0 ? fileName.substring(dot) : "";
+        // the names roll() and archive() produce: baseName-<ROLL_STAMP>[-n]extension[.gz]
+        this.rolledName = Pattern.compile(Pattern.quote(baseName) + "-\\d{8}-\\d{6}-\\d{3}(-\\d+)?"
+                + Pattern.quote(extension) + "(\\.gz)?");
+        this.maxFileSize = maxFileSize > 0 ? maxFileSize : Long.MAX_VALUE;
+        this.rollIntervalNanos = rollInterval.isPositive() ? rollInterval.toNanos() : Long.MAX_VALUE;
+        this.compressRolled = compressRolled;
+        this.maxHistory = maxHistory;
+        this.fsync = fsync;
+        this.fsyncIntervalNanos = fsyncInterval.toNanos();
+        this.mapper = mapper;
+    }
+
+    @Override
+    public synchronized void onErrorCaptured(ErrorEvent event) {
+        JsonLines.writeCaptured(mapper, batch, event);
+        lineEnds.add(batch.size());
+    }
+
+    @Override
+    public synchronized void onAiExplanationReady(ErrorEvent event) {
+        JsonLines.writeExplanation(mapper, batch, event);
+        lineEnds.add(batch.size());
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        if (batch.size() == 0) return;
+        try {
+            if (channel == null) open();
+            long now = System.nanoTime();
+            if (size > 0 && now - openedAt >= rollIntervalNanos) roll();
+
+            byte[] bytes = batch.toByteArray();
+            int written = 0;
+            int accepted = 0;
+            for (int end : lineEnds) {
+                // roll before the line that would overflow a file already holding data
+                if (size + (end - written) > maxFileSize && size + (accepted - written) > 0) {
+                    write(bytes, written, accepted);
+                    written = accepted;
+                    roll();
+                }
+                accepted = end;
+            }
+            write(bytes, written, accepted);
+
+            if (fsync == FsyncPolicy.EVERY_BATCH
+                    || (fsync == FsyncPolicy.INTERVAL && now - lastFsync >= fsyncIntervalNanos)) {
+                channel.force(false);
+                lastFsync = now;
+            }
+        } catch (IOException e) {
+            closeChannel(); // reopened on the next flush
+            throw e;
+        } finally {
+            batch.reset(); // a failed batch is dropped rather than retried forever
+            lineEnds.clear();
+        }
+    }
+
+    private void write(byte[] bytes, int from, int to) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, from, to - from);
+        while (buffer.hasRemaining()) {
+            size += channel.write(buffer);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flush();
+            if (channel != null) channel.force(true);
+        } finally {
+            closeChannel();
+            roller.shutdown();
+            try {
+                roller.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(path.getParent());
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        size = channel.size();
+        openedAt = System.nanoTime();
+    }
+
+    private void roll() throws IOException {
+        channel.force(true);
+        closeChannel();
+
+        Path rolled = path.resolveSibling(baseName + "-" + LocalDateTime.now().format(ROLL_STAMP) + extension);
+        for (int n = 1; Files.exists(rolled); n++) {
+            rolled = path.resolveSibling(baseName + "-" + LocalDateTime.now().format(ROLL_STAMP) + "-" + n + extension);
+        }
+        Files.move(path, rolled, StandardCopyOption.ATOMIC_MOVE);
+        open();
+
+        Path toArchive = rolled;
+        roller.execute(() -> archive(toArchive));
+    }
+
+    private void archive(Path rolled) {
+        try {
+            if (compressRolled) {
+                Path gz = rolled.resolveSibling(rolled.getFileName() + ".gz");
+                try (InputStream in = Files.newInputStream(rolled);
+                     OutputStream out = new GZIPOutputStream(Files.newOutputStream(gz), 64 * 1024)) {
+                    in.transferTo(out);
+                }
+                Files.delete(rolled);
+            }
+            prune();
+        } catch (IOException e) {
+            log.warn("Failed to archive rolled file {}", rolled, e);
+        }
+    }
+
+    private void prune() throws IOException {
+        if (maxHistory <= 0) return;
+        List<Path> rolled;
+        try (Stream<Path> files = Files.list(path.getParent())) {
+            // roll stamps sort chronologically by name
+            rolled = files.filter(p -> rolledName.matcher(p.getFileName().toString()).matches())
+                    .sorted()
+                    .toList();
+        }
+        for (int i = 0; i < rolled.size() - maxHistory; i++) {
+            Files.deleteIfExists(rolled.get(i));
+        }
+    }
+
+    private void closeChannel() {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.debug("Failed to close {}", path, e);
+        }
+        channel = null;
+    }
+}
@@ -0,0 +1,122 @@
+package io.github.rexrk.exception.insights.service.output.http;
+
+import io.github.rexrk.exception.insights.model.ErrorEvent;
+import io.github.rexrk.exception.insights.service.output.ErrorOutput;
+import io.github.rexrk.exception.insights.service.output.JsonLines;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Ships events to a central collector as gzip-compressed NDJSON, in the same
+ * line format as the file output.
+ * <p>
+ * Lines accumulate until the batch reaches {@code maxBatchBytes} or
+ * {@code flushInterval} has passed since the last send; {@code AsyncErrorOutput}
+ * calls {@link #flush()} after each drain and while idle, so a quiet node still
+ * sends within roughly one interval. A batch that cannot be delivered is
+ * dropped; the collector is a development aid, not a durable log.
+ */
+public class HttpCollectorOutput implements ErrorOutput, Flushable, AutoCloseable {
+
+    public static final String NODE_HEADER = "X-Node-Id";
+
+    private static final Logger log = LoggerFactory.getLogger(HttpCollectorOutput.class);
+
+    private final URI endpoint;
+    private final String nodeId;
+    private final long flushIntervalNanos;
+    private final int maxBatchBytes;
+    private final Duration timeout;
+    private final JsonMapper mapper;
+    private final HttpClient client;
+
+    private final ByteArrayOutputStream batch = new ByteArrayOutputStream(16 * 1024);
+    private long lastSend = System.nanoTime();
+    private boolean reachable = true;
+
+    public HttpCollectorOutput(URI endpoint, String nodeId, Duration flushInterval, int maxBatchBytes,
+                               Duration timeout, JsonMapper mapper) {
+        this.endpoint = endpoint;
+        this.nodeId = nodeId;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.maxBatchBytes = maxBatchBytes;
+        this.timeout = timeout;
+        this.mapper = mapper;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    @Override
+    public synchronized void onErrorCaptured(ErrorEvent event) {
+        JsonLines.writeCaptured(mapper, batch, event);
+    }
+
+    @Override
+    public synchronized void onAiExplanationReady(ErrorEvent event) {
+        JsonLines.writeExplanation(mapper, batch, event);
+    }
+
+    @Override
+    public synchronized void flush() {
+        if (batch.size() == 0) return;
+        if (batch.size() < maxBatchBytes && System.nanoTime() - lastSend < flushIntervalNanos) return;
+        send();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (batch.size() > 0) send();
+        client.close();
+    }
+
+    private void send() {
+        byte[] ndjson = batch.toByteArray();
+        batch.reset();
+        lastSend = System.nanoTime();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(endpoint)
+                    .timeout(timeout)
+                    .header("Content-Type", "application/x-ndjson")
+                    .header("Content-Encoding", "gzip")
+                    .header(NODE_HEADER, nodeId)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(gzip(ndjson)))
+                    .build();
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 300) {
+                throw new IOException("collector answered " + response.statusCode());
+            }
+            if (!reachable) {
+                log.info("Exception collector at {} is reachable again", endpoint);
+                reachable = true;
+            }
+        } catch (IOException e) {
+            // log once per outage rather than once per batch
+            if (reachable) {
+                log.warn("Failed to ship events to exception collector at {}: {}", endpoint, e.getMessage());
+                reachable = false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+}
@@ -1,40 +1,140 @@
 package io.github.rexrk.exception.insights.service.output.ui;
 
+import io.github.rexrk.exception.insights.model.DashboardBatch;
 import io.github.rexrk.exception.insights.model.DashboardEvent;
 import io.github.rexrk.exception.insights.model.ErrorEvent;
 import io.github.rexrk.exception.insights.service.output.ErrorOutput;
 import io.github.rexrk.ui.dashboard.SseEmitterRegistry;
 
-import java.time.LocalDateTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
-public class UiErrorOutput implements ErrorOutput {
+/**
+ * Pushes captured errors and explanations to the dashboard.
+ * <p>
+ * With a non-zero {@code batchWindow} events are coalesced: the first event
+ * of a window schedules a flush, and everything arriving until then goes out
+ * as one {@value #BATCH_EVENT} message with counts per fingerprint. Dashboard
+ * projections are built at flush time, so an error storm costs one message and
+ * one projection per fingerprint per window.
+ * <p>
+ * The event store already drops repeats of a fingerprint within its
+ * deduplication window, so a count above 1 only shows up when the batch
+ * window is longer than that; the batching mainly caps the message rate
+ * across distinct errors. Counts are per window, and the dashboard adds them
+ * to the row it already shows.
+ */
+public class UiErrorOutput implements ErrorOutput, AutoCloseable {
+
+    public static final String BATCH_EVENT = "error-batch";
+
+    private static final int MAX_FINGERPRINTS_PER_BATCH = 100;
 
     private final SseEmitterRegistry registry;
+    private final long windowMillis;
+    private final ScheduledExecutorService flusher;
+
+    private final Object lock = new Object();
+    private Map<String, Pending> errors = new LinkedHashMap<>();
+    private Map<String, ErrorEvent> insights = new LinkedHashMap<>();
+    private int omitted;
+    private boolean flushScheduled;
 
     public UiErrorOutput(SseEmitterRegistry registry) {
+        this(registry, Duration.ZERO);
+    }
+
+    public UiErrorOutput(SseEmitterRegistry registry, Duration batchWindow) {
         this.registry = registry;
+        this.windowMillis = batchWindow.toMillis();
+        this.flusher = windowMillis > 0
+                ? Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("ui-output-flush").daemon().factory())
+                : null;
     }
 
     @Override
     public void onErrorCaptured(ErrorEvent event) {
-        DashboardEvent dashboardEvent = new DashboardEvent(
-                event.getId(),
-                event.getType().name(),
-                event.getExceptionClass(),
-                LocalDateTime.now().toString()
-        );
-        registry.broadcast("error-captured", dashboardEvent);
-
+        if (flusher == null) {
+            registry.broadcast("error-captured", DashboardEvent.from(event));
+            return;
+        }
+        String key = event.getFingerprint() != null ? event.getFingerprint() : event.getId();
+        synchronized (lock) {
+            Pending pending = errors.get(key);
+            if (pending != null) {
+                pending.latest = event;
+                pending.count++;
+            } else if (errors.size() < MAX_FINGERPRINTS_PER_BATCH) {
+                errors.put(key, new Pending(event));
+            } else {
+                omitted++;
+            }
+            scheduleFlush();
+        }
     }
 
     @Override
     public void onAiExplanationReady(ErrorEvent event) {
-        DashboardEvent dashboardEvent = new DashboardEvent(
-                event.getId(),
-                event.getType().name(),
-                event.getExceptionClass(),
-                LocalDateTime.now().toString()
-        );
-        registry.broadcast("ai-insight-ready", dashboardEvent);
-    }
-}
\ No newline at end of file
+        if (flusher == null) {
+            registry.broadcast("ai-insight-ready", DashboardEvent.from(event));
+            return;
+        }
+        synchronized (lock) {
+            insights.put(event.getId(), event);
+            scheduleFlush();
+        }
+    }
+
+    /** Broadcasts whatever is pending now. */
+    public void flush() {
+        Map<String, Pending> errorBatch;
+        Map<String, ErrorEvent> insightBatch;
+        int omittedCount;
+        synchronized (lock) {
+            flushScheduled = false;
+            if (errors.isEmpty() && insights.isEmpty() && omitted == 0) return;
+            errorBatch = errors;
+            insightBatch = insights;
+            omittedCount = omitted;
+            errors = new LinkedHashMap<>();
+            insights = new LinkedHashMap<>();
+            omitted = 0;
+        }
+
+        List<DashboardBatch.Occurrence> occurrences = new ArrayList<>(errorBatch.size());
+        errorBatch.values().forEach(pending ->
+                occurrences.add(new DashboardBatch.Occurrence(DashboardEvent.from(pending.latest), pending.count)));
+        List<DashboardEvent> explained = insightBatch.values().stream().map(DashboardEvent::from).toList();
+        registry.broadcast(BATCH_EVENT, new DashboardBatch(occurrences, explained, omittedCount));
+    }
+
+    @Override
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+            flush();
+        }
+    }
+
+    private void scheduleFlush() {
+        if (!flushScheduled) {
+            flushScheduled = true;
+            flusher.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static final class Pending {
+        private ErrorEvent latest;
+        private int count = 1;
+
+        private Pending(ErrorEvent latest) {
+            this.latest = latest;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package io.github.rexrk.exception.insights.service.ai;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.rexrk.ai.resilience.ChatCallGuard;
+import io.github.rexrk.ai.resilience.CircuitBreaker;
+import io.github.rexrk.exception.insights.model.AiExplanation;
+import io.github.rexrk.exception.insights.model.ErrorEvent;
+import io.github.rexrk.exception.insights.service.ai.metrics.AiExplanationMetrics;
+import io.github.rexrk.exception.insights.service.ai.metrics.MicrometerAiExplanationMetrics;
+import io.github.rexrk.exception.insights.service.ai.similarity.SimilarityIndex;
+import io.github.rexrk.exception.insights.service.ai.similarity.TraceSimHash;
+import io.github.rexrk.exception.insights.service.local.LocalExplainerChain;
+import io.github.rexrk.exception.insights.service.output.ErrorOutput;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.retry.TransientAiException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AiExplanationServiceTest {
+
+    private static final String EXPLANATION_JSON = """
+            {"summary": "stub summary", "causes": ["c1"], "fixes": ["f1"]}
+            """;
+
+    private final AtomicBoolean down = new AtomicBoolean(true);
+    private final AtomicInteger modelCalls = new AtomicInteger();
+    private final List<ErrorEvent> explained = new CopyOnWriteArrayList<>();
+
+    private final ChatModel stubModel = prompt -> {
+        modelCalls.incrementAndGet();
+        if (down.get()) {
+            throw new TransientAiException("model down");
+        }
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(EXPLANATION_JSON))));
+    };
+
+    private final ErrorOutput recordingOutput = new ErrorOutput() {
+        @Override public void onErrorCaptured(ErrorEvent event) {}
+        @Override public void onAiExplanationReady(ErrorEvent event) { explained.add(event); }
+    };
+
+    @Test
+    void openCircuit_failsFastAndRedrivesDeferredEventsAfterRecovery() throws Exception {
+        ChatCallGuard guard = new ChatCallGuard(Duration.ofSeconds(1), 2,
+                Duration.ofMillis(1), Duration.ofMillis(5),
+                new CircuitBreaker(2, Duration.ofMillis(200)));
+        AiExplanationService service = new AiExplanationService(
+                ChatClient.create(stubModel), new ObjectMapper(), recordingOutput, guard, 10, PromptCompactor.DEFAULT, null, null, false, AiExplanationMetrics.NOOP);
+
+        ErrorEvent first = event();
+        ErrorEvent second = event();
+        service.explainAsync(first);
+        service.explainAsync(second);
+
+        assertEquals(CircuitBreaker.State.OPEN, guard.getCircuitBreaker().getState());
+        assertEquals(4, modelCalls.get(), "each event should be retried once before giving up");
+        assertTrue(first.getAiExplanation().summary().startsWith("AI explanation unavailable"));
+
+        ErrorEvent rejected = event();
+        service.explainAsync(rejected);
+
+        assertEquals(4, modelCalls.get(), "open circuit must not reach the model");
+        assertNull(rejected.getAiExplanation());
+        assertEquals(1, service.getDeferredCount());
+
+        down.set(false);
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (rejected.getAiExplanation() == null && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertNotNull(rejected.getAiExplanation(), "deferred event should be re-queued once the circuit closes");
+        assertEquals("stub summary", rejected.getAiExplanation().summary());
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getCircuitBreaker().getState());
+        assertEquals(0, service.getDeferredCount());
+        assertTrue(explained.contains(rejected));
+    }
+
+    @Test
+    void slowModel_isCutOffAtCallTimeout() {
+        ChatModel hangingModel = prompt -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException("should have been cancelled");
+        };
+        ChatCallGuard guard = new ChatCallGuard(Duration.ofMillis(100), 1,
+                Duration.ofMillis(1), Duration.ofMillis(1),
+                new CircuitBreaker(5, Duration.ofSeconds(30)));
+        AiExplanationService service = new AiExplanationService(
+                ChatClient.create(hangingModel), new ObjectMapper(), recordingOutput, guard, 10, PromptCompactor.DEFAULT, null, null, false, AiExplanationMetrics.NOOP);
+
+        ErrorEvent event = event();
+        long start = System.nanoTime();
+        service.explainAsync(event);
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertTrue(elapsedMillis < 2_000, "explain took " + elapsedMillis + " ms");
+        assertTrue(event.getAiExplanation().summary().startsWith("AI explanation unavailable"));
+    }
+
+    @Test
+    void matchingLocalRule_answersWithoutCallingTheModel() {
+        ChatCallGuard guard = new ChatCallGuard(Duration.ofSeconds(1), 1,
+                Duration.ofMillis(1), Duration.ofMillis(1),
+                new CircuitBreaker(5, Duration.ofSeconds(30)));
+        AiExplanationService service = new AiExplanationService(
+                ChatClient.create(stubModel), new ObjectMapper(), recordingOutput, guard, 10, PromptCompactor.DEFAULT,
+                null, LocalExplainerChain.withBuiltIns(List.of()), false, AiExplanationMetrics.NOOP);
+
+        ErrorEvent event = ErrorEvent.builder()
+                .type(ErrorEvent.Type.ASYNC)
+                .exception(new NullPointerException("Cannot invoke \"String.length()\" because \"this.name\" is null"))
+                .build();
+        service.explainAsync(event);
+
+        assertEquals(0, modelCalls.get());
+        assertEquals(AiExplanation.Origin.RULE, event.getAiExplanation().origin());
+        assertTrue(explained.contains(event));
+    }
+
+    @Test
+    void enrichmentRejectedByOpenCircuit_isRedrivenWithoutRerunningRules() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofMillis(200));
+        ChatCallGuard guard = new ChatCallGuard(Duration.ofSeconds(1), 1,
+                Duration.ofMillis(1), Duration.ofMillis(1), breaker);
+        AiExplanationService service = new AiExplanationService(
+                ChatClient.create(stubModel), new ObjectMapper(), recordingOutput, guard, 10, PromptCompactor.DEFAULT,
+                null, LocalExplainerChain.withBuiltIns(List.of()), true, AiExplanationMetrics.NOOP);
+        breaker.onFailure();
+        down.set(false);
+
+        ErrorEvent event = ErrorEvent.builder()
+                .type(ErrorEvent.Type.ASYNC)
+                .exception(new NullPointerException("Cannot invoke \"String.length()\" because \"this.name\" is null"))
+                .build();
+        service.explainAsync(event);
+
+        assertEquals(AiExplanation.Origin.RULE, event.getAiExplanation().origin());
+        assertEquals(1, service.getDeferredCount());
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (explained.size() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertEquals("stub summary", event.getAiExplanation().summary());
+        assertEquals(2, explained.size(), "the rule explanation is published once, then the model's");
+        assertEquals(1, modelCalls.get());
+    }
+
+    @Test
+    void enrichment_asksTheModelInsteadOfReusingASimilarExplanation() {
+        ChatCallGuard guard = new ChatCallGuard(Duration.ofSeconds(1), 1,
+                Duration.ofMillis(1), Duration.ofMillis(1),
+                new CircuitBreaker(5, Duration.ofSeconds(30)));
+        SimilarityIndex<AiExplanation> similarityIndex = new SimilarityIndex<>(100, 3);
+        AiExplanationService service = new AiExplanationService(
+                ChatClient.create(stubModel), new ObjectMapper(), recordingOutput, guard, 10, PromptCompactor.DEFAULT,
+                similarityIndex, LocalExplainerChain.withBuiltIns(List.of()), true, AiExplanationMetrics.NOOP);
+        down.set(false);
+
+        ErrorEvent event = ErrorEvent.builder()
+                .type(ErrorEvent.Type.ASYNC)
+                .exception(new NullPointerException("Cannot invoke \"String.length()\" because \"this.name\" is null"))
+                .build();
+        similarityIndex.put(TraceSimHash.of(event), new AiExplanation("cached", List.of(), List.of(), null));
+        service.explainAsync(event);
+
+        assertEquals(1, modelCalls.get());
+        assertEquals("stub summary", event.getAiExplanation().summary());
+        assertNotEquals(AiExplanation.Origin.INFERRED, event.getAiExplanation().origin());
+    }
+
+    @Test
+    void modelCalls_areRecordedInTheMeterRegistry() {
+        ChatModel model = prompt -> new ChatResponse(
+                List.of(new Generation(new AssistantMessage(EXPLANATION_JSON))),
+                ChatResponseMetadata.builder().usage(new DefaultUsage(120, 40)).build());
+        ChatCallGuard guard = new ChatCallGuard(Duration.ofSeconds(1), 1,
+                Duration.ofMillis(1), Duration.ofMillis(1),
+                new CircuitBreaker(5, Duration.ofSeconds(30)));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AiExplanationService service = new AiExplanationService(
+                ChatClient.create(model), new ObjectMapper(), recordingOutput, guard, 10, PromptCompactor.DEFAULT,
+                null, null, false, new MicrometerAiExplanationMetrics(registry));
+
+        service.explainAsync(event());
+
+        String prefix = "devtools.ai.exception.insights";
+        assertEquals(1, registry.get(prefix + ".call").tag("outcome", "success").timer().count());
+        assertEquals(1, registry.get(prefix + ".requests").tag("outcome", "success").counter().count());
+        assertEquals(120, registry.get(prefix + ".tokens").tag("type", "prompt").counter().count());
+        assertEquals(40, registry.get(prefix + ".tokens").tag("type", "completion").counter().count());
+        assertEquals(1, registry.get(prefix + ".prompt.size").summary().count());
+        assertEquals(0, registry.get(prefix + ".inflight").gauge().value());
+    }
+
+    private static ErrorEvent event() {
+        return ErrorEvent.builder()
+                .type(ErrorEvent.Type.ASYNC)
+                .exception(new IllegalStateException("boom"))
+                .build();
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.rexrk.exception.insights.service.ai;
+
+import io.github.rexrk.exception.insights.model.AiPromptContext;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PromptCompactorTest {
+
+    private static final List<String> TRACE = List.of(
+            "\tat com.acme.orders.OrderService.place(OrderService.java:42)",
+            "\tat com.acme.orders.OrderService$$SpringCGLIB$$0.place(<generated>)",
+            "\tat org.springframework.aop.framework.CglibAopProxy.invoke(CglibAopProxy.java:100)",
+            "\tat java.base/jdk.internal.reflect.DirectMethodHandleAccessor.invoke(DirectMethodHandleAccessor.java:103)",
+            "\tat com.acme.orders.OrderController.create(OrderController.java:27)",
+            "\tat org.springframework.web.servlet.FrameworkServlet.service(FrameworkServlet.java:885)",
+            "\tat org.apache.catalina.core.ApplicationFilterChain.doFilter(ApplicationFilterChain.java:140)",
+            "\tat java.base/java.lang.Thread.run(Thread.java:1583)",
+            "Caused by: java.sql.SQLException: pool exhausted",
+            "\tat com.zaxxer.hikari.pool.HikariPool.getConnection(HikariPool.java:181)",
+            "\tat com.zaxxer.hikari.HikariDataSource.getConnection(HikariDataSource.java:128)",
+            "\tat org.springframework.jdbc.datasource.DataSourceUtils.fetchConnection(DataSourceUtils.java:160)",
+            "\tat org.springframework.jdbc.core.JdbcTemplate.execute(JdbcTemplate.java:380)",
+            "\tat com.acme.orders.OrderRepository.save(OrderRepository.java:19)"
+    );
+
+    @Test
+    void collapsesFrameworkFramesAndKeepsApplicationAndRootCause() {
+        AiPromptContext compacted = PromptCompactor.DEFAULT.compact(context("boom", TRACE, List.of()));
+        List<String> frames = compacted.topStackFrames();
+
+        assertTrue(frames.contains("\tat com.acme.orders.OrderService.place(OrderService.java:42)"));
+        assertTrue(frames.contains("\tat com.acme.orders.OrderController.create(OrderController.java:27)"));
+        assertTrue(frames.contains("\tat com.acme.orders.OrderRepository.save(OrderRepository.java:19)"));
+        assertTrue(frames.contains("Caused by: java.sql.SQLException: pool exhausted"));
+        assertTrue(frames.contains("\tat com.zaxxer.hikari.pool.HikariPool.getConnection(HikariPool.java:181)"),
+                "top of the root cause is kept even though it is library code");
+
+        assertTrue(frames.stream().noneMatch(f -> f.contains("SpringCGLIB") || f.contains("catalina")));
+        assertTrue(frames.contains("\t... 3 frames omitted"));
+    }
+
+    @Test
+    void foldsRepeatedLogMessages() {
+        List<String> logs = List.of(
+                "WARN com.acme.Retry - attempt 1 failed",
+                "WARN com.acme.Retry - attempt 2 failed",
+                "ERROR com.acme.Client - giving up",
+                "WARN com.acme.Retry - attempt 3 failed"
+        );
+
+        AiPromptContext compacted = PromptCompactor.DEFAULT.compact(context("boom", TRACE, logs));
+
+        assertEquals(List.of(
+                "ERROR com.acme.Client - giving up",
+                "WARN com.acme.Retry - attempt 3 failed (x3)"
+        ), compacted.recentLogMessages());
+    }
+
+    @Test
+    void staysWithinTokenBudget() {
+        List<String> trace = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            trace.add("\tat com.acme.deep.Recursive.step" + i + "(Recursive.java:" + i + ")");
+        }
+        List<String> logs = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            logs.add("WARN com.acme.Noise" + (char) ('a' + i % 26) + " - unrelated warning text " + "x".repeat(i));
+        }
+        PromptCompactor compactor = new PromptCompactor(150, 200, 50, List.of("com.acme."), List.of());
+
+        AiPromptContext compacted = compactor.compact(context("m".repeat(2_000), trace, logs));
+
+        int tokens = TokenEstimator.estimate(compacted.exceptionClass())
+                + TokenEstimator.estimate(compacted.exceptionMessage())
+                + TokenEstimator.estimate(compacted.executionContext())
+                + TokenEstimator.estimate(compacted.topStackFrames())
+                + TokenEstimator.estimate(compacted.recentLogMessages());
+        assertTrue(tokens <= 150, "estimated " + tokens + " tokens");
+        assertEquals(trace.getFirst(), compacted.topStackFrames().getFirst(), "throw site is never dropped");
+    }
+
+    private static AiPromptContext context(String message, List<String> frames, List<String> logs) {
+        return new AiPromptContext("java.lang.IllegalStateException", message, frames, logs, "POST /orders");
+    }
+}
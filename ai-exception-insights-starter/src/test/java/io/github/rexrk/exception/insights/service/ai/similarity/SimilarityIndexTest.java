@@ -0,0 +1,84 @@
+package io.github.rexrk.exception.insights.service.ai.similarity;
+
+import io.github.rexrk.exception.insights.model.ErrorEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimilarityIndexTest {
+
+    @Test
+    void nearDuplicateTraces_matchDespiteDifferentParametersAndLineNumbers() {
+        long first = TraceSimHash.of(event(
+                new IllegalStateException("Order 1842 not found for customer 'alice'"), 42, 27));
+        long second = TraceSimHash.of(event(
+                new IllegalStateException("Order 99 not found for customer 'bob'"), 45, 31));
+
+        SimilarityIndex<String> index = new SimilarityIndex<>(100, 3);
+        index.put(first, "explanation");
+
+        Optional<SimilarityIndex.Match<String>> match = index.findNearest(second);
+        assertTrue(match.isPresent(), "distance " + Long.bitCount(first ^ second));
+        assertEquals("explanation", match.get().value());
+    }
+
+    @Test
+    void differentExceptions_doNotMatch() {
+        long npe = TraceSimHash.of(event(new NullPointerException("Cannot invoke \"String.length()\""), 42, 27));
+        long timeout = TraceSimHash.of(event(new TimeoutException("gateway timed out"), 42, 27));
+
+        SimilarityIndex<String> index = new SimilarityIndex<>(100, 3);
+        index.put(npe, "npe");
+
+        assertTrue(index.findNearest(timeout).isEmpty(), "distance " + Long.bitCount(npe ^ timeout));
+    }
+
+    @Test
+    void evictsOldestEntriesAtCapacity() {
+        SimilarityIndex<Integer> index = new SimilarityIndex<>(2, 0);
+        index.put(1L, 1);
+        index.put(2L, 2);
+        index.put(3L, 3);
+
+        assertEquals(2, index.size());
+        assertTrue(index.findNearest(1L).isEmpty());
+        assertEquals(3, index.findNearest(3L).orElseThrow().value());
+    }
+
+    @Test
+    void lookupStaysFastWithManyEntries() {
+        int entries = 100_000;
+        SplittableRandom random = new SplittableRandom(7);
+        SimilarityIndex<Integer> index = new SimilarityIndex<>(entries, 3);
+        for (int i = 0; i < entries; i++) {
+            index.put(random.nextLong(), i);
+        }
+
+        int lookups = 10_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            index.findNearest(random.nextLong());
+        }
+        Duration mean = Duration.ofNanos((System.nanoTime() - start) / lookups);
+
+        assertTrue(mean.toMillis() < 1, "mean lookup took " + mean.toNanos() + " ns");
+    }
+
+    private static ErrorEvent event(Throwable ex, int serviceLine, int controllerLine) {
+        ex.setStackTrace(new StackTraceElement[] {
+                new StackTraceElement("com.acme.orders.OrderService", "find", "OrderService.java", serviceLine),
+                new StackTraceElement("com.acme.orders.OrderController", "get", "OrderController.java", controllerLine),
+                new StackTraceElement("org.springframework.web.servlet.FrameworkServlet", "service", "FrameworkServlet.java", 885),
+                new StackTraceElement("java.lang.Thread", "run", "Thread.java", 1583)
+        });
+        return ErrorEvent.builder()
+                .type(ErrorEvent.Type.HTTP_REQUEST)
+                .exception(ex)
+                .build();
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.rexrk.exception.insights.service.local;
+
+import io.github.rexrk.exception.insights.model.AiExplanation;
+import io.github.rexrk.exception.insights.model.ErrorEvent;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BuiltInExplainersTest {
+
+    private final LocalExplainerChain chain = LocalExplainerChain.withBuiltIns(List.of());
+
+    @Test
+    void helpfulNullPointer_namesTheNullExpression() {
+        Map<String, String> config = Map.of();
+        NullPointerException npe = assertThrows(NullPointerException.class,
+                () -> config.get("timeout").length());
+
+        AiExplanation explanation = chain.explain(event(npe)).orElseThrow();
+
+        assertEquals(AiExplanation.Origin.RULE, explanation.origin());
+        assertTrue(explanation.summary().contains("java.util.Map.get(Object)"), explanation.summary());
+    }
+
+    @Test
+    void poolExhaustion_isRecognisedThroughTheCauseChain() {
+        RuntimeException ex = new RuntimeException("Failed to obtain JDBC Connection",
+                new SQLTransientConnectionException("HikariPool-1 - Connection is not available, "
+                        + "request timed out after 30000ms (total=10, active=10, idle=0, waiting=4)"));
+
+        AiExplanation explanation = chain.explain(event(ex)).orElseThrow();
+
+        assertTrue(explanation.summary().contains("connection pool is exhausted"));
+        assertTrue(explanation.summary().contains("'HikariPool-1' waited 30000ms"));
+        assertTrue(explanation.summary().contains("10/10 active, 4 threads waiting"));
+    }
+
+    @Test
+    void duplicateKey_isExplainedAsUniqueViolation() {
+        SQLIntegrityConstraintViolationException ex = new SQLIntegrityConstraintViolationException(
+                "ERROR: duplicate key value violates unique constraint \"users_email_key\"");
+
+        AiExplanation explanation = chain.explain(event(ex)).orElseThrow();
+
+        assertTrue(explanation.summary().contains("'users_email_key'"), explanation.summary());
+    }
+
+    @Test
+    void unknownFailures_fallThroughToTheModel() {
+        assertTrue(chain.explain(event(new IllegalStateException("boom"))).isEmpty());
+        assertTrue(chain.explain(event(new NullPointerException())).isEmpty(), "plain NPEs carry no detail");
+    }
+
+    @Test
+    void customExplainersRunFirstAndFailingOnesAreSkipped() {
+        LocalExplainer broken = event -> { throw new IllegalStateException("bad rule"); };
+        LocalExplainer custom = event -> Optional.of(new AiExplanation("custom", List.of(), List.of(), null));
+
+        AiExplanation explanation = LocalExplainerChain.withBuiltIns(List.of(broken, custom))
+                .explain(event(new SQLIntegrityConstraintViolationException("duplicate key")))
+                .orElseThrow();
+
+        assertEquals("custom", explanation.summary());
+        assertEquals(AiExplanation.Origin.RULE, explanation.origin());
+    }
+
+    private static ErrorEvent event(Throwable ex) {
+        return ErrorEvent.builder()
+                .type(ErrorEvent.Type.HTTP_REQUEST)
+                .exception(ex)
+                .build();
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.rexrk.exception.insights.service.output;
+
+import io.github.rexrk.exception.insights.model.ErrorEvent;
+import org.junit.jupiter.api.Test;
+
+import java.io.Flushable;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompositeErrorOutputTest {
+
+    @Test
+    void slowAndFailingSinks_doNotDelayCaptureOrOtherSinks() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ErrorOutput slow = new ErrorOutput() {
+            @Override public void onErrorCaptured(ErrorEvent event) { await(release); }
+            @Override public void onAiExplanationReady(ErrorEvent event) {}
+        };
+        ErrorOutput failing = new ErrorOutput() {
+            @Override public void onErrorCaptured(ErrorEvent event) { throw new IllegalStateException("disk full"); }
+            @Override public void onAiExplanationReady(ErrorEvent event) {}
+        };
+        AtomicInteger delivered = new AtomicInteger();
+        ErrorOutput healthy = new ErrorOutput() {
+            @Override public void onErrorCaptured(ErrorEvent event) { delivered.incrementAndGet(); }
+            @Override public void onAiExplanationReady(ErrorEvent event) {}
+        };
+
+        AsyncErrorOutput slowSink = new AsyncErrorOutput("slow", slow, 10, 256);
+        CompositeErrorOutput composite = new CompositeErrorOutput(List.of(
+                slowSink,
+                new AsyncErrorOutput("failing", failing, 100, 256),
+                new AsyncErrorOutput("healthy", healthy, 100, 256)));
+
+        ErrorEvent event = ErrorEvent.builder()
+                .type(ErrorEvent.Type.ASYNC)
+                .exception(new IllegalStateException("boom"))
+                .build();
+        long start = System.nanoTime();
+        for (int i = 0; i < 50; i++) {
+            composite.onErrorCaptured(event);
+        }
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (delivered.get() < 50 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(elapsedMillis < 500, "capture took " + elapsedMillis + " ms");
+        assertEquals(50, delivered.get());
+        assertTrue(slowSink.getDroppedCount() > 0, "the slow sink's queue should have overflowed");
+
+        release.countDown();
+        composite.close();
+    }
+
+    @Test
+    void writer_handsTheSinkBoundedBatchesAndClosesItAfterDraining() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger delivered = new AtomicInteger();
+        AtomicInteger sinceFlush = new AtomicInteger();
+        AtomicInteger largestBatch = new AtomicInteger();
+        AtomicInteger closedAfter = new AtomicInteger(-1);
+        class BatchingSink implements ErrorOutput, Flushable, AutoCloseable {
+            @Override public void onErrorCaptured(ErrorEvent event) {
+                if (delivered.getAndIncrement() == 0) await(release);
+                largestBatch.accumulateAndGet(sinceFlush.incrementAndGet(), Math::max);
+            }
+            @Override public void onAiExplanationReady(ErrorEvent event) {}
+            @Override public void flush() { sinceFlush.set(0); }
+            @Override public void close() { closedAfter.set(delivered.get()); }
+        }
+
+        AsyncErrorOutput async = new AsyncErrorOutput("batching", new BatchingSink(), 1_000, 10);
+        ErrorEvent event = ErrorEvent.builder()
+                .type(ErrorEvent.Type.ASYNC)
+                .exception(new IllegalStateException("boom"))
+                .build();
+        for (int i = 0; i < 100; i++) {
+            async.onErrorCaptured(event);
+        }
+        release.countDown();
+        async.close();
+
+        assertEquals(100, delivered.get());
+        assertEquals(100, closedAfter.get());
+        assertTrue(largestBatch.get() <= 10, "largest batch was " + largestBatch.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
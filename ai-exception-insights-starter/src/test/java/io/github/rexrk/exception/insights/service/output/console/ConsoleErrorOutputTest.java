@@ -0,0 +1,44 @@
+package io.github.rexrk.exception.insights.service.output.console;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import io.github.rexrk.exception.insights.capture.LogAppenderRegistrar;
+import io.github.rexrk.exception.insights.capture.RingBufferLogAppender;
+import io.github.rexrk.exception.insights.model.ErrorEvent;
+import io.github.rexrk.exception.insights.model.LogLine;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsoleErrorOutputTest {
+
+    @Test
+    void renderedBlocks_doNotEvictApplicationLinesFromTheLogBuffer() {
+        RingBufferLogAppender appender = new RingBufferLogAppender(5);
+        LogAppenderRegistrar registrar = new LogAppenderRegistrar(appender);
+        registrar.afterPropertiesSet();
+        try {
+            LoggerFactory.getLogger("com.acme.orders").warn("inventory service slow");
+
+            ConsoleErrorOutput output = new ConsoleErrorOutput(true);
+            for (int i = 0; i < 10; i++) {
+                output.onErrorCaptured(ErrorEvent.builder()
+                        .type(ErrorEvent.Type.ASYNC)
+                        .exception(new IllegalStateException("boom " + i))
+                        .build());
+            }
+            output.flush();
+
+            List<LogLine> recent = appender.drainRecent(5);
+            assertEquals(1, recent.size());
+            assertEquals("inventory service slow", recent.getFirst().message());
+        } finally {
+            registrar.destroy();
+            ((LoggerContext) LoggerFactory.getILoggerFactory())
+                    .getLogger(Logger.ROOT_LOGGER_NAME).detachAppender(appender);
+        }
+    }
+}
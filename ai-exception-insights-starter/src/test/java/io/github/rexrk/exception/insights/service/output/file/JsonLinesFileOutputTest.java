@@ -0,0 +1,106 @@
+package io.github.rexrk.exception.insights.service.output.file;
+
+import io.github.rexrk.exception.insights.model.AiExplanation;
+import io.github.rexrk.exception.insights.model.ErrorEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonLinesFileOutputTest {
+
+    private final JsonMapper mapper = new JsonMapper();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void burstOfEvents_isWrittenCompletelyAcrossRolledAndCompressedFiles() throws Exception {
+        long maxFileSize = 32 * 1024;
+        JsonLinesFileOutput file = new JsonLinesFileOutput(dir.resolve("insights.jsonl"), maxFileSize,
+                Duration.ZERO, true, 0, JsonLinesFileOutput.FsyncPolicy.NEVER, Duration.ZERO, mapper);
+
+        ErrorEvent event = ErrorEvent.builder()
+                .type(ErrorEvent.Type.ASYNC)
+                .exception(new IllegalStateException("boom"))
+                .build();
+        int events = 1_000;
+        // batches far larger than a file, so every flush has to split its batch
+        for (int i = 0; i < events; i++) {
+            file.onErrorCaptured(event);
+            if (i % 250 == 249) file.flush();
+        }
+        file.close();
+
+        List<Path> rolled = files(".gz");
+        assertTrue(rolled.size() > 4, "expected size-based rolling, got " + rolled.size() + " file(s)");
+        List<String> lines = new ArrayList<>(read(dir.resolve("insights.jsonl")));
+        for (Path gz : rolled) {
+            List<String> rolledLines = read(gz);
+            long bytes = rolledLines.stream().mapToLong(l -> l.getBytes(StandardCharsets.UTF_8).length + 1).sum();
+            assertTrue(bytes <= maxFileSize, gz.getFileName() + " holds " + bytes + " bytes");
+            lines.addAll(rolledLines);
+        }
+        assertTrue(Files.size(dir.resolve("insights.jsonl")) <= maxFileSize);
+        assertEquals(events, lines.size());
+        JsonNode first = mapper.readTree(lines.getFirst());
+        assertEquals("error-captured", first.get("kind").asString());
+        assertEquals(event.getId(), first.get("id").asString());
+        assertTrue(first.get("stackTrace").asString().contains("IllegalStateException"));
+    }
+
+    @Test
+    void explanations_areAppendedAsSeparateLinesAndOldFilesArePruned() throws Exception {
+        Path unrelated = Files.writeString(dir.resolve("insights-archive.jsonl"), "keep");
+        Path otherExtension = Files.writeString(dir.resolve("insights-20240101-000000-000.txt"), "keep");
+        JsonLinesFileOutput file = new JsonLinesFileOutput(dir.resolve("insights.jsonl"), 0,
+                Duration.ofMillis(50), false, 2, JsonLinesFileOutput.FsyncPolicy.EVERY_BATCH, Duration.ZERO, mapper);
+
+        ErrorEvent event = ErrorEvent.builder()
+                .type(ErrorEvent.Type.ASYNC)
+                .exception(new IllegalStateException("boom"))
+                .build();
+        event.setAiExplanation(new AiExplanation("summary", List.of("cause"), List.of("fix"), null));
+        for (int i = 0; i < 5; i++) {
+            file.onAiExplanationReady(event);
+            file.flush();
+            Thread.sleep(60);
+        }
+        file.close();
+
+        assertEquals(2, files(".jsonl").size() - 2, "time-based rolls beyond max-history are pruned");
+        assertTrue(Files.exists(unrelated) && Files.exists(otherExtension), "only rolled files are pruned");
+        JsonNode line = mapper.readTree(read(dir.resolve("insights.jsonl")).getFirst());
+        assertEquals("ai-explanation", line.get("kind").asString());
+        assertEquals("summary", line.get("aiExplanation").get("summary").asString());
+    }
+
+    private List<Path> files(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.toString().endsWith(suffix)).sorted().toList();
+        }
+    }
+
+    private static List<String> read(Path path) throws IOException {
+        InputStream in = Files.newInputStream(path);
+        if (path.toString().endsWith(".gz")) in = new GZIPInputStream(in);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            return reader.lines().toList();
+        }
+    }
+}
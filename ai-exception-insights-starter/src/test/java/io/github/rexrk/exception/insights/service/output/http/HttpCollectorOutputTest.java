@@ -0,0 +1,65 @@
+package io.github.rexrk.exception.insights.service.output.http;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.rexrk.exception.insights.model.ErrorEvent;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpCollectorOutputTest {
+
+    @Test
+    void eventsAreBatchedIntoOneGzippedNdjsonRequest() throws Exception {
+        List<String> bodies = new CopyOnWriteArrayList<>();
+        List<String> nodes = new CopyOnWriteArrayList<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/collector/ingest", exchange -> {
+            assertEquals("gzip", exchange.getRequestHeaders().getFirst("Content-Encoding"));
+            nodes.add(exchange.getRequestHeaders().getFirst(HttpCollectorOutput.NODE_HEADER));
+            bodies.add(gunzip(exchange.getRequestBody()));
+            exchange.sendResponseHeaders(202, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            URI endpoint = URI.create("http://localhost:" + server.getAddress().getPort() + "/collector/ingest");
+            HttpCollectorOutput output = new HttpCollectorOutput(endpoint, "node-a", Duration.ofMinutes(1),
+                    1024 * 1024, Duration.ofSeconds(5), new JsonMapper());
+
+            for (int i = 0; i < 100; i++) {
+                output.onErrorCaptured(ErrorEvent.builder()
+                        .type(ErrorEvent.Type.ASYNC)
+                        .exception(new IllegalStateException("boom " + i))
+                        .build());
+                output.flush();
+            }
+            assertTrue(bodies.isEmpty(), "a small, fresh batch is held back");
+
+            output.close();
+
+            assertEquals(1, bodies.size());
+            assertEquals(List.of("node-a"), nodes);
+            assertEquals(100, bodies.getFirst().lines().count());
+            assertTrue(bodies.getFirst().startsWith("{\"kind\":\"error-captured\""));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static String gunzip(InputStream in) throws IOException {
+        try (InputStream gzip = new GZIPInputStream(in)) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
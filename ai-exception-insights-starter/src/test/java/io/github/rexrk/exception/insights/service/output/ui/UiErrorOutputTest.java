@@ -0,0 +1,67 @@
+package io.github.rexrk.exception.insights.service.output.ui;
+
+import io.github.rexrk.exception.insights.model.DashboardBatch;
+import io.github.rexrk.exception.insights.model.ErrorEvent;
+import io.github.rexrk.ui.dashboard.SseEmitterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UiErrorOutputTest {
+
+    private final List<Map.Entry<String, Object>> broadcasts = new CopyOnWriteArrayList<>();
+
+    private final SseEmitterRegistry recordingRegistry = new SseEmitterRegistry() {
+        @Override
+        public void broadcast(String eventName, Object data) {
+            broadcasts.add(Map.entry(eventName, data));
+        }
+    };
+
+    @Test
+    void errorStorm_isCoalescedIntoOneBatchWithCountsPerFingerprint() throws Exception {
+        ErrorEvent first = event(new IllegalStateException("boom"));
+        ErrorEvent second = event(new IllegalArgumentException("bad"));
+        UiErrorOutput output = new UiErrorOutput(recordingRegistry, Duration.ofMillis(200));
+
+        for (int i = 0; i < 1_000; i++) {
+            output.onErrorCaptured(i % 2 == 0 ? first : second);
+        }
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (broadcasts.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(300);
+        output.close();
+
+        assertEquals(1, broadcasts.size(), "one message per window");
+        assertEquals(UiErrorOutput.BATCH_EVENT, broadcasts.getFirst().getKey());
+        DashboardBatch batch = (DashboardBatch) broadcasts.getFirst().getValue();
+        assertEquals(2, batch.errors().size());
+        assertEquals(1_000, batch.errors().stream().mapToInt(DashboardBatch.Occurrence::count).sum());
+    }
+
+    @Test
+    void zeroWindow_broadcastsEachEventImmediately() {
+        UiErrorOutput output = new UiErrorOutput(recordingRegistry, Duration.ZERO);
+
+        output.onErrorCaptured(event(new IllegalStateException("boom")));
+        output.onAiExplanationReady(event(new IllegalStateException("boom")));
+
+        assertEquals(List.of("error-captured", "ai-insight-ready"),
+                broadcasts.stream().map(Map.Entry::getKey).toList());
+    }
+
+    private static ErrorEvent event(Throwable ex) {
+        return ErrorEvent.builder()
+                .type(ErrorEvent.Type.ASYNC)
+                .exception(ex)
+                .build();
+    }
+}
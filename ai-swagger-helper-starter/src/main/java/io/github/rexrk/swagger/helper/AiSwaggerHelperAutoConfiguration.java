@@ -2,15 +2,25 @@ package io.github.rexrk.swagger.helper;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.github.rexrk.swagger.helper.cache.GeneratedBodyPool;
+import io.github.rexrk.swagger.helper.generator.RandomBodyGenerator;
+import io.github.rexrk.swagger.helper.metrics.MicrometerRequestBodyGeneratorMetrics;
+import io.github.rexrk.swagger.helper.metrics.RequestBodyGeneratorMetrics;
+import io.github.rexrk.swagger.helper.prewarm.RequestBodyPrewarmer;
 import io.github.rexrk.swagger.helper.request.AiRequestBodyGeneratorService;
 import io.github.rexrk.swagger.helper.request.AiSwaggerHelperController;
+import io.github.rexrk.swagger.helper.schema.OpenApiSchemaResolver;
+import io.github.rexrk.swagger.helper.schema.SpringDocDocumentSource;
+import io.github.rexrk.swagger.helper.ui.AiSwaggerIndexTransformer;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springdoc.core.properties.SwaggerUiConfigProperties;
 import org.springdoc.core.properties.SwaggerUiOAuthProperties;
 import org.springdoc.core.providers.ObjectMapperProvider;
-import org.springdoc.webmvc.ui.SwaggerIndexPageTransformer;
+import org.springdoc.core.service.OpenAPIService;
+import org.springdoc.webmvc.api.OpenApiResource;
 import org.springdoc.webmvc.ui.SwaggerIndexTransformer;
 import org.springdoc.webmvc.ui.SwaggerWelcomeCommon;
 import org.springframework.ai.chat.client.ChatClient;
@@ -21,19 +31,24 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.MediaType;
 import org.springframework.web.servlet.function.RequestPredicates;
 import org.springframework.web.servlet.function.RouterFunction;
 import org.springframework.web.servlet.function.RouterFunctions;
 import org.springframework.web.servlet.function.ServerResponse;
-import org.springframework.web.servlet.resource.ResourceTransformerChain;
-import org.springframework.web.servlet.resource.TransformedResource;
-import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 @AutoConfiguration
 @ConditionalOnClass({
@@ -76,118 +91,217 @@ public class AiSwaggerHelperAutoConfiguration {
      * 2️⃣ Service
      */
 
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = AiSwaggerHelperProperties.prefix, name = "cache.enabled", matchIfMissing = true)
+    public GeneratedBodyPool generatedBodyPool() {
+        AiSwaggerHelperProperties.Cache cache = properties.getCache();
+        return new GeneratedBodyPool(cache.getPoolSize(), cache.getMaxSchemas());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public RandomBodyGenerator randomBodyGenerator(ObjectMapper objectMapper) {
+        return new RandomBodyGenerator(objectMapper.getFactory(), properties.getCache().getMaxSchemas());
+    }
+
     @Bean
     public AiRequestBodyGeneratorService aiRequestBodyGeneratorService(
             ObjectProvider<ChatClient> chatClientObjectProvider,
+            ObjectProvider<RequestBodyGeneratorMetrics> metrics,
+            ObjectProvider<GeneratedBodyPool> bodyPool,
+            RandomBodyGenerator randomBodyGenerator,
             ObjectMapper objectMapper
     ) {
         return new AiRequestBodyGeneratorService(
                 chatClientObjectProvider.getIfAvailable(),
                 objectMapper,
-                properties.getMode()
+                properties,
+                metrics.getIfAvailable(() -> RequestBodyGeneratorMetrics.NOOP),
+                bodyPool.getIfAvailable(),
+                randomBodyGenerator
         );
 
     }
 
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class MetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public RequestBodyGeneratorMetrics requestBodyGeneratorMetrics(ObjectProvider<MeterRegistry> registry) {
+            MeterRegistry meterRegistry = registry.getIfUnique();
+            return meterRegistry != null
+                    ? new MicrometerRequestBodyGeneratorMetrics(meterRegistry)
+                    : RequestBodyGeneratorMetrics.NOOP;
+        }
+    }
+
     /**
      * 3️⃣ Controller
      */
+    @Bean
+    @ConditionalOnMissingBean
+    public OpenApiSchemaResolver openApiSchemaResolver(
+            ObjectProvider<OpenApiResource> openApiResource,
+            ObjectProvider<OpenAPIService> openApiService,
+            ObjectProvider<ObjectMapperProvider> objectMapperProvider,
+            ObjectMapper objectMapper) {
+        // Looked up on first use: springdoc's beans may be defined after ours
+        return new OpenApiSchemaResolver(
+                new SpringDocDocumentSource(openApiResource::getIfUnique, openApiService::getIfAvailable,
+                        objectMapperProvider::getIfAvailable),
+                objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = AiSwaggerHelperProperties.prefix, name = "prewarm.enabled")
+    public RequestBodyPrewarmer requestBodyPrewarmer(
+            OpenApiSchemaResolver schemaResolver,
+            AiRequestBodyGeneratorService service) {
+        return new RequestBodyPrewarmer(schemaResolver, service, properties.getPrewarm().getMaxConcurrency(),
+                properties.getCache().getMaxSchemas());
+    }
+
     @Bean
     public AiSwaggerHelperController aiSwaggerHelperController(
             AiRequestBodyGeneratorService service,
-            ObjectMapper objectMapper) {
-        return new AiSwaggerHelperController(service, objectMapper);
+            ObjectMapper objectMapper,
+            ObjectProvider<OpenApiSchemaResolver> schemaResolver,
+            RandomBodyGenerator randomBodyGenerator) {
+        return new AiSwaggerHelperController(service, objectMapper, schemaResolver.getIfAvailable(),
+                randomBodyGenerator, properties);
 
     }
 
     @Bean
     public RouterFunction<ServerResponse> aiSwaggerRoutes(
-            AiSwaggerHelperController controller) {
+            AiSwaggerHelperController controller,
+            ObjectProvider<RequestBodyPrewarmer> prewarmer) {
+
+        // The controller answers by the deadline; the margin covers the local fallback
+        Duration streamTimeout = properties.getAsync().getDeadline().plusSeconds(5);
+        RouterFunctions.Builder routes = RouterFunctions.route();
+        prewarmer.ifAvailable(job -> routes.GET("/devtools/ai/request-body/prewarm",
+                request -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).body(job.progress())));
 
-        return RouterFunctions.route()
+        return routes
                 .POST("/devtools/ai/request-body/generate",
                         RequestPredicates.contentType(MediaType.APPLICATION_JSON),
                         request -> {
                             try {
                                 // Fetch request body
                                 Map<String, Object> body = request.body(new ParameterizedTypeReference<>() {});
-                                // Generate response for request body
-                                Map<String, Object> response = controller.generateBody(body);
+                                // Generate off the servlet thread; the container thread is released meanwhile
+                                CompletableFuture<ServerResponse> response = controller
+                                        .generateBodyAsync(body, request.servletRequest())
+                                        .thenApply(result -> ServerResponse.ok()
+                                                .contentType(MediaType.APPLICATION_JSON)
+                                                .body(result))
+                                        .exceptionally(e -> errorResponse(500,
+                                                e instanceof CompletionException && e.getCause() != null ? e.getCause() : e));
 
-                                return ServerResponse.ok()
-                                        .contentType(MediaType.APPLICATION_JSON)
-                                        .body(response);
+                                return ServerResponse.async(response);
 
                             } catch (IllegalArgumentException e) {
-                                return ServerResponse.badRequest()
-                                        .contentType(MediaType.APPLICATION_JSON)
-                                        .body(Map.of(
-                                                "success", false,
-                                                "error", e.getMessage()
-                                        ));
+                                return errorResponse(400, e);
+                            } catch (Exception e) {
+                                return errorResponse(500, e);
+                            }
+                        })
+                .POST("/devtools/ai/request-body/stream",
+                        RequestPredicates.contentType(MediaType.APPLICATION_JSON),
+                        request -> {
+                            try {
+                                Map<String, Object> body = request.body(new ParameterizedTypeReference<>() {});
+                                Consumer<AiSwaggerHelperController.BodyEvents> stream =
+                                        controller.streamBody(body, request.servletRequest());
+
+                                return ServerResponse.sse(sse -> stream.accept(new AiSwaggerHelperController.BodyEvents() {
+                                    @Override
+                                    public void partial(String piece) {
+                                        try {
+                                            sse.event("partial").data(piece);
+                                        } catch (IOException e) {
+                                            log.debug("Client left during streamed generation: {}", e.getMessage());
+                                        }
+                                    }
 
+                                    @Override
+                                    public void body(Map<String, Object> response) {
+                                        try {
+                                            sse.event("body").data(response);
+                                            sse.complete();
+                                        } catch (IOException e) {
+                                            sse.error(e);
+                                        }
+                                    }
+                                }), streamTimeout);
+
+                            } catch (IllegalArgumentException e) {
+                                return errorResponse(400, e);
                             } catch (Exception e) {
-                                return ServerResponse.status(500)
-                                        .contentType(MediaType.APPLICATION_JSON)
-                                        .body(Map.of(
-                                                "success", false,
-                                                "error", e.getMessage()
-                                        ));
+                                return errorResponse(500, e);
+                            }
+                        })
+                .POST("/devtools/ai/request-body/bulk",
+                        RequestPredicates.contentType(MediaType.APPLICATION_JSON),
+                        request -> {
+                            try {
+                                Map<String, Object> body = request.body(new ParameterizedTypeReference<>() {});
+                                AiSwaggerHelperController.BodyStream bodies =
+                                        controller.bulkBodies(body, request.servletRequest());
+
+                                return ServerResponse.ok()
+                                        .contentType(MediaType.APPLICATION_NDJSON)
+                                        .build((servletRequest, servletResponse) -> {
+                                            bodies.writeTo(servletResponse.getOutputStream());
+                                            return null;
+                                        });
+
+                            } catch (IllegalArgumentException e) {
+                                return errorResponse(400, e);
+                            } catch (Exception e) {
+                                return errorResponse(500, e);
                             }
                         })
                 .build();
     }
 
+    private static ServerResponse errorResponse(int status, Throwable e) {
+        return ServerResponse.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of(
+                        "success", false,
+                        "error", e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName()
+                ));
+    }
+
     @Bean
     @ConditionalOnMissingBean(SwaggerIndexTransformer.class)
     public SwaggerIndexTransformer customSwaggerIndexTransformer(
             SwaggerUiConfigProperties swaggerUiConfig,
             SwaggerUiOAuthProperties swaggerUiOAuthProperties,
             SwaggerWelcomeCommon swaggerWelcomeCommon,
-            ObjectMapperProvider objectMapperProvider) {
+            ObjectMapperProvider objectMapperProvider,
+            ObjectProvider<ResourceUrlProvider> resourceUrlProvider) {
 
-        return new SwaggerIndexPageTransformer(swaggerUiConfig, swaggerUiOAuthProperties, swaggerWelcomeCommon, objectMapperProvider) {
+        return new AiSwaggerIndexTransformer(swaggerUiConfig, swaggerUiOAuthProperties, swaggerWelcomeCommon,
+                objectMapperProvider, resourceUrlProvider::getIfAvailable);
+    }
 
+    @Bean
+    public WebMvcConfigurer aiSwaggerPluginResources() {
+        return new WebMvcConfigurer() {
             @Override
-            public Resource transform(HttpServletRequest request, Resource resource,
-                                      ResourceTransformerChain chain) throws IOException {
-                Resource transformed = super.transform(request, resource, chain);
-
-                // Inject into index.html
-                if (transformed.getFilename() != null && transformed.getFilename().equals("index.html")) {
-                    String html = new String(transformed.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
-
-                    // Inject plugin script BEFORE swagger-ui-bundle.js
-                    String pluginScript = "<script src=\"/ai-generate-body-plugin.js\"></script>\n";
-                    html = html.replace("<script src=\"./swagger-ui-bundle.js\"",
-                            pluginScript + "    <script src=\"./swagger-ui-bundle.js\"");
-
-                    byte[] bytes = html.getBytes(StandardCharsets.UTF_8);
-                    return new TransformedResource(transformed, bytes);
-                }
-
-                // Modify swagger-initializer.js to register the plugin
-                if (transformed.getFilename() != null && transformed.getFilename().equals("swagger-initializer.js")) {
-                    String js = new String(transformed.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
-
-                    if (js.contains("plugins:")) {
-                        js = js.replaceFirst(
-                                "(plugins:\\s*\\[)",
-                                "$1\n window.AiGenerateBodyPlugin,"
-                        );
-                    } else {
-                        // If no plugins array exists, add it before layout
-                        js = js.replaceFirst(
-                                "(layout:)",
-                                "plugins: [window.AiGenerateBodyPlugin],\n    $1"
-                        );
-                    }
-
-                    byte[] bytes = js.getBytes(StandardCharsets.UTF_8);
-                    return new TransformedResource(transformed, bytes);
-                }
-
-                return transformed;
+            public void addResourceHandlers(ResourceHandlerRegistry registry) {
+                // Content-hashed URLs, so the script can be cached until it changes
+                registry.addResourceHandler("/devtools/ai/assets/**")
+                        .addResourceLocations("classpath:/devtools/ai/")
+                        .setCacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                        .resourceChain(true)
+                        .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
             }
         };
     }
@@ -2,11 +2,21 @@ package io.github.rexrk.swagger.helper;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+import java.time.Instant;
+
 @ConfigurationProperties(prefix = AiSwaggerHelperProperties.prefix)
 public class AiSwaggerHelperProperties {
     public static final String prefix = "devtools.ai.swagger-helper";
     private boolean enabled = true;
     private Mode mode = Mode.AUTO;
+    private final Resilience resilience = new Resilience();
+    private final Cache cache = new Cache();
+    private final Bulk bulk = new Bulk();
+    private final Async async = new Async();
+    private final Prewarm prewarm = new Prewarm();
+    private final Streaming streaming = new Streaming();
+    private final Deterministic deterministic = new Deterministic();
 
     public enum Mode {
         AI,
@@ -29,4 +39,273 @@ public class AiSwaggerHelperProperties {
     public void setMode(Mode mode) {
         this.mode = mode;
     }
-}
\ No newline at end of file
+
+    public Resilience getResilience() {
+        return resilience;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Bulk getBulk() {
+        return bulk;
+    }
+
+    public Async getAsync() {
+        return async;
+    }
+
+    public Prewarm getPrewarm() {
+        return prewarm;
+    }
+
+    public Streaming getStreaming() {
+        return streaming;
+    }
+
+    public Deterministic getDeterministic() {
+        return deterministic;
+    }
+
+    /**
+     * Deadlines, retries and circuit breaking around the chat model calls.
+     * Defaults are tighter than the exception starter's because a developer
+     * is waiting on the Swagger button.
+     */
+    public static class Resilience {
+        private Duration callTimeout = Duration.ofSeconds(15);
+        private int maxAttempts = 2;
+        private Duration initialBackoff = Duration.ofMillis(300);
+        private Duration maxBackoff = Duration.ofSeconds(2);
+        private int failureThreshold = 3;
+        private Duration openDuration = Duration.ofSeconds(30);
+
+        public Duration getCallTimeout() {
+            return callTimeout;
+        }
+
+        public void setCallTimeout(Duration callTimeout) {
+            this.callTimeout = callTimeout;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        public int getFailureThreshold() {
+            return failureThreshold;
+        }
+
+        public void setFailureThreshold(int failureThreshold) {
+            this.failureThreshold = failureThreshold;
+        }
+
+        public Duration getOpenDuration() {
+            return openDuration;
+        }
+
+        public void setOpenDuration(Duration openDuration) {
+            this.openDuration = openDuration;
+        }
+    }
+
+    /**
+     * Per-schema pool of AI-generated bodies, served round-robin and
+     * regenerated in the background once every body has been served.
+     */
+    public static class Cache {
+        private boolean enabled = true;
+        private int poolSize = 5;
+        private int maxSchemas = 256;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        public int getMaxSchemas() {
+            return maxSchemas;
+        }
+
+        public void setMaxSchemas(int maxSchemas) {
+            this.maxSchemas = maxSchemas;
+        }
+    }
+
+    /**
+     * Limits for the NDJSON bulk endpoint used to build load-test corpora.
+     */
+    public static class Bulk {
+        private long maxCount = 1_000_000;
+        private int maxAiSamples = 5;
+
+        public long getMaxCount() {
+            return maxCount;
+        }
+
+        public void setMaxCount(long maxCount) {
+            this.maxCount = maxCount;
+        }
+
+        public int getMaxAiSamples() {
+            return maxAiSamples;
+        }
+
+        public void setMaxAiSamples(int maxAiSamples) {
+            this.maxAiSamples = maxAiSamples;
+        }
+    }
+
+    /**
+     * Model calls for the generate button run off the servlet thread on a
+     * small bounded pool; past the deadline the developer gets a local body.
+     */
+    public static class Async {
+        private Duration deadline = Duration.ofSeconds(10);
+        private int maxConcurrency = 4;
+        private int queueCapacity = 16;
+
+        public Duration getDeadline() {
+            return deadline;
+        }
+
+        public void setDeadline(Duration deadline) {
+            this.deadline = deadline;
+        }
+
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+
+        public void setMaxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    /**
+     * Optional background job that generates bodies for every documented
+     * operation once the application is ready, so the first clicks after a
+     * deploy do not wait for the model.
+     */
+    public static class Prewarm {
+        private boolean enabled = false;
+        private int maxConcurrency = 2;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+
+        public void setMaxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+    }
+
+    /**
+     * Streams model output through an incremental JSON parser: the call is
+     * cancelled at the first invalid token or past {@code maxBodyBytes}, and
+     * the Swagger plugin shows the body while it is being written.
+     */
+    public static class Streaming {
+        private boolean enabled = false;
+        private int maxBodyBytes = 64 * 1024;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxBodyBytes() {
+            return maxBodyBytes;
+        }
+
+        public void setMaxBodyBytes(int maxBodyBytes) {
+            this.maxBodyBytes = maxBodyBytes;
+        }
+    }
+
+    /**
+     * Reproducible fixtures: every body is generated locally from {@code seed},
+     * with dates relative to {@code baseTime}, so reruns are byte-identical.
+     * A {@code seed} in the request does the same for a single call.
+     */
+    public static class Deterministic {
+        private boolean enabled = false;
+        private long seed = 0;
+        private Instant baseTime = Instant.parse("2025-01-01T00:00:00Z");
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getSeed() {
+            return seed;
+        }
+
+        public void setSeed(long seed) {
+            this.seed = seed;
+        }
+
+        public Instant getBaseTime() {
+            return baseTime;
+        }
+
+        public void setBaseTime(Instant baseTime) {
+            this.baseTime = baseTime;
+        }
+    }
+}
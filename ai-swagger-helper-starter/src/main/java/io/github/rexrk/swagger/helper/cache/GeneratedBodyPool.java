@@ -0,0 +1,213 @@
+package io.github.rexrk.swagger.helper.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps a small pool of distinct generated bodies per schema, keyed by
+ * {@link SchemaHash}, and serves them round-robin.
+ * <p>
+ * The first request for a schema generates synchronously; concurrent first
+ * requests wait for that one generation instead of each calling the model.
+ * After that a click is a map lookup. Once every body in a pool has been served, a replacement
+ * pool is generated on a single background thread while the current bodies
+ * keep rotating, so repeated clicks stay fast and the data still changes.
+ * Refills run one at a time to keep the load on the model bounded. Pools for
+ * the least recently used schemas are evicted beyond {@code maxSchemas}.
+ */
+public class GeneratedBodyPool implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(GeneratedBodyPool.class);
+
+    private final int poolSize;
+    private final Map<String, Pool> pools;
+    private final ExecutorService refiller =
+            Executors.newSingleThreadExecutor(Thread.ofVirtual().name("swagger-body-refill").factory());
+
+    public GeneratedBodyPool(int poolSize, int maxSchemas) {
+        if (poolSize < 1) throw new IllegalArgumentException("poolSize must be positive");
+        this.poolSize = poolSize;
+        this.pools = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Pool> eldest) {
+                return size() > maxSchemas;
+            }
+        };
+    }
+
+    /**
+     * Next pooled body for {@code schema}, or the result of {@code generator}
+     * when nothing is pooled yet. Exceptions from a synchronous generation
+     * propagate; failed background refills keep the previous bodies.
+     */
+    public String next(JsonNode schema, Callable<String> generator) throws Exception {
+        return next(schema, generator, generator);
+    }
+
+    /**
+     * Like {@link #next(JsonNode, Callable)}, with a separate generator for
+     * background refills, which outlive the request that triggered them.
+     */
+    public String next(JsonNode schema, Callable<String> generator, Callable<String> refill) throws Exception {
+        Pool pool = pool(schema);
+
+        String body = pool.next();
+        if (body == null) {
+            CompletableFuture<String> first = new CompletableFuture<>();
+            CompletableFuture<String> pending = pool.pending.compareAndExchange(null, first);
+            if (pending != null) return await(pending);
+            body = generateFirst(pool, first, () -> {
+                String generated = generator.call();
+                pool.add(generated);
+                return generated;
+            });
+        }
+        if (pool.drained()) refill(pool, refill);
+        return body;
+    }
+
+    /**
+     * Generates a full pool for {@code schema} on the calling thread, unless
+     * one already exists. Used to warm the pool before the first click.
+     */
+    public void fill(JsonNode schema, Callable<String> generator) throws Exception {
+        Pool pool = pool(schema);
+        if (pool.next() != null) return;
+
+        CompletableFuture<String> first = new CompletableFuture<>();
+        CompletableFuture<String> pending = pool.pending.compareAndExchange(null, first);
+        if (pending != null) {
+            await(pending);
+            return;
+        }
+        generateFirst(pool, first, () -> {
+            List<String> fresh = new ArrayList<>(poolSize);
+            for (int i = 0; i < poolSize; i++) {
+                fresh.add(generator.call());
+            }
+            pool.replace(fresh);
+            return fresh.getFirst();
+        });
+    }
+
+    public int size() {
+        synchronized (pools) {
+            return pools.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (pools) {
+            pools.clear();
+        }
+    }
+
+    @Override
+    public void close() {
+        refiller.shutdownNow();
+    }
+
+    private Pool pool(JsonNode schema) {
+        synchronized (pools) {
+            return pools.computeIfAbsent(SchemaHash.of(schema), key -> new Pool(poolSize));
+        }
+    }
+
+    /** Runs the one generation that fills an empty pool and hands its result to the callers waiting on it. */
+    private static String generateFirst(Pool pool, CompletableFuture<String> first, Callable<String> generation)
+            throws Exception {
+        try {
+            // another caller may have filled the pool between our lookup and claiming the slot
+            String body = pool.next();
+            if (body == null) body = generation.call();
+            first.complete(body);
+            return body;
+        } catch (Exception e) {
+            first.completeExceptionally(e);
+            throw e;
+        } finally {
+            pool.pending.set(null);
+        }
+    }
+
+    private static String await(CompletableFuture<String> pending) throws Exception {
+        try {
+            return pending.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    private void refill(Pool pool, Callable<String> generator) {
+        if (!pool.refilling.compareAndSet(false, true)) return;
+        try {
+            refiller.execute(() -> {
+                try {
+                    List<String> fresh = new ArrayList<>(poolSize);
+                    for (int i = 0; i < poolSize; i++) {
+                        fresh.add(generator.call());
+                    }
+                    pool.replace(fresh);
+                } catch (Exception e) {
+                    log.debug("Background body generation failed, keeping pooled bodies: {}", e.getMessage());
+                } finally {
+                    pool.refilling.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pool.refilling.set(false);
+        }
+    }
+
+    private static final class Pool {
+        private final int capacity;
+        private volatile List<String> bodies = List.of();
+        private final AtomicInteger served = new AtomicInteger();
+        private final AtomicBoolean refilling = new AtomicBoolean();
+        // the generation filling an empty pool, shared by concurrent first requests
+        private final AtomicReference<CompletableFuture<String>> pending = new AtomicReference<>();
+
+        Pool(int capacity) {
+            this.capacity = capacity;
+        }
+
+        String next() {
+            List<String> current = bodies;
+            if (current.isEmpty()) return null;
+            return current.get(Math.floorMod(served.getAndIncrement(), current.size()));
+        }
+
+        synchronized void add(String body) {
+            if (bodies.size() >= capacity) return;
+            List<String> grown = new ArrayList<>(bodies);
+            grown.add(body);
+            bodies = List.copyOf(grown);
+            served.incrementAndGet();
+        }
+
+        synchronized void replace(List<String> fresh) {
+            bodies = List.copyOf(fresh);
+            served.set(0);
+        }
+
+        /** Every current body has been handed out at least once. */
+        boolean drained() {
+            return served.get() >= bodies.size();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.rexrk.swagger.helper.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Canonical SHA-256 of a schema tree. Object properties are hashed in name
+ * order and numbers by value, so schemas that differ only in key order or
+ * number representation ({@code 1} vs {@code 1.0}) share a hash.
+ */
+public final class SchemaHash {
+
+    private SchemaHash() {}
+
+    public static String of(JsonNode schema) {
+        MessageDigest digest = sha256();
+        update(digest, schema);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, JsonNode node) {
+        if (node == null || node.isNull() || node.isMissingNode()) {
+            digest.update((byte) 'n');
+        } else if (node.isObject()) {
+            List<Map.Entry<String, JsonNode>> properties = new ArrayList<>(node.properties());
+            properties.sort(Map.Entry.comparingByKey());
+            digest.update((byte) '{');
+            for (Map.Entry<String, JsonNode> property : properties) {
+                string(digest, property.getKey());
+                update(digest, property.getValue());
+            }
+            digest.update((byte) '}');
+        } else if (node.isArray()) {
+            digest.update((byte) '[');
+            for (JsonNode element : node) {
+                update(digest, element);
+            }
+            digest.update((byte) ']');
+        } else if (node.isNumber()) {
+            digest.update((byte) '#');
+            string(digest, node.decimalValue().stripTrailingZeros().toPlainString());
+        } else if (node.isBoolean()) {
+            digest.update((byte) (node.booleanValue() ? 't' : 'f'));
+        } else {
+            digest.update((byte) 's');
+            string(digest, node.asText());
+        }
+    }
+
+    // length-prefixed so adjacent strings cannot run into each other
+    private static void string(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package io.github.rexrk.swagger.helper.generator;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.util.random.RandomGenerator;
+
+/**
+ * A schema compiled into a tree of value writers. Instances are immutable and
+ * thread-safe; all randomness comes from the {@link RandomGenerator} passed
+ * per call, so a seeded generator yields the same body every time.
+ */
+@FunctionalInterface
+public interface BodyGenerator {
+
+    void write(JsonGenerator json, RandomGenerator random) throws IOException;
+}
@@ -0,0 +1,97 @@
+package io.github.rexrk.swagger.helper.generator;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.github.rexrk.swagger.helper.cache.SchemaHash;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Local, schema-driven body generation. Schemas are compiled into
+ * {@link BodyGenerator} trees once and cached by {@link SchemaHash}; the
+ * least recently used entries are evicted beyond {@code maxSchemas}.
+ * <p>
+ * Callers producing many bodies for one schema should {@link #compile} once
+ * and write straight to their own {@link JsonGenerator}.
+ */
+public class RandomBodyGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(RandomBodyGenerator.class);
+
+    private final JsonFactory jsonFactory;
+    private final Map<String, Compiled> compiled;
+
+    public RandomBodyGenerator(JsonFactory jsonFactory, int maxSchemas) {
+        this.jsonFactory = jsonFactory;
+        this.compiled = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Compiled> eldest) {
+                return size() > maxSchemas;
+            }
+        };
+    }
+
+    public BodyGenerator compile(JsonNode schema) {
+        return compiled(schema).generator();
+    }
+
+    /**
+     * Whether every constraint in {@code schema} is honoured by local
+     * generation, so its output should pass validation without the model.
+     */
+    public boolean isExact(JsonNode schema) {
+        return compiled(schema).exact();
+    }
+
+    /**
+     * Compiles {@code schema} with sample bodies whose values are mixed into
+     * generated free-text fields. Not cached; the samples differ per call.
+     */
+    public BodyGenerator compile(JsonNode schema, List<JsonNode> samples) {
+        return samples.isEmpty() ? compile(schema) : new SchemaCompiler().compile(schema, samples);
+    }
+
+    /** One pretty-printed body, as shown in the Swagger request editor. */
+    public String generate(JsonNode schema, RandomGenerator random) {
+        BodyGenerator generator = compile(schema);
+        StringWriter out = new StringWriter(256);
+        try (JsonGenerator json = jsonFactory.createGenerator(out)) {
+            json.setPrettyPrinter(new DefaultPrettyPrinter());
+            generator.write(json, random);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    private Compiled compiled(JsonNode schema) {
+        String hash = SchemaHash.of(schema);
+        synchronized (compiled) {
+            Compiled cached = compiled.get(hash);
+            if (cached != null) return cached;
+        }
+        // compiling outside the lock; a concurrent duplicate is harmless
+        SchemaCompiler compiler = new SchemaCompiler();
+        BodyGenerator generator = compiler.compile(schema, List.of());
+        if (!compiler.isExact()) {
+            log.debug("Local generation cannot honour all of schema {}: {}", hash, compiler.inexactReasons());
+        }
+        Compiled result = new Compiled(generator, compiler.isExact());
+        synchronized (compiled) {
+            compiled.put(hash, result);
+        }
+        return result;
+    }
+
+    private record Compiled(BodyGenerator generator, boolean exact) {}
+}
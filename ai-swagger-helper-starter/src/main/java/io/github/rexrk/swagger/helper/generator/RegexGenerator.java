@@ -0,0 +1,285 @@
+package io.github.rexrk.swagger.helper.generator;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Generates strings matching a regular expression, for the {@code pattern}
+ * keyword. Supports the subset OpenAPI documents use in practice: literals
+ * and escapes, {@code .}, character classes and ranges (including negated
+ * ones and {@code \d \w \s}), groups, alternation and the usual quantifiers.
+ * Anchors are accepted and ignored; unbounded quantifiers repeat at most
+ * {@value #UNBOUNDED_EXTRA} extra times, so every pattern has a finite range
+ * of output lengths.
+ * <p>
+ * Lookarounds, backreferences and word boundaries cannot be generated
+ * forward and are rejected with {@link IllegalArgumentException} at compile time.
+ */
+final class RegexGenerator {
+
+    private static final int UNBOUNDED_EXTRA = 3;
+    private static final char[] PRINTABLE = range(' ', '~');
+    private static final char[] DOT = chars("abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789");
+
+    private interface Appender {
+        void append(StringBuilder out, RandomGenerator random);
+    }
+
+    /** Part of the pattern, with the shortest and longest output it can append. */
+    private record Node(Appender appender, int minLength, int maxLength) {
+        void append(StringBuilder out, RandomGenerator random) {
+            appender.append(out, random);
+        }
+    }
+
+    private static final Node EMPTY = new Node((out, random) -> {}, 0, 0);
+
+    private final String pattern;
+    private final Node root;
+    private int pos;
+
+    private RegexGenerator(String pattern) {
+        this.pattern = pattern;
+        this.root = alternation();
+        if (pos < pattern.length()) throw error("unbalanced ')'");
+    }
+
+    static RegexGenerator compile(String pattern) {
+        return new RegexGenerator(pattern);
+    }
+
+    String generate(RandomGenerator random) {
+        StringBuilder out = new StringBuilder();
+        root.append(out, random);
+        return out.toString();
+    }
+
+    /** Length of the shortest string {@link #generate} can return. */
+    int minLength() {
+        return root.minLength();
+    }
+
+    /** Length of the longest string {@link #generate} can return. */
+    int maxLength() {
+        return root.maxLength();
+    }
+
+    // --- Parser ---
+
+    private Node alternation() {
+        List<Node> branches = new ArrayList<>();
+        branches.add(sequence());
+        while (peek() == '|') {
+            pos++;
+            branches.add(sequence());
+        }
+        if (branches.size() == 1) return branches.getFirst();
+        Node[] options = branches.toArray(Node[]::new);
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        for (Node option : options) {
+            min = Math.min(min, option.minLength());
+            max = Math.max(max, option.maxLength());
+        }
+        return new Node((out, random) -> options[random.nextInt(options.length)].append(out, random), min, max);
+    }
+
+    private Node sequence() {
+        List<Node> parts = new ArrayList<>();
+        while (pos < pattern.length() && peek() != '|' && peek() != ')') {
+            parts.add(quantified(atom()));
+        }
+        Node[] nodes = parts.toArray(Node[]::new);
+        long min = 0;
+        long max = 0;
+        for (Node node : nodes) {
+            min += node.minLength();
+            max += node.maxLength();
+        }
+        return new Node((out, random) -> {
+            for (Node node : nodes) node.append(out, random);
+        }, saturate(min), saturate(max));
+    }
+
+    private Node quantified(Node atom) {
+        if (pos >= pattern.length()) return atom;
+        int min;
+        int max;
+        switch (peek()) {
+            case '*' -> { pos++; min = 0; max = UNBOUNDED_EXTRA; }
+            case '+' -> { pos++; min = 1; max = 1 + UNBOUNDED_EXTRA; }
+            case '?' -> { pos++; min = 0; max = 1; }
+            case '{' -> {
+                int close = pattern.indexOf('}', pos);
+                if (close < 0) throw error("unclosed '{'");
+                String[] bounds = pattern.substring(pos + 1, close).split(",", -1);
+                try {
+                    min = Integer.parseInt(bounds[0].trim());
+                    max = bounds.length == 1 ? min
+                            : bounds[1].isBlank() ? min + UNBOUNDED_EXTRA
+                            : Integer.parseInt(bounds[1].trim());
+                } catch (NumberFormatException e) {
+                    throw error("bad quantifier");
+                }
+                pos = close + 1;
+            }
+            default -> { return atom; }
+        }
+        if (pos < pattern.length() && (peek() == '?' || peek() == '+')) pos++; // lazy/possessive
+        int lo = min;
+        int hi = Math.max(min, max);
+        return new Node((out, random) -> {
+            int times = lo == hi ? lo : random.nextInt(lo, hi + 1);
+            for (int i = 0; i < times; i++) atom.append(out, random);
+        }, saturate((long) lo * atom.minLength()), saturate((long) hi * atom.maxLength()));
+    }
+
+    private Node atom() {
+        char c = pattern.charAt(pos++);
+        switch (c) {
+            case '(' -> {
+                if (peek() == '?') {
+                    pos++;
+                    char kind = next();
+                    if (kind == '<' && peek() != '=' && peek() != '!') {
+                        int close = pattern.indexOf('>', pos);
+                        if (close < 0) throw error("unclosed group name");
+                        pos = close + 1;
+                    } else if (kind != ':') {
+                        throw error("lookarounds and inline flags are not supported");
+                    }
+                }
+                Node group = alternation();
+                if (pos >= pattern.length() || next() != ')') throw error("unclosed '('");
+                return group;
+            }
+            case '[' -> { return pick(charClass()); }
+            case '.' -> { return pick(DOT); }
+            case '^', '$' -> { return EMPTY; }
+            case '\\' -> {
+                char[] escaped = escape(false);
+                return escaped.length == 1 ? literal(escaped[0]) : pick(escaped);
+            }
+            case '*', '+', '?', '{' -> throw error("dangling quantifier");
+            default -> { return literal(c); }
+        }
+    }
+
+    private char[] charClass() {
+        boolean negated = peek() == '^';
+        if (negated) pos++;
+        BitSet members = new BitSet(128);
+        boolean first = true;
+        while (true) {
+            if (pos >= pattern.length()) throw error("unclosed '['");
+            char c = next();
+            if (c == ']' && !first) break;
+            first = false;
+
+            if (c == '\\') {
+                char[] escaped = escape(true);
+                if (escaped.length > 1) {
+                    for (char e : escaped) members.set(e);
+                    continue;
+                }
+                c = escaped[0];
+            }
+            if (peek() == '-' && pos + 1 < pattern.length() && pattern.charAt(pos + 1) != ']') {
+                pos++;
+                char end = next();
+                if (end == '\\') end = escape(true)[0];
+                if (end < c) throw error("bad range");
+                members.set(c, end + 1);
+            } else {
+                members.set(c);
+            }
+        }
+
+        if (negated) {
+            BitSet printable = new BitSet(128);
+            for (char p : PRINTABLE) printable.set(p);
+            printable.andNot(members);
+            members = printable;
+        }
+        if (members.isEmpty()) throw error("empty character class");
+        char[] result = new char[members.cardinality()];
+        for (int i = members.nextSetBit(0), n = 0; i >= 0; i = members.nextSetBit(i + 1)) {
+            result[n++] = (char) i;
+        }
+        return result;
+    }
+
+    /** Characters an escape stands for; a single element for plain escaped literals. */
+    private char[] escape(boolean inClass) {
+        if (pos >= pattern.length()) throw error("trailing '\\'");
+        char c = next();
+        return switch (c) {
+            case 'd' -> range('0', '9');
+            case 'w' -> chars("abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789_");
+            case 's' -> new char[] {' '};
+            case 'D' -> chars("abcdefghijklmnopqrstuvwxyz");
+            case 'W', 'S' -> chars("-.,;:!");
+            case 't' -> new char[] {'\t'};
+            case 'n' -> new char[] {'\n'};
+            case 'r' -> new char[] {'\r'};
+            case 'u' -> new char[] {(char) hex(4)};
+            case 'x' -> new char[] {(char) hex(2)};
+            case 'b' -> {
+                if (inClass) yield new char[] {'\b'};
+                throw error("word boundaries are not supported");
+            }
+            case 'B', 'A', 'z', 'Z', 'G', 'p', 'P', 'k' -> throw error("\\" + c + " is not supported");
+            default -> {
+                if (Character.isDigit(c)) throw error("backreferences are not supported");
+                yield new char[] {c};
+            }
+        };
+    }
+
+    private int hex(int digits) {
+        if (pos + digits > pattern.length()) throw error("bad hex escape");
+        try {
+            int value = Integer.parseInt(pattern.substring(pos, pos + digits), 16);
+            pos += digits;
+            return value;
+        } catch (NumberFormatException e) {
+            throw error("bad hex escape");
+        }
+    }
+
+    private char peek() {
+        return pos < pattern.length() ? pattern.charAt(pos) : '\0';
+    }
+
+    private char next() {
+        return pattern.charAt(pos++);
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Cannot generate from pattern '" + pattern + "': " + message);
+    }
+
+    private static Node literal(char c) {
+        return new Node((out, random) -> out.append(c), 1, 1);
+    }
+
+    private static Node pick(char[] options) {
+        return new Node((out, random) -> out.append(options[random.nextInt(options.length)]), 1, 1);
+    }
+
+    private static int saturate(long length) {
+        return (int) Math.min(length, Integer.MAX_VALUE);
+    }
+
+    private static char[] range(char from, char to) {
+        char[] result = new char[to - from + 1];
+        for (int i = 0; i < result.length; i++) result[i] = (char) (from + i);
+        return result;
+    }
+
+    private static char[] chars(String s) {
+        return s.toCharArray();
+    }
+}
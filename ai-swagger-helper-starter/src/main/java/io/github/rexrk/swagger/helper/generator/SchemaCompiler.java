@@ -0,0 +1,688 @@
+package io.github.rexrk.swagger.helper.generator;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.IntSummaryStatistics;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.random.RandomGenerator;
+
+/**
+ * Turns a resolved schema into a {@link BodyGenerator}. Everything that only
+ * depends on the schema (types, bounds, enum values, property names, compiled
+ * patterns) is read here once; generation just draws random numbers and
+ * writes tokens. Given a {@link SeededRandom}, every field and array item
+ * draws from its own derived sub-seed.
+ * <p>
+ * Covers the validation keywords OpenAPI 3.0 and 3.1 documents use: length,
+ * {@code pattern}, numeric bounds and {@code multipleOf}, item counts and
+ * {@code uniqueItems}, {@code required}, {@code additionalProperties},
+ * {@code const}/{@code enum}, {@code allOf} (merged) and {@code oneOf}/{@code anyOf}
+ * (one branch per body). Scalar {@code example}/{@code default} values are
+ * emitted for about half of the bodies. Keywords that cannot be generated
+ * forward ({@code not}, conditionals, unsupported regex features) are skipped
+ * and clear {@link #isExact()}, as do constraints the generator can only meet
+ * by chance or not at all: {@code oneOf} branches that a body of another
+ * branch may also match, patterns that can produce strings outside the length
+ * bounds, formats whose values do not fit the length bounds, unique items from
+ * too few distinct values, and integer ranges beyond 64 bits.
+ * <p>
+ * Sample bodies (for example AI-generated ones) can be passed alongside the
+ * schema: free-text and email fields then draw from the values the samples
+ * hold at the same path, so each generated body mixes fields from different
+ * samples. Identifiers, dates and numbers stay random.
+ */
+final class SchemaCompiler {
+
+    private static final String UNRESOLVED_REF = "Schema references not yet resolved. Pass resolved schema.";
+    private static final String[] EMAILS = {"alice@example.com", "bob@test.org", "charlie@mail.io"};
+    private static final String[] HOSTS = {"api.example.com", "test.example.org", "mail.example.io"};
+    private static final Set<String> UNSUPPORTED = Set.of("not", "if", "then", "else", "patternProperties",
+            "contains", "dependentRequired", "dependentSchemas", "propertyNames", "unevaluatedProperties");
+    private static final int UNIQUE_ATTEMPTS = 10;
+    private static final int PATTERN_ATTEMPTS = 20;
+    private static final BigDecimal LONG_MIN = BigDecimal.valueOf(Long.MIN_VALUE);
+    private static final BigDecimal LONG_MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+    private static final JsonFactory BUFFER_FACTORY = new JsonFactory();
+
+    private final List<String> inexact = new ArrayList<>();
+
+    /** Whether every keyword met while compiling was honoured, so output should validate. */
+    boolean isExact() {
+        return inexact.isEmpty();
+    }
+
+    /** Keywords or constructs that were skipped, for diagnostics. */
+    List<String> inexactReasons() {
+        return List.copyOf(inexact);
+    }
+
+    BodyGenerator compile(JsonNode schema, List<JsonNode> samples) {
+        if (schema == null || schema.isNull() || schema.isBoolean()) return (json, random) -> json.writeNull();
+
+        if (schema.has("$ref")) {
+            inexact.add("unresolved " + schema.get("$ref").asText());
+            return (json, random) -> {
+                json.writeStartObject();
+                json.writeStringField("error", UNRESOLVED_REF);
+                json.writeEndObject();
+            };
+        }
+
+        if (schema.has("allOf")) return compile(merge(schema), samples);
+
+        JsonNode branches = schema.has("oneOf") ? schema.get("oneOf") : schema.get("anyOf");
+        if (branches != null && branches.isArray() && !branches.isEmpty()) {
+            ObjectNode base = ((ObjectNode) schema).deepCopy();
+            base.remove(List.of("oneOf", "anyOf"));
+            BodyGenerator[] options = new BodyGenerator[branches.size()];
+            JsonNode[] merged = new JsonNode[branches.size()];
+            for (int i = 0; i < options.length; i++) {
+                ObjectNode combined = JsonNodeFactory.instance.objectNode();
+                combined.putArray("allOf").add(base).add(branches.get(i));
+                merged[i] = merge(combined);
+                options[i] = compile(merged[i], samples);
+            }
+            if (schema.has("oneOf") && !exclusive(merged)) inexact.add("oneOf");
+            return (json, random) -> options[random.nextInt(options.length)].write(json, random);
+        }
+
+        for (String keyword : UNSUPPORTED) {
+            if (schema.has(keyword)) inexact.add(keyword);
+        }
+
+        if (schema.has("const")) {
+            JsonNode value = schema.get("const");
+            return (json, random) -> writeScalar(json, value);
+        }
+
+        if (schema.has("enum")) {
+            List<JsonNode> values = new ArrayList<>();
+            schema.get("enum").forEach(value -> {
+                if (value.isValueNode()) values.add(value);
+            });
+            if (values.isEmpty()) return (json, random) -> json.writeNull();
+            JsonNode[] options = values.toArray(JsonNode[]::new);
+            return (json, random) -> writeScalar(json, options[random.nextInt(options.length)]);
+        }
+
+        return switch (type(schema)) {
+            case "string" -> withExamples(schema, string(schema, samples));
+            case "integer" -> withExamples(schema, integer(schema));
+            case "number" -> withExamples(schema, number(schema));
+            case "boolean" -> withExamples(schema, (json, random) -> json.writeBoolean(random.nextBoolean()));
+            case "null" -> (json, random) -> json.writeNull();
+            case "array" -> array(schema, samples);
+            default -> object(schema, samples);
+        };
+    }
+
+    // --- oneOf ---
+
+    /** Whether a body generated from any branch fails every other branch. */
+    private static boolean exclusive(JsonNode[] branches) {
+        for (int i = 0; i < branches.length; i++) {
+            for (int j = 0; j < branches.length; j++) {
+                if (i != j && !rejects(branches[j], branches[i])) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether {@code other} rejects every body generated from {@code branch}: by
+     * type, by a required property the body never has, or by a property whose
+     * {@code const}/{@code enum} values do not overlap (a discriminator).
+     */
+    private static boolean rejects(JsonNode other, JsonNode branch) {
+        if (branch.has("oneOf") || branch.has("anyOf") || branch.has("$ref")) return false;
+        Set<String> values = values(branch);
+        if (values != null) return disjoint(values, values(other));
+        String type = type(branch);
+        Set<String> allowed = declaredTypes(other);
+        if (!allowed.isEmpty() && !allowed.contains(type)
+                && !(type.equals("integer") && allowed.contains("number"))) {
+            return true;
+        }
+        if (!type.equals("object")) return false;
+
+        Set<String> names = new HashSet<>();
+        branch.path("properties").properties().forEach(p -> names.add(p.getKey()));
+        branch.path("required").forEach(name -> names.add(name.asText()));
+        // extra properties are only added for minProperties or map-like schemas
+        boolean extraNames = branch.has("minProperties") || branch.path("additionalProperties").isObject();
+        for (JsonNode name : other.path("required")) {
+            if (!names.contains(name.asText()) && !extraNames) return true;
+        }
+        // every declared property is written
+        for (Map.Entry<String, JsonNode> property : branch.path("properties").properties()) {
+            if (disjoint(values(property.getValue()), values(other.path("properties").path(property.getKey())))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean disjoint(Set<String> values, Set<String> otherValues) {
+        return values != null && otherValues != null && values.stream().noneMatch(otherValues::contains);
+    }
+
+    private static Set<String> declaredTypes(JsonNode schema) {
+        Set<String> types = new HashSet<>();
+        JsonNode type = schema.get("type");
+        if (type != null && type.isArray()) type.forEach(t -> types.add(t.asText().toLowerCase()));
+        else if (type != null) types.add(type.asText().toLowerCase());
+        return types;
+    }
+
+    /**
+     * The values generated from {@code const} or {@code enum}, which skips
+     * non-scalar entries and falls back to null; {@code null} when not limited.
+     */
+    private static Set<String> values(JsonNode schema) {
+        if (schema.has("allOf")) return values(merge(schema));
+        if (schema.has("const")) return Set.of(valueKey(schema.get("const")));
+        if (!schema.path("enum").isArray()) return null;
+        Set<String> values = new HashSet<>();
+        schema.get("enum").forEach(value -> {
+            if (value.isValueNode()) values.add(valueKey(value));
+        });
+        if (values.isEmpty()) values.add("null");
+        return values;
+    }
+
+    // 1 and 1.0 are the same JSON Schema value
+    private static String valueKey(JsonNode value) {
+        return value.isNumber() ? value.decimalValue().stripTrailingZeros().toPlainString() : value.toString();
+    }
+
+    // --- Types ---
+
+    private static String type(JsonNode schema) {
+        JsonNode type = schema.get("type");
+        if (type != null && type.isArray()) {
+            // OpenAPI 3.1 nullable types: prefer the non-null one
+            for (JsonNode t : type) {
+                if (!"null".equals(t.asText())) return t.asText().toLowerCase();
+            }
+            return "null";
+        }
+        if (type != null) return type.asText().toLowerCase();
+
+        if (schema.has("properties") || schema.has("additionalProperties") || schema.has("required")) return "object";
+        if (schema.has("items") || schema.has("minItems") || schema.has("maxItems")) return "array";
+        if (schema.has("pattern") || schema.has("minLength") || schema.has("maxLength") || schema.has("format")) return "string";
+        if (schema.has("minimum") || schema.has("maximum") || schema.has("multipleOf")) return "number";
+        return "object";
+    }
+
+    private BodyGenerator object(JsonNode schema, List<JsonNode> samples) {
+        Map<String, JsonNode> properties = new LinkedHashMap<>();
+        if (schema.has("properties")) {
+            schema.get("properties").properties().forEach(p -> properties.put(p.getKey(), p.getValue()));
+        }
+        // required names without a declared schema may hold anything
+        if (schema.has("required")) {
+            schema.get("required").forEach(name -> properties.putIfAbsent(name.asText(), JsonNodeFactory.instance.objectNode()));
+        }
+
+        List<String> names = new ArrayList<>();
+        List<BodyGenerator> values = new ArrayList<>();
+        for (Map.Entry<String, JsonNode> property : properties.entrySet()) {
+            names.add(property.getKey());
+            values.add(compile(property.getValue(), samplesAt(samples, property.getKey())));
+        }
+
+        JsonNode additional = schema.get("additionalProperties");
+        int minProperties = schema.path("minProperties").asInt(0);
+        int maxProperties = schema.path("maxProperties").asInt(Integer.MAX_VALUE);
+        if (names.size() > maxProperties) inexact.add("maxProperties");
+        boolean additionalAllowed = additional == null || !additional.isBoolean() || additional.booleanValue();
+        // a map-like schema (no properties, typed additionalProperties) gets a couple of entries
+        int extra = Math.max(minProperties - names.size(),
+                names.isEmpty() && additional != null && additional.isObject() ? 1 : 0);
+        if (extra > 0 && !additionalAllowed) {
+            inexact.add("minProperties");
+            extra = 0;
+        }
+        BodyGenerator extraValue = additional != null && additional.isObject()
+                ? compile(additional, List.of())
+                : (json, random) -> json.writeString("value_" + random.nextInt(1000));
+        for (int i = 1; i <= extra; i++) {
+            String name = "property" + i;
+            while (properties.containsKey(name)) name = name + "_";
+            names.add(name);
+            values.add(extraValue);
+        }
+
+        String[] fieldNames = names.toArray(String[]::new);
+        BodyGenerator[] fieldValues = values.toArray(BodyGenerator[]::new);
+        long[] fieldSalts = names.stream().mapToLong(SeededRandom::salt).toArray();
+        return (json, random) -> {
+            json.writeStartObject();
+            for (int i = 0; i < fieldNames.length; i++) {
+                json.writeFieldName(fieldNames[i]);
+                fieldValues[i].write(json, child(random, fieldSalts[i]));
+            }
+            json.writeEndObject();
+        };
+    }
+
+    private BodyGenerator array(JsonNode schema, List<JsonNode> samples) {
+        int minItems = schema.path("minItems").asInt(1);
+        // without maxItems the count stays at minItems; with it, up to two more
+        int maxItems = schema.has("maxItems") ? schema.get("maxItems").asInt() : minItems;
+        if (maxItems < minItems) {
+            inexact.add("maxItems < minItems");
+            maxItems = minItems;
+        }
+        boolean unique = schema.path("uniqueItems").asBoolean(false);
+        int hiItems = Math.min(maxItems, minItems + 2);
+        if (unique) {
+            // don't ask for more distinct items than the item schema has
+            long distinct = distinctValues(schema.get("items"));
+            if (distinct >= 0 && distinct < minItems) inexact.add("uniqueItems");
+            if (distinct >= 0) hiItems = (int) Math.max(minItems, Math.min(hiItems, distinct));
+        }
+        int lo = minItems;
+        int hi = hiItems;
+
+        List<JsonNode> itemSamples = new ArrayList<>();
+        samples.stream().filter(JsonNode::isArray).forEach(sample -> sample.forEach(itemSamples::add));
+        BodyGenerator items = compile(schema.get("items"), itemSamples);
+
+        return (json, random) -> {
+            int count = lo == hi ? lo : random.nextInt(lo, hi + 1);
+            json.writeStartArray();
+            if (unique) {
+                writeUnique(json, random, items, count);
+            } else {
+                for (int i = 0; i < count; i++) items.write(json, child(random, i));
+            }
+            json.writeEndArray();
+        };
+    }
+
+    /** How many different values a schema can generate, or -1 when too many to count. */
+    private static long distinctValues(JsonNode schema) {
+        if (schema == null || schema.isNull() || schema.isBoolean()) return 1;
+        if (schema.has("$ref") || schema.has("oneOf") || schema.has("anyOf")) return -1;
+        if (schema.has("allOf")) return distinctValues(merge(schema));
+        Set<String> values = values(schema);
+        if (values != null) return values.size();
+        return switch (type(schema)) {
+            case "boolean" -> 2;
+            case "null" -> 1;
+            default -> -1;
+        };
+    }
+
+    // Seeded generation gives every field and item its own sub-seed; other randomness is shared
+    private static RandomGenerator child(RandomGenerator random, long salt) {
+        return random instanceof SeededRandom seeded ? seeded.derive(salt) : random;
+    }
+
+    // Items are rendered compactly to compare them; small enums may run out of distinct values.
+    private static void writeUnique(JsonGenerator json, RandomGenerator random, BodyGenerator items, int count)
+            throws IOException {
+        Set<String> seen = new HashSet<>();
+        for (int attempt = 0; seen.size() < count && attempt < count * UNIQUE_ATTEMPTS; attempt++) {
+            StringWriter item = new StringWriter(64);
+            try (JsonGenerator buffer = BUFFER_FACTORY.createGenerator(item)) {
+                items.write(buffer, child(random, attempt));
+            }
+            if (seen.add(item.toString())) json.writeRawValue(item.toString());
+        }
+    }
+
+    private BodyGenerator string(JsonNode schema, List<JsonNode> samples) {
+        int minLength = schema.path("minLength").asInt(0);
+        int maxLength = schema.path("maxLength").asInt(Integer.MAX_VALUE);
+        if (maxLength < minLength) {
+            inexact.add("maxLength < minLength");
+            maxLength = minLength;
+        }
+        int min = minLength;
+        int max = maxLength;
+
+        if (schema.has("pattern")) {
+            RegexGenerator regex;
+            try {
+                regex = RegexGenerator.compile(schema.get("pattern").asText());
+            } catch (IllegalArgumentException e) {
+                inexact.add(e.getMessage());
+                regex = null;
+            }
+            if (regex != null) {
+                RegexGenerator pattern = regex;
+                // retries usually find a fitting value, but only a pattern inside the bounds always does
+                if (pattern.minLength() < min || pattern.maxLength() > max) inexact.add("pattern with length bounds");
+                return (json, random) -> {
+                    String value = pattern.generate(random);
+                    for (int i = 1; i < PATTERN_ATTEMPTS && (value.length() < min || value.length() > max); i++) {
+                        value = pattern.generate(random);
+                    }
+                    json.writeString(value);
+                };
+            }
+        }
+
+        String format = schema.has("format") ? schema.get("format").asText() : null;
+        if (format == null || format.equals("email")) {
+            String[] values = samples.stream().filter(JsonNode::isTextual).map(JsonNode::asText)
+                    .filter(v -> v.length() >= min && v.length() <= max)
+                    .distinct()
+                    .toArray(String[]::new);
+            if (values.length > 0) return (json, random) -> json.writeString(values[random.nextInt(values.length)]);
+        }
+
+        Format source = format(format);
+        if (source.minLength() >= min && source.maxLength() <= max) {
+            return (json, random) -> json.writeString(source.next(random));
+        }
+        if (source.structured()) {
+            // padding or cutting would break the format
+            inexact.add("format " + format + " with length bounds");
+            return (json, random) -> json.writeString(source.next(random));
+        }
+        return (json, random) -> json.writeString(fit(source.next(random), min, max, random));
+    }
+
+    @FunctionalInterface
+    private interface StringSource {
+        String next(RandomGenerator random);
+    }
+
+    /**
+     * A value source and the lengths it produces. Free text may be padded or
+     * cut to the length bounds; structured values may not.
+     */
+    private record Format(StringSource source, int minLength, int maxLength, boolean structured) {
+        String next(RandomGenerator random) {
+            return source.next(random);
+        }
+
+        static Format text(StringSource source) {
+            return new Format(source, 0, Integer.MAX_VALUE, false);
+        }
+
+        static Format structured(StringSource source, int minLength, int maxLength) {
+            return new Format(source, minLength, maxLength, true);
+        }
+
+        static Format choice(String[] values) {
+            IntSummaryStatistics lengths = Arrays.stream(values).mapToInt(String::length).summaryStatistics();
+            return structured(random -> values[random.nextInt(values.length)], lengths.getMin(), lengths.getMax());
+        }
+    }
+
+    private static Format format(String format) {
+        if (format == null) return Format.text(random -> "string_" + random.nextInt(1000));
+
+        return switch (format) {
+            case "date" -> Format.structured(
+                    random -> now(random).toLocalDate().minusDays(random.nextInt(365)).toString(), 10, 10);
+            // toString() would drop zero seconds, which RFC 3339 requires
+            case "date-time" -> Format.structured(random -> now(random).truncatedTo(ChronoUnit.SECONDS)
+                    .minusDays(random.nextInt(365)).minusSeconds(random.nextInt(86_400))
+                    .format(DateTimeFormatter.ISO_OFFSET_DATE_TIME), 20, 20);
+            case "time" -> Format.structured(random ->
+                    "%02d:%02d:%02dZ".formatted(random.nextInt(24), random.nextInt(60), random.nextInt(60)), 9, 9);
+            case "email" -> Format.choice(EMAILS);
+            case "uuid" -> Format.structured(random -> uuid(random).toString(), 36, 36);
+            case "uri", "url" -> Format.structured(
+                    random -> "https://example.com/" + uuid(random).toString().substring(0, 8), 28, 28);
+            case "hostname" -> Format.choice(HOSTS);
+            case "ipv4" -> Format.structured(random ->
+                    "10.%d.%d.%d".formatted(random.nextInt(256), random.nextInt(256), 1 + random.nextInt(254)), 8, 14);
+            case "ipv6" -> Format.structured(random -> "2001:db8::%x".formatted(1 + random.nextInt(0xffff)), 11, 14);
+            case "byte" -> Format.structured(random ->
+                    Base64.getEncoder().encodeToString(("value_" + random.nextInt(1000)).getBytes()), 12, 12);
+            default -> Format.text(random -> "value_" + random.nextInt(1000));
+        };
+    }
+
+    private static OffsetDateTime now(RandomGenerator random) {
+        return random instanceof SeededRandom seeded
+                ? OffsetDateTime.ofInstant(seeded.baseTime(), ZoneOffset.UTC)
+                : OffsetDateTime.now(ZoneOffset.UTC);
+    }
+
+    /** Pads with lowercase letters or truncates so the value respects the length bounds. */
+    private static String fit(String value, int min, int max, RandomGenerator random) {
+        if (value.length() > max) return value.substring(0, max);
+        if (value.length() >= min) return value;
+        StringBuilder padded = new StringBuilder(min).append(value);
+        while (padded.length() < min) padded.append((char) ('a' + random.nextInt(26)));
+        return padded.toString();
+    }
+
+    private BodyGenerator integer(JsonNode schema) {
+        BigDecimal[] bounds = bounds(schema, BigDecimal.ONE, BigDecimal.valueOf(1000));
+        BigDecimal lower = bounds[0].setScale(0, RoundingMode.CEILING);
+        BigDecimal upper = bounds[1].setScale(0, RoundingMode.FLOOR);
+        if (exclusive(schema, "exclusiveMinimum") && bounds[0].compareTo(lower) == 0) lower = lower.add(BigDecimal.ONE);
+        if (exclusive(schema, "exclusiveMaximum") && bounds[1].compareTo(upper) == 0) upper = upper.subtract(BigDecimal.ONE);
+        // narrowing the range to 64 bits keeps values valid, unless no part of it is left
+        if (lower.compareTo(LONG_MAX) > 0 || upper.compareTo(LONG_MIN) < 0) inexact.add("integer range beyond 64 bits");
+        long min = toLong(lower);
+        long max = toLong(upper);
+
+        long step = 1;
+        if (schema.has("multipleOf")) {
+            BigDecimal multipleOf = schema.get("multipleOf").decimalValue();
+            if (multipleOf.signum() > 0 && multipleOf.stripTrailingZeros().scale() <= 0
+                    && multipleOf.compareTo(LONG_MAX) <= 0) {
+                step = multipleOf.longValueExact();
+            } else {
+                inexact.add("multipleOf");
+            }
+        }
+        long first = Math.ceilDiv(min, step);
+        long last = Math.floorDiv(max, step);
+        if (last < first) {
+            inexact.add("empty integer range");
+            last = first;
+        }
+        long lo = first;
+        long hi = last;
+        long multiple = step;
+        return (json, random) -> json.writeNumber(between(random, lo, hi) * multiple);
+    }
+
+    private BodyGenerator number(JsonNode schema) {
+        BigDecimal[] bounds = bounds(schema, BigDecimal.ONE, BigDecimal.valueOf(1000));
+        double min = bounds[0].doubleValue();
+        double max = bounds[1].doubleValue();
+        boolean exclusiveMin = exclusive(schema, "exclusiveMinimum");
+        boolean exclusiveMax = exclusive(schema, "exclusiveMaximum");
+
+        if (schema.has("multipleOf")) {
+            BigDecimal step = schema.get("multipleOf").decimalValue();
+            if (step.signum() <= 0) {
+                inexact.add("multipleOf");
+            } else {
+                BigDecimal first = bounds[0].divide(step, 0, RoundingMode.CEILING);
+                BigDecimal last = bounds[1].divide(step, 0, RoundingMode.FLOOR);
+                if (exclusiveMin && first.multiply(step).compareTo(bounds[0]) == 0) first = first.add(BigDecimal.ONE);
+                if (exclusiveMax && last.multiply(step).compareTo(bounds[1]) == 0) last = last.subtract(BigDecimal.ONE);
+                if (last.compareTo(first) < 0) {
+                    inexact.add("empty number range");
+                    last = first;
+                }
+                if (first.compareTo(LONG_MAX) > 0 || last.compareTo(LONG_MIN) < 0) {
+                    inexact.add("number range beyond 64-bit multiples");
+                }
+                long lo = toLong(first);
+                long hi = toLong(last);
+                return (json, random) -> json.writeNumber(step.multiply(BigDecimal.valueOf(between(random, lo, hi))));
+            }
+        }
+
+        if (max < min) {
+            inexact.add("empty number range");
+            max = min;
+        }
+        double lo = min;
+        double hi = max;
+        return (json, random) -> {
+            double value = lo + random.nextDouble() * (hi - lo);
+            double rounded = Math.round(value * 100.0) / 100.0;
+            if (rounded >= lo && rounded <= hi) value = rounded;
+            if (exclusiveMin && value <= lo) value = Math.nextUp(lo);
+            if (exclusiveMax && value >= hi) value = Math.nextDown(hi);
+            json.writeNumber(value);
+        };
+    }
+
+    /**
+     * Effective {minimum, maximum}. OpenAPI 3.1 numeric exclusive bounds replace
+     * the inclusive ones; the caller nudges values off an exclusive bound.
+     * With only one side given, the range extends 1000 from it.
+     */
+    private static BigDecimal[] bounds(JsonNode schema, BigDecimal defaultMin, BigDecimal defaultMax) {
+        BigDecimal min = bound(schema, "minimum", "exclusiveMinimum");
+        BigDecimal max = bound(schema, "maximum", "exclusiveMaximum");
+        BigDecimal span = defaultMax.subtract(defaultMin);
+        if (min == null && max == null) return new BigDecimal[] {defaultMin, defaultMax};
+        if (min == null) min = max.compareTo(defaultMin) >= 0 ? defaultMin.min(max) : max.subtract(span);
+        if (max == null) max = min.compareTo(defaultMax) <= 0 ? defaultMax : min.add(span);
+        return new BigDecimal[] {min, max};
+    }
+
+    private static long toLong(BigDecimal value) {
+        return value.max(LONG_MIN).min(LONG_MAX).longValue();
+    }
+
+    /** Uniform in {@code [lo, hi]}; {@code hi + 1} would overflow at {@code Long.MAX_VALUE}. */
+    private static long between(RandomGenerator random, long lo, long hi) {
+        if (lo == hi) return lo;
+        if (hi < Long.MAX_VALUE) return random.nextLong(lo, hi + 1);
+        return lo > Long.MIN_VALUE ? random.nextLong(lo - 1, hi) + 1 : random.nextLong();
+    }
+
+    /** OpenAPI 3.0 uses a boolean flag next to the bound, 3.1 the exclusive bound itself. */
+    private static boolean exclusive(JsonNode schema, String keyword) {
+        JsonNode value = schema.get(keyword);
+        return value != null && (value.isNumber() || value.asBoolean());
+    }
+
+    private static BigDecimal bound(JsonNode schema, String inclusive, String exclusive) {
+        JsonNode exclusiveValue = schema.get(exclusive);
+        if (exclusiveValue != null && exclusiveValue.isNumber()) return exclusiveValue.decimalValue();
+        JsonNode value = schema.get(inclusive);
+        return value != null && value.isNumber() ? value.decimalValue() : null;
+    }
+
+    // --- Helpers ---
+
+    /** Emits a scalar {@code example}, {@code examples} entry or {@code default} for about half of the bodies. */
+    private static BodyGenerator withExamples(JsonNode schema, BodyGenerator generated) {
+        Set<JsonNode> candidates = new LinkedHashSet<>();
+        if (schema.path("example").isValueNode()) candidates.add(schema.get("example"));
+        if (schema.path("default").isValueNode()) candidates.add(schema.get("default"));
+        schema.path("examples").forEach(example -> {
+            if (example.isValueNode()) candidates.add(example);
+        });
+        candidates.removeIf(JsonNode::isNull);
+        if (candidates.isEmpty()) return generated;
+
+        JsonNode[] examples = candidates.toArray(JsonNode[]::new);
+        return (json, random) -> {
+            if (random.nextBoolean()) {
+                writeScalar(json, examples[random.nextInt(examples.length)]);
+            } else {
+                generated.write(json, random);
+            }
+        };
+    }
+
+    private static void writeScalar(JsonGenerator json, JsonNode value) throws IOException {
+        if (value.isTextual()) json.writeString(value.asText());
+        else if (value.isIntegralNumber()) json.writeNumber(value.bigIntegerValue());
+        else if (value.isNumber()) json.writeNumber(value.decimalValue());
+        else if (value.isBoolean()) json.writeBoolean(value.booleanValue());
+        else if (value.isNull()) json.writeNull();
+        else json.writeString(value.toString());
+    }
+
+    private static List<JsonNode> samplesAt(List<JsonNode> samples, String name) {
+        if (samples.isEmpty()) return samples;
+        return samples.stream()
+                .map(sample -> sample.get(name))
+                .filter(value -> value != null && !value.isNull())
+                .toList();
+    }
+
+    /**
+     * Flattens {@code allOf} into one schema: properties and required names are
+     * unioned (a property declared in several parts gets an {@code allOf} of its
+     * schemas), lower bounds take the largest value and upper bounds the
+     * smallest, and any other keyword keeps its first occurrence.
+     */
+    private static JsonNode merge(JsonNode schema) {
+        ObjectNode merged = ((ObjectNode) schema).deepCopy();
+        merged.remove("allOf");
+        for (JsonNode part : schema.get("allOf")) {
+            JsonNode flat = part.has("allOf") ? merge(part) : part;
+            for (Map.Entry<String, JsonNode> keyword : flat.properties()) {
+                String name = keyword.getKey();
+                JsonNode value = keyword.getValue();
+                JsonNode existing = merged.get(name);
+                if (existing == null) {
+                    merged.set(name, value.deepCopy());
+                } else if (name.equals("properties") && existing.isObject() && value.isObject()) {
+                    value.properties().forEach(p -> {
+                        JsonNode current = existing.get(p.getKey());
+                        if (current == null) {
+                            ((ObjectNode) existing).set(p.getKey(), p.getValue());
+                        } else if (!current.equals(p.getValue())) {
+                            ObjectNode both = JsonNodeFactory.instance.objectNode();
+                            both.putArray("allOf").add(current).add(p.getValue());
+                            ((ObjectNode) existing).set(p.getKey(), both);
+                        }
+                    });
+                } else if (name.equals("required") && existing.isArray() && value.isArray()) {
+                    Set<String> names = new LinkedHashSet<>();
+                    existing.forEach(n -> names.add(n.asText()));
+                    value.forEach(n -> names.add(n.asText()));
+                    ArrayNode union = merged.putArray("required");
+                    names.forEach(union::add);
+                } else if (existing.isNumber() && value.isNumber() && name.startsWith("min")) {
+                    if (value.decimalValue().compareTo(existing.decimalValue()) > 0) merged.set(name, value);
+                } else if (existing.isNumber() && value.isNumber() && name.startsWith("max")) {
+                    if (value.decimalValue().compareTo(existing.decimalValue()) < 0) merged.set(name, value);
+                }
+            }
+        }
+        return merged;
+    }
+
+    // version 4 layout, drawn from the supplied generator so seeded runs repeat
+    private static UUID uuid(RandomGenerator random) {
+        long high = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long low = (random.nextLong() & ~(0xC000L << 48)) | (0x8000L << 48);
+        return new UUID(high, low);
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.rexrk.swagger.helper.metrics;
+
+import io.github.rexrk.ai.metrics.MicrometerAiMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.function.IntSupplier;
+
+public class MicrometerRequestBodyGeneratorMetrics extends MicrometerAiMetrics<RequestBodyGeneratorMetrics.Outcome>
+        implements RequestBodyGeneratorMetrics {
+
+    static final String PREFIX = "devtools.ai.swagger.helper";
+
+    public MicrometerRequestBodyGeneratorMetrics(MeterRegistry registry) {
+        super(registry, PREFIX, Outcome.class);
+    }
+
+    @Override
+    public void bindGauges(IntSupplier inFlight) {
+        gauge("inflight", "Generations currently waiting on the model", inFlight);
+    }
+}
@@ -0,0 +1,31 @@
+package io.github.rexrk.swagger.helper.metrics;
+
+import java.time.Duration;
+import java.util.function.IntSupplier;
+
+/**
+ * Recording hooks for request-body generation. {@link #NOOP} is used when no
+ * {@code MeterRegistry} is available.
+ */
+public interface RequestBodyGeneratorMetrics {
+
+    RequestBodyGeneratorMetrics NOOP = new RequestBodyGeneratorMetrics() {};
+
+    enum Outcome { SUCCESS, FAILURE, REJECTED }
+
+    /** One model attempt; retries are recorded individually. */
+    default void recordAttempt(Duration latency, boolean success) {}
+
+    /** One AI generation, after retries. Failures and rejections fall back to random generation. */
+    default void recordOutcome(Outcome outcome) {}
+
+    default void recordParseFailure() {}
+
+    default void recordPromptSize(int chars) {}
+
+    default void recordResponseSize(int chars) {}
+
+    default void recordTokenUsage(long promptTokens, long completionTokens) {}
+
+    default void bindGauges(IntSupplier inFlight) {}
+}
@@ -0,0 +1,130 @@
+package io.github.rexrk.swagger.helper.prewarm;
+
+import io.github.rexrk.swagger.helper.request.AiRequestBodyGeneratorService;
+import io.github.rexrk.swagger.helper.schema.OpenApiSchemaResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Generates request bodies for every documented operation in the background
+ * once the application is ready, so the first clicks after a deploy hit a
+ * filled pool instead of the model.
+ * <p>
+ * Runs on a few daemon threads at minimum priority; the ready event only
+ * submits the job, so startup is never delayed. Schemas that local generation
+ * handles are just compiled. A failed operation is counted and skipped. At
+ * most {@code maxOperations} operations are warmed, so the job never fills
+ * more pools than the cache keeps.
+ */
+public class RequestBodyPrewarmer implements ApplicationListener<ApplicationReadyEvent>, AutoCloseable {
+
+    public enum State {
+        PENDING,
+        RUNNING,
+        DONE,
+        FAILED
+    }
+
+    /**
+     * @param completed operations finished so far, including failed ones
+     * @param modelCalls operations whose pool was filled by the model
+     */
+    public record Progress(State state, int total, int completed, int failed, int modelCalls) {}
+
+    private static final Logger log = LoggerFactory.getLogger(RequestBodyPrewarmer.class);
+
+    private final OpenApiSchemaResolver schemaResolver;
+    private final AiRequestBodyGeneratorService generatorService;
+    private final int maxOperations;
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.PENDING);
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger modelCalls = new AtomicInteger();
+
+    public RequestBodyPrewarmer(OpenApiSchemaResolver schemaResolver,
+                                AiRequestBodyGeneratorService generatorService,
+                                int maxConcurrency,
+                                int maxOperations) {
+        this.schemaResolver = schemaResolver;
+        this.generatorService = generatorService;
+        this.maxOperations = Math.max(0, maxOperations);
+        int threads = Math.max(1, maxConcurrency);
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                Thread.ofPlatform().name("swagger-prewarm-", 0).daemon().priority(Thread.MIN_PRIORITY).factory());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        start();
+    }
+
+    /** Starts the job once; later calls are ignored. */
+    public void start() {
+        if (!state.compareAndSet(State.PENDING, State.RUNNING)) return;
+        executor.execute(this::enumerate);
+    }
+
+    public Progress progress() {
+        return new Progress(state.get(), total.get(), completed.get(), failed.get(), modelCalls.get());
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void enumerate() {
+        List<String> operations;
+        try {
+            operations = schemaResolver.requestBodyOperations(null);
+        } catch (Exception e) {
+            state.set(State.FAILED);
+            log.warn("Request body pre-warming failed to read the OpenAPI document: {}", e.getMessage());
+            return;
+        }
+
+        if (operations.size() > maxOperations) {
+            log.info("Pre-warming only the first {} of {} operations (cache.max-schemas)",
+                    maxOperations, operations.size());
+            operations = operations.subList(0, maxOperations);
+        }
+        total.set(operations.size());
+        if (operations.isEmpty()) {
+            state.set(State.DONE);
+            return;
+        }
+        log.info("Pre-warming request bodies for {} operations", operations.size());
+        for (String operationId : operations) {
+            executor.execute(() -> warm(operationId));
+        }
+    }
+
+    private void warm(String operationId) {
+        try {
+            if (generatorService.prewarm(schemaResolver.resolveOperation(operationId, null))) {
+                modelCalls.incrementAndGet();
+            }
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            log.debug("Pre-warming {} failed: {}", operationId, e.getMessage());
+        } finally {
+            if (completed.incrementAndGet() == total.get()) {
+                state.set(State.DONE);
+                log.info("Pre-warmed request bodies for {} operations ({} failed)", total.get(), failed.get());
+            }
+        }
+    }
+}
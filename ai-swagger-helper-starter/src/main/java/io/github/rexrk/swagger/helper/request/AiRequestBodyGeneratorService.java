@@ -2,21 +2,31 @@ package io.github.rexrk.swagger.helper.request;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.rexrk.ai.resilience.CallNotPermittedException;
+import io.github.rexrk.ai.resilience.ChatCallGuard;
+import io.github.rexrk.ai.resilience.CircuitBreaker;
+import io.github.rexrk.swagger.helper.AiSwaggerHelperProperties;
 import io.github.rexrk.swagger.helper.AiSwaggerHelperProperties.*;
+import io.github.rexrk.swagger.helper.cache.GeneratedBodyPool;
+import io.github.rexrk.swagger.helper.generator.RandomBodyGenerator;
+import io.github.rexrk.swagger.helper.metrics.RequestBodyGeneratorMetrics;
+import io.github.rexrk.swagger.helper.metrics.RequestBodyGeneratorMetrics.Outcome;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.messages.AbstractMessage;
+import org.springframework.ai.chat.metadata.Usage;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.model.Generation;
 
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
-import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 public class AiRequestBodyGeneratorService {
 
@@ -25,20 +35,63 @@ public class AiRequestBodyGeneratorService {
     private final ChatClient chatClient;
     private final ObjectMapper objectMapper;
     private final Mode mode;
-
-    public AiRequestBodyGeneratorService(ChatClient chatClient, ObjectMapper objectMapper, Mode mode) {
+    private final ChatCallGuard callGuard;
+    private final RequestBodyGeneratorMetrics metrics;
+    private final GeneratedBodyPool bodyPool;
+    private final RandomBodyGenerator randomBodyGenerator;
+    private final boolean streaming;
+    private final int maxStreamedBytes;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * @param bodyPool pools AI-generated bodies per schema; {@code null} calls the model on every request
+     */
+    public AiRequestBodyGeneratorService(ChatClient chatClient, ObjectMapper objectMapper,
+                                         AiSwaggerHelperProperties properties, RequestBodyGeneratorMetrics metrics,
+                                         GeneratedBodyPool bodyPool, RandomBodyGenerator randomBodyGenerator) {
+        Resilience resilience = properties.getResilience();
         this.chatClient = chatClient;
         this.objectMapper = objectMapper;
-        this.mode = mode;
+        this.mode = properties.getMode();
+        this.callGuard = new ChatCallGuard(
+                resilience.getCallTimeout(),
+                resilience.getMaxAttempts(),
+                resilience.getInitialBackoff(),
+                resilience.getMaxBackoff(),
+                new CircuitBreaker(resilience.getFailureThreshold(), resilience.getOpenDuration())
+        );
+        this.metrics = metrics;
+        this.bodyPool = bodyPool;
+        this.randomBodyGenerator = randomBodyGenerator;
+        this.streaming = properties.getStreaming().isEnabled();
+        this.maxStreamedBytes = properties.getStreaming().getMaxBodyBytes();
+        metrics.bindGauges(inFlight::get);
     }
 
     public String generateBody(JsonNode schema) {
+        return generateBody(schema, null);
+    }
+
+    /**
+     * Like {@link #generateBody(JsonNode)}; in streaming mode {@code partials}
+     * receives the body piece by piece while the model writes it. Pieces may
+     * arrive before a fallback replaces the body, so only the return value is final.
+     * {@code partials} is only called while this method runs.
+     */
+    public String generateBody(JsonNode schema, Consumer<String> partials) {
         try {
-            return chatClient == null || mode == Mode.RANDOM ?
-                    generateRandomBody(schema) :
-                    generateWithAI(schema);
+            if (!usesModel(schema)) return generateRandomBody(schema);
+            return bodyPool != null ?
+                    bodyPool.next(schema, () -> generateWithAI(schema, partials), () -> generateWithAI(schema)) :
+                    generateWithAI(schema, partials);
+
+        } catch (CallNotPermittedException e) {
+            metrics.recordOutcome(Outcome.REJECTED);
+            log.debug("AI circuit open, using random generation: {}", e.getMessage());
+            return generateRandomBody(schema);
 
         } catch (Exception e) {
+            metrics.recordOutcome(Outcome.FAILURE);
             // Fallback to random on error
             log.warn("AI generation failed, falling back to random");
             log.debug("Error:", e);
@@ -46,33 +99,83 @@ public class AiRequestBodyGeneratorService {
         }
     }
 
+    /**
+     * Whether {@link #generateBody} would call the model for this schema. AUTO
+     * keeps the model for schemas local generation cannot satisfy.
+     */
+    public boolean usesModel(JsonNode schema) {
+        if (chatClient == null || mode == Mode.RANDOM) return false;
+        return mode != Mode.AUTO || !randomBodyGenerator.isExact(schema);
+    }
+
+    /** A locally generated body; never calls the model. */
+    public String generateRandomBody(JsonNode schema) {
+        try {
+            return randomBodyGenerator.generate(schema, ThreadLocalRandom.current());
+        } catch (Exception e) {
+            return "{}";
+        }
+    }
+
+    /**
+     * Does the work of a first click ahead of time: fills the body pool when
+     * the schema goes to the model, otherwise compiles the local generator.
+     * Returns whether the model was called; failures propagate.
+     */
+    public boolean prewarm(JsonNode schema) throws Exception {
+        if (!usesModel(schema)) {
+            randomBodyGenerator.compile(schema);
+            return false;
+        }
+        if (bodyPool == null) return false;
+        bodyPool.fill(schema, () -> generateWithAI(schema));
+        return true;
+    }
+
+    /**
+     * Up to {@code count} AI-generated bodies to use as variation samples for
+     * bulk generation; empty when AI is unavailable. Every sample is its own
+     * model call rather than a pooled body, which would repeat; duplicates are
+     * dropped. Stops at the first failure rather than falling back, since
+     * random samples would add nothing.
+     */
+    public List<JsonNode> generateSamples(JsonNode schema, int count) {
+        if (chatClient == null || mode == Mode.RANDOM || count <= 0) return List.of();
+        List<JsonNode> samples = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                JsonNode sample = objectMapper.readTree(generateWithAI(schema));
+                if (!samples.contains(sample)) samples.add(sample);
+            }
+        } catch (Exception e) {
+            log.debug("AI sample generation stopped after {} samples: {}", samples.size(), e.getMessage());
+        }
+        return samples;
+    }
+
     private String generateWithAI(JsonNode schema) throws Exception {
-        String schemaStr = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(schema);
+        return generateWithAI(schema, null);
+    }
 
-        String promptText = """
-                Generate a realistic JSON object that matches this OpenAPI schema.
-                Return ONLY valid JSON with no markdown formatting, no explanation.
-                
-                Schema:
-                %s
-                
-                Requirements:
-                - All required fields must be present
-                - Use realistic, varied sample data (real names, age, emails, addresses, etc.)
-                - Follow any format constraints (email, date-time, uuid, etc.)
-                - Respect min/max constraints for numbers
-                - If there are enums, pick random valid values
-                - Make nested objects and arrays realistic
-                - Output ONLY the JSON object, nothing else
-                """.formatted(schemaStr);
+    private String generateWithAI(JsonNode schema, Consumer<String> partials) throws Exception {
+        inFlight.incrementAndGet();
+        try {
+            String body = streaming ? streamFromAI(schema, partials) : requestFromAI(schema);
+            metrics.recordOutcome(Outcome.SUCCESS);
+            return body;
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
 
+    private String requestFromAI(JsonNode schema) throws Exception {
+        String promptText = prompt(schema);
 
-        ChatResponse response = chatClient.prompt()
-                .user(promptText)
-                .call()
-                .chatResponse();
+        metrics.recordPromptSize(promptText.length());
+        ChatResponse response = callGuard.call(() -> timedCall(promptText));
 
         assert response != null;
+        recordUsage(response);
         String generatedText = Optional.of(response)
                 .map(ChatResponse::getResult)
                 .map(Generation::getOutput)
@@ -80,6 +183,7 @@ public class AiRequestBodyGeneratorService {
                 .filter(t -> !t.isBlank())
                 .orElseThrow(() ->
                         new IllegalStateException("AI response contained no text output"));
+        metrics.recordResponseSize(generatedText.length());
 
         String cleaned = extractJson(generatedText);
         log.debug("Cleaned JSON: {}", cleaned);
@@ -89,6 +193,7 @@ public class AiRequestBodyGeneratorService {
             objectMapper.readTree(cleaned);
 
         } catch (Exception e) {
+            metrics.recordParseFailure();
             log.error("Failed to parse AI response. Raw: {}, Cleaned: {}", generatedText, cleaned);
             throw new RuntimeException("AI returned invalid JSON: " + e.getMessage());
         }
@@ -96,6 +201,124 @@ public class AiRequestBodyGeneratorService {
         return cleaned;
     }
 
+    /**
+     * Streams the model's answer through {@link StreamingJsonExtractor}. The
+     * stream is cancelled once the document closes or turns invalid; invalid
+     * output is not retried, matching the blocking path.
+     */
+    private String streamFromAI(JsonNode schema, Consumer<String> partials) throws Exception {
+        String promptText = prompt(schema);
+
+        metrics.recordPromptSize(promptText.length());
+        // pieces come from one attempt only: a retry after pieces were sent, or an
+        // abandoned attempt still running, would otherwise splice two bodies together
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicInteger forwarding = new AtomicInteger();
+        Streamed streamed = callGuard.call(() -> {
+            int attempt = attempts.incrementAndGet();
+            return timedStream(promptText, partials == null ? null : piece -> {
+                if (attempt == attempts.get()
+                        && (forwarding.get() == attempt || forwarding.compareAndSet(0, attempt))) {
+                    partials.accept(piece);
+                }
+            });
+        });
+
+        if (streamed.invalid() != null) {
+            metrics.recordParseFailure();
+            log.debug("AI stream cancelled: {}", streamed.invalid());
+            throw new IllegalStateException("AI returned invalid JSON: " + streamed.invalid());
+        }
+        metrics.recordResponseSize(streamed.json().length());
+        return streamed.json();
+    }
+
+    private String prompt(JsonNode schema) throws Exception {
+        String schemaStr = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(schema);
+
+        return """
+                Generate a realistic JSON object that matches this OpenAPI schema.
+                Return ONLY valid JSON with no markdown formatting, no explanation.
+                
+                Schema:
+                %s
+                
+                Requirements:
+                - All required fields must be present
+                - Use realistic, varied sample data (real names, age, emails, addresses, etc.)
+                - Follow any format constraints (email, date-time, uuid, etc.)
+                - Respect min/max constraints for numbers
+                - If there are enums, pick random valid values
+                - Make nested objects and arrays realistic
+                - Output ONLY the JSON object, nothing else
+                """.formatted(schemaStr);
+    }
+
+    private ChatResponse timedCall(String promptText) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            ChatResponse response = chatClient.prompt()
+                    .user(promptText)
+                    .call()
+                    .chatResponse();
+            success = true;
+            return response;
+        } finally {
+            metrics.recordAttempt(Duration.ofNanos(System.nanoTime() - start), success);
+        }
+    }
+
+    private Streamed timedStream(String promptText, Consumer<String> partials) {
+        long start = System.nanoTime();
+        boolean success = false;
+        StreamingJsonExtractor extractor =
+                new StreamingJsonExtractor(objectMapper.getFactory(), maxStreamedBytes, partials);
+        AtomicReference<ChatResponse> withUsage = new AtomicReference<>();
+        try {
+            chatClient.prompt()
+                    .user(promptText)
+                    .stream()
+                    .chatResponse()
+                    .doOnNext(response -> {
+                        if (response.getMetadata() != null && response.getMetadata().getUsage() != null) {
+                            withUsage.set(response);
+                        }
+                    })
+                    .map(AiRequestBodyGeneratorService::text)
+                    .takeUntil(extractor::feed)
+                    .blockLast();
+            success = true;
+            return new Streamed(extractor.result(), null);
+        } catch (StreamingJsonExtractor.InvalidOutputException e) {
+            success = true; // the model answered; the answer is unusable
+            return new Streamed(null, e.getMessage());
+        } finally {
+            metrics.recordAttempt(Duration.ofNanos(System.nanoTime() - start), success);
+            if (withUsage.get() != null) recordUsage(withUsage.get());
+        }
+    }
+
+    private static String text(ChatResponse response) {
+        Generation result = response.getResult();
+        if (result == null || result.getOutput() == null) return "";
+        String text = result.getOutput().getText();
+        return text != null ? text : "";
+    }
+
+    private record Streamed(String json, String invalid) {}
+
+    private void recordUsage(ChatResponse response) {
+        if (response.getMetadata() == null) return;
+        Usage usage = response.getMetadata().getUsage();
+        if (usage == null) return;
+        long promptTokens = usage.getPromptTokens() != null ? usage.getPromptTokens() : 0;
+        long completionTokens = usage.getCompletionTokens() != null ? usage.getCompletionTokens() : 0;
+        if (promptTokens > 0 || completionTokens > 0) {
+            metrics.recordTokenUsage(promptTokens, completionTokens);
+        }
+    }
+
     private String extractJson(String raw) {
         if (raw == null || raw.isBlank()) {
             throw new IllegalArgumentException("Empty AI response");
@@ -128,90 +351,4 @@ public class AiRequestBodyGeneratorService {
 
         return json.substring(0, end + 1).trim();
     }
-
-    private String generateRandomBody(JsonNode schema) {
-        try {
-            Object generated = generateFromSchema(schema);
-            return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(generated);
-        } catch (Exception e) {
-            return "{}";
-        }
-    }
-
-    private Object generateFromSchema(JsonNode schema) {
-        if (schema == null || schema.isNull()) return null;
-
-        // Handle $ref - this won't work without the full spec, so return placeholder
-        if (schema.has("$ref")) {
-            return Map.of("error", "Schema references not yet resolved. Pass resolved schema.");
-        }
-
-        // Handle enum
-        if (schema.has("enum")) {
-            JsonNode enumNode = schema.get("enum");
-            int index = new Random().nextInt(enumNode.size());
-            return enumNode.get(index).asText();
-        }
-
-        String type = schema.has("type") ? schema.get("type").asText() : "object";
-
-        switch (type.toLowerCase()) {
-            case "string":
-                String format = schema.has("format") ? schema.get("format").asText() : null;
-                return generateRandomString(format);
-
-            case "integer":
-                int min = schema.has("minimum") ? schema.get("minimum").asInt() : 1;
-                int max = schema.has("maximum") ? schema.get("maximum").asInt() : 1000;
-                return min + new Random().nextInt(max - min + 1);
-
-            case "number":
-                double minD = schema.has("minimum") ? schema.get("minimum").asDouble() : 1.0;
-                double maxD = schema.has("maximum") ? schema.get("maximum").asDouble() : 1000.0;
-                return Math.round((minD + Math.random() * (maxD - minD)) * 100.0) / 100.0;
-
-            case "boolean":
-                return new Random().nextBoolean();
-
-            case "array":
-                int count = schema.has("minItems") ? schema.get("minItems").asInt() : 1;
-                JsonNode items = schema.get("items");
-                List<Object> array = new ArrayList<>();
-                for (int i = 0; i < count; i++) {
-                    array.add(generateFromSchema(items));
-                }
-                return array;
-
-            case "object":
-            default:
-                Map<String, Object> obj = new HashMap<>();
-
-                if (schema.has("properties")) {
-                    JsonNode properties = schema.get("properties");
-
-                    properties.properties().forEach(entry ->
-                            obj.put(entry.getKey(), generateFromSchema(entry.getValue())));
-                }
-                return obj;
-        }
-    }
-
-    private String generateRandomString(String format) {
-        Random rand = new Random();
-        if (format == null) {
-            return "string_" + rand.nextInt(1000);
-        }
-
-        return switch (format) {
-            case "date" -> java.time.LocalDate.now().minusDays(rand.nextInt(365)).toString();
-            case "date-time" -> java.time.ZonedDateTime.now().minusDays(rand.nextInt(365)).toString();
-            case "email" -> {
-                String[] emails = {"alice@example.com", "bob@test.org", "charlie@mail.io"};
-                yield emails[rand.nextInt(emails.length)];
-            }
-            case "uuid" -> UUID.randomUUID().toString();
-            case "uri" -> "https://example.com/" + UUID.randomUUID().toString().substring(0, 8);
-            default -> "value_" + rand.nextInt(1000);
-        };
-    }
-}
\ No newline at end of file
+}
@@ -2,33 +2,110 @@ package io.github.rexrk.swagger.helper.request;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.github.rexrk.swagger.helper.AiSwaggerHelperProperties;
+import io.github.rexrk.swagger.helper.generator.BodyGenerator;
+import io.github.rexrk.swagger.helper.generator.RandomBodyGenerator;
+import io.github.rexrk.swagger.helper.generator.SeededRandom;
+import io.github.rexrk.swagger.helper.schema.OpenApiSchemaResolver;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
 
-public class AiSwaggerHelperController {
+public class AiSwaggerHelperController implements AutoCloseable {
 
     private static final Logger log =
             LoggerFactory.getLogger(AiSwaggerHelperController.class);
 
     private final AiRequestBodyGeneratorService generatorService;
     private final ObjectMapper objectMapper;
+    private final OpenApiSchemaResolver schemaResolver;
+    private final RandomBodyGenerator randomBodyGenerator;
+    private final long maxBulkCount;
+    private final int maxAiSamples;
+    private final Duration deadline;
+    private final ThreadPoolExecutor modelExecutor;
+    private final ExecutorService replyExecutor;
+    private final Long defaultSeed;
+    private final Instant baseTime;
 
+    /** Writes a generated NDJSON corpus; produced before the response is committed so bad input is a 400. */
+    @FunctionalInterface
+    public interface BodyStream {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /** Receives a streamed generation: zero or more partial pieces, then exactly one final response. */
+    public interface BodyEvents {
+        void partial(String piece);
+
+        void body(Map<String, Object> response);
+    }
+
+    /**
+     * @param schemaResolver resolves {@code operationId} requests; {@code null} accepts inline schemas only
+     */
     public AiSwaggerHelperController(AiRequestBodyGeneratorService generatorService,
-                                     ObjectMapper objectMapper) {
+                                     ObjectMapper objectMapper,
+                                     OpenApiSchemaResolver schemaResolver,
+                                     RandomBodyGenerator randomBodyGenerator,
+                                     AiSwaggerHelperProperties properties) {
+        AiSwaggerHelperProperties.Async async = properties.getAsync();
+        AiSwaggerHelperProperties.Deterministic deterministic = properties.getDeterministic();
         this.generatorService = generatorService;
         this.objectMapper = objectMapper;
+        this.schemaResolver = schemaResolver;
+        this.randomBodyGenerator = randomBodyGenerator;
+        this.maxBulkCount = properties.getBulk().getMaxCount();
+        this.maxAiSamples = properties.getBulk().getMaxAiSamples();
+        this.deadline = async.getDeadline();
+        this.modelExecutor = new ThreadPoolExecutor(async.getMaxConcurrency(), async.getMaxConcurrency(),
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(Math.max(1, async.getQueueCapacity())),
+                Thread.ofVirtual().name("swagger-body-", 0).factory());
+        this.modelExecutor.allowCoreThreadTimeOut(true);
+        // fallbacks and replies run here, not on the JDK's shared timeout thread or the bounded model pool
+        this.replyExecutor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("swagger-reply-", 0).factory());
+        // a configured seed makes every body deterministic and local
+        this.defaultSeed = deterministic.isEnabled() ? deterministic.getSeed() : null;
+        this.baseTime = deterministic.getBaseTime();
     }
 
     public Map<String, Object> generateBody(Map<String, Object> request) {
-        Object schemaObj = request.get("schema");
-        if (schemaObj == null) {
-            throw new IllegalArgumentException("Missing 'schema' in request");
-        }
+        return generateBody(request, null);
+    }
 
-        JsonNode schema = objectMapper.valueToTree(schemaObj);
-        String generated = generatorService.generateBody(schema);
+    /**
+     * Accepts {@code operationId}, a {@code $ref} to a component schema, or an
+     * inline {@code schema}; references are resolved against the application's
+     * OpenAPI document when springdoc's api-docs endpoint is available. A
+     * {@code seed} makes the body deterministic and skips the model.
+     */
+    public Map<String, Object> generateBody(Map<String, Object> request, HttpServletRequest servletRequest) {
+        JsonNode schema = schema(request, servletRequest);
+        SeededRandom seeded = seeded(request);
+        String generated = seeded != null
+                ? randomBodyGenerator.generate(schema, seeded)
+                : generatorService.generateBody(schema);
 
         log.info("Request body generated successfully");
 
@@ -37,4 +114,193 @@ public class AiSwaggerHelperController {
                 "body", generated
         );
     }
+
+    /**
+     * Like {@link #generateBody(Map, HttpServletRequest)}, but model calls run on
+     * a bounded executor instead of the caller's thread. A local body is
+     * returned when the executor is saturated or the model misses the deadline;
+     * a late AI result still lands in the body pool for the next click.
+     * Invalid requests fail immediately with {@link IllegalArgumentException}.
+     */
+    public CompletableFuture<Map<String, Object>> generateBodyAsync(Map<String, Object> request,
+                                                                    HttpServletRequest servletRequest) {
+        JsonNode schema = schema(request, servletRequest);
+        SeededRandom seeded = seeded(request);
+        if (seeded != null) {
+            return CompletableFuture.completedFuture(success(randomBodyGenerator.generate(schema, seeded)));
+        }
+        if (!generatorService.usesModel(schema)) {
+            return CompletableFuture.completedFuture(success(generatorService.generateRandomBody(schema)));
+        }
+
+        CompletableFuture<String> generated;
+        try {
+            generated = CompletableFuture.supplyAsync(() -> generatorService.generateBody(schema), modelExecutor);
+        } catch (RejectedExecutionException e) {
+            log.info("AI generation queue is full, returning a local body");
+            return CompletableFuture.completedFuture(success(generatorService.generateRandomBody(schema)));
+        }
+
+        return generated
+                .orTimeout(deadline.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionallyAsync(e -> {
+                    log.info("AI generation missed the {} ms deadline, returning a local body", deadline.toMillis());
+                    return generatorService.generateRandomBody(schema);
+                }, replyExecutor)
+                .thenApplyAsync(this::success, replyExecutor);
+    }
+
+    /**
+     * Like {@link #generateBodyAsync}, but pushes the body to {@code events}
+     * piece by piece while the model writes it (in streaming mode), then the
+     * final response. At the deadline a local body is sent and later pieces
+     * are dropped. Invalid requests fail immediately with
+     * {@link IllegalArgumentException}.
+     */
+    public Consumer<BodyEvents> streamBody(Map<String, Object> request, HttpServletRequest servletRequest) {
+        JsonNode schema = schema(request, servletRequest);
+        SeededRandom seeded = seeded(request);
+        return events -> {
+            if (seeded != null) {
+                events.body(success(randomBodyGenerator.generate(schema, seeded)));
+                return;
+            }
+            if (!generatorService.usesModel(schema)) {
+                events.body(success(generatorService.generateRandomBody(schema)));
+                return;
+            }
+
+            // completed once, by the model or the deadline; pieces and the body are sent under its lock
+            CompletableFuture<Map<String, Object>> response = new CompletableFuture<>();
+            Consumer<String> partials = piece -> {
+                synchronized (response) {
+                    if (!response.isDone()) events.partial(piece);
+                }
+            };
+            CompletableFuture<String> generated;
+            try {
+                generated = CompletableFuture.supplyAsync(
+                        () -> generatorService.generateBody(schema, partials), modelExecutor);
+            } catch (RejectedExecutionException e) {
+                log.info("AI generation queue is full, returning a local body");
+                events.body(success(generatorService.generateRandomBody(schema)));
+                return;
+            }
+
+            generated
+                    .orTimeout(deadline.toMillis(), TimeUnit.MILLISECONDS)
+                    .exceptionallyAsync(e -> {
+                        log.info("AI generation missed the {} ms deadline, returning a local body", deadline.toMillis());
+                        return generatorService.generateRandomBody(schema);
+                    }, replyExecutor)
+                    .thenAcceptAsync(body -> {
+                        synchronized (response) {
+                            if (response.complete(success(body))) events.body(response.join());
+                        }
+                    }, replyExecutor);
+        };
+    }
+
+    @Override
+    public void close() {
+        modelExecutor.shutdownNow();
+        replyExecutor.shutdown();
+    }
+
+    private Map<String, Object> success(String body) {
+        return Map.of(
+                "success", true,
+                "body", body
+        );
+    }
+
+    /**
+     * Streams {@code count} locally generated bodies, one compact JSON document
+     * per line. {@code seed} makes the corpus repeatable; {@code aiSamples}
+     * first asks the model for that many bodies whose text values are mixed
+     * into the generated ones (and makes a seeded corpus depend on the model).
+     * Writing blocks on the client, so a slow reader throttles generation and
+     * memory stays at one generator buffer.
+     */
+    public BodyStream bulkBodies(Map<String, Object> request, HttpServletRequest servletRequest) {
+        long count = number(request, "count", -1);
+        if (count < 1 || count > maxBulkCount) {
+            throw new IllegalArgumentException("'count' must be between 1 and " + maxBulkCount);
+        }
+        long aiSamples = number(request, "aiSamples", 0);
+        if (aiSamples < 0 || aiSamples > maxAiSamples) {
+            throw new IllegalArgumentException("'aiSamples' must be between 0 and " + maxAiSamples);
+        }
+        // seeded bodies each derive their own randomness, so body i does not depend on bodies before it
+        SeededRandom seeded = seeded(request);
+        RandomGenerator random = new SplittableRandom();
+
+        JsonNode schema = schema(request, servletRequest);
+        List<JsonNode> samples = aiSamples > 0 ? samples(schema, (int) aiSamples) : List.of();
+        BodyGenerator generator = randomBodyGenerator.compile(schema, samples);
+        log.info("Streaming {} generated bodies ({} AI samples)", count, samples.size());
+
+        return out -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                json.setRootValueSeparator(null);
+                for (long i = 0; i < count; i++) {
+                    generator.write(json, seeded != null ? seeded.forBody(i) : random);
+                    json.writeRaw('\n');
+                }
+            }
+        };
+    }
+
+    /** AI samples for a bulk corpus, fetched on the model executor; none when it is full or misses the deadline. */
+    private List<JsonNode> samples(JsonNode schema, int count) {
+        try {
+            return CompletableFuture.supplyAsync(() -> generatorService.generateSamples(schema, count), modelExecutor)
+                    .get(deadline.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException | ExecutionException | TimeoutException e) {
+            log.info("AI samples unavailable (busy or past the {} ms deadline), generating without them",
+                    deadline.toMillis());
+            return List.of();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return List.of();
+        }
+    }
+
+    private static long number(Map<String, Object> request, String name, long defaultValue) {
+        Object value = request.get(name);
+        if (value == null) return defaultValue;
+        if (value instanceof Number n) return n.longValue();
+        try {
+            return Long.parseLong(value.toString());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("'" + name + "' must be a number");
+        }
+    }
+
+    private SeededRandom seeded(Map<String, Object> request) {
+        if (request.get("seed") != null) return new SeededRandom(number(request, "seed", 0), baseTime);
+        return defaultSeed != null ? new SeededRandom(defaultSeed, baseTime) : null;
+    }
+
+    private JsonNode schema(Map<String, Object> request, HttpServletRequest servletRequest) {
+        Object operationId = request.get("operationId");
+        Object ref = request.get("$ref");
+        Object schemaObj = request.get("schema");
+
+        if (operationId != null || ref != null) {
+            if (schemaResolver == null) {
+                throw new IllegalArgumentException("'operationId' and '$ref' require springdoc api-docs; send 'schema'");
+            }
+            return operationId != null
+                    ? schemaResolver.resolveOperation(operationId.toString(), servletRequest)
+                    : schemaResolver.resolveRef(ref.toString(), servletRequest);
+        }
+        if (schemaObj == null) {
+            throw new IllegalArgumentException("Missing 'schema', '$ref' or 'operationId' in request");
+        }
+
+        JsonNode schema = objectMapper.valueToTree(schemaObj);
+        return schemaResolver != null ? schemaResolver.resolveSchema(schema, servletRequest) : schema;
+    }
 }
@@ -0,0 +1,125 @@
+package io.github.rexrk.swagger.helper.request;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Pulls the first JSON object or array out of a model's token stream as it
+ * arrives, using Jackson's non-blocking parser.
+ * <p>
+ * Text before the first bracket (prose, a markdown fence) is skipped and
+ * anything after the closing bracket is ignored. Output is rejected with
+ * {@link InvalidOutputException} at the first token that cannot be JSON or
+ * once it passes {@code maxBytes}, so the caller can cancel the stream
+ * instead of paying for the rest of the generation. Not thread-safe; one
+ * instance per stream.
+ */
+final class StreamingJsonExtractor {
+
+    /** The stream cannot yield a valid body. */
+    static final class InvalidOutputException extends RuntimeException {
+        InvalidOutputException(String message) {
+            super(message);
+        }
+    }
+
+    private final int maxBytes;
+    private final Consumer<String> partials;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final ByteArrayOutputStream json = new ByteArrayOutputStream(1024);
+
+    private long skipped;
+    private boolean started;
+    private int depth;
+    private boolean complete;
+
+    /**
+     * @param partials receives each piece of the document as it is parsed; may be {@code null}
+     */
+    StreamingJsonExtractor(JsonFactory factory, int maxBytes, Consumer<String> partials) {
+        this.maxBytes = maxBytes;
+        this.partials = partials;
+        try {
+            this.parser = factory.createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /** Feeds the next chunk of model output; returns {@code true} once the document is complete. */
+    boolean feed(String chunk) {
+        if (complete) return true;
+        if (chunk == null || chunk.isEmpty()) return false;
+
+        String text = chunk;
+        if (!started) {
+            int start = firstBracket(chunk);
+            if (start < 0) {
+                skipped += chunk.length();
+                if (skipped > maxBytes) throw new InvalidOutputException("no JSON within " + maxBytes + " bytes");
+                return false;
+            }
+            started = true;
+            text = chunk.substring(start);
+        }
+
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        int before = json.size();
+        if (before + bytes.length > maxBytes) {
+            throw new InvalidOutputException("output exceeded " + maxBytes + " bytes");
+        }
+        json.write(bytes, 0, bytes.length);
+
+        int used = bytes.length;
+        try {
+            feeder.feedInput(bytes, 0, bytes.length);
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                if (token.isStructStart()) {
+                    depth++;
+                } else if (token.isStructEnd() && --depth == 0) {
+                    complete = true;
+                    used = (int) parser.currentLocation().getByteOffset() - before;
+                    break;
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new InvalidOutputException(e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (partials != null && used > 0) {
+            partials.accept(new String(bytes, 0, used, StandardCharsets.UTF_8));
+        }
+        return complete;
+    }
+
+    /** The complete document; fails if the stream ended before it closed. */
+    String result() {
+        if (!complete) {
+            throw new InvalidOutputException(started ? "output ended inside the JSON" : "no JSON in output");
+        }
+        return new String(json.toByteArray(), 0, (int) parser.currentLocation().getByteOffset(),
+                StandardCharsets.UTF_8);
+    }
+
+    private static int firstBracket(String text) {
+        int object = text.indexOf('{');
+        int array = text.indexOf('[');
+        if (object < 0) return array;
+        if (array < 0) return object;
+        return Math.min(object, array);
+    }
+}
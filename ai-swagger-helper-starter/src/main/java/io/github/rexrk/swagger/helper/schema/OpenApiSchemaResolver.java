@@ -0,0 +1,242 @@
+package io.github.rexrk.swagger.helper.schema;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves {@code $ref}s in request-body schemas against the application's
+ * own OpenAPI document, so the Swagger plugin can send a reference or an
+ * operation id instead of walking the spec in the browser.
+ * <p>
+ * The document is loaded once from springdoc and every resolved component is
+ * memoized until the source reports a new {@link DocumentSource#version}, so a
+ * rebuilt springdoc model is picked up with its memos. Keywords next to a
+ * {@code $ref} (such as {@code description} or {@code nullable}) are merged
+ * over the referenced schema. Recursive models are cut at the first repeated
+ * reference with a plain {@code {"type":"object"}}; a component whose
+ * expansion was cut at one of its callers depends on that context and is not
+ * memoized. Callers get their own copy of every returned schema.
+ */
+public class OpenApiSchemaResolver {
+
+    /** Loads the OpenAPI document as JSON; springdoc needs the request for server URLs, which is {@code null} outside a request. */
+    @FunctionalInterface
+    public interface DocumentSource {
+        byte[] load(HttpServletRequest request) throws Exception;
+
+        /**
+         * Identifies the document the next {@link #load} would return; a different
+         * object (by identity) drops everything derived from the previous one.
+         * {@code null} means the document never changes.
+         */
+        default Object version(HttpServletRequest request) {
+            return null;
+        }
+    }
+
+    private record Snapshot(Object version, JsonNode document,
+                            Map<String, JsonNode> components, Map<String, JsonNode> operations) {}
+
+    private static final String LOCAL_PREFIX = "#/";
+
+    private final DocumentSource source;
+    private final ObjectMapper objectMapper;
+    private volatile Snapshot snapshot;
+
+    public OpenApiSchemaResolver(DocumentSource source, ObjectMapper objectMapper) {
+        this.source = source;
+        this.objectMapper = objectMapper;
+    }
+
+    /** The fully resolved schema behind a local reference such as {@code #/components/schemas/Pet}. */
+    public JsonNode resolveRef(String ref, HttpServletRequest request) {
+        return resolveComponent(snapshot(request), ref, new ArrayDeque<>(), new HashSet<>()).deepCopy();
+    }
+
+    /** The fully resolved JSON request-body schema of the operation with {@code operationId}. */
+    public JsonNode resolveOperation(String operationId, HttpServletRequest request) {
+        Snapshot snap = snapshot(request);
+        JsonNode cached = snap.operations().get(operationId);
+        if (cached != null) return cached.deepCopy();
+
+        JsonNode doc = snap.document();
+        JsonNode operation = findOperation(doc, operationId);
+        if (operation == null) {
+            throw new IllegalArgumentException("Unknown operationId: " + operationId);
+        }
+
+        JsonNode requestBody = operation.path("requestBody");
+        if (requestBody.has("$ref")) {
+            requestBody = pointer(doc, requestBody.get("$ref").asText());
+        }
+        JsonNode schema = jsonSchema(requestBody.path("content"));
+        if (schema == null) {
+            throw new IllegalArgumentException("Operation " + operationId + " has no JSON request body");
+        }
+
+        JsonNode resolved = resolve(snap, schema, new ArrayDeque<>(), new HashSet<>());
+        snap.operations().put(operationId, resolved);
+        return resolved.deepCopy();
+    }
+
+    /** Ids of every operation with a JSON request body, in document order. */
+    public List<String> requestBodyOperations(HttpServletRequest request) {
+        JsonNode doc = snapshot(request).document();
+        List<String> ids = new ArrayList<>();
+        for (JsonNode pathItem : doc.path("paths")) {
+            for (JsonNode operation : pathItem) {
+                String id = operation.path("operationId").asText(null);
+                JsonNode requestBody = operation.path("requestBody");
+                if (requestBody.has("$ref")) {
+                    requestBody = pointer(doc, requestBody.get("$ref").asText());
+                }
+                if (id != null && jsonSchema(requestBody.path("content")) != null) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids;
+    }
+
+    /** Resolves any references nested in a schema the caller already has. */
+    public JsonNode resolveSchema(JsonNode schema, HttpServletRequest request) {
+        if (!hasRef(schema)) return schema;
+        return resolve(snapshot(request), schema, new ArrayDeque<>(), new HashSet<>()).deepCopy();
+    }
+
+    /** Drops the loaded document and every memoized schema, e.g. after a live reload. */
+    public void invalidate() {
+        snapshot = null;
+    }
+
+    private Snapshot snapshot(HttpServletRequest request) {
+        Snapshot current = snapshot;
+        if (current != null && current.version() == source.version(request)) return current;
+        synchronized (this) {
+            current = snapshot;
+            if (current != null && current.version() == source.version(request)) return current;
+            try {
+                JsonNode document = objectMapper.readTree(source.load(request));
+                // Read after loading: the load itself may build the version (springdoc's cached model)
+                current = new Snapshot(source.version(request), document,
+                        new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to load OpenAPI document: " + e.getMessage(), e);
+            }
+            snapshot = current;
+            return current;
+        }
+    }
+
+    /**
+     * @param stack     references currently being expanded, innermost last
+     * @param openCuts  collects references that were cut because they are on {@code stack}
+     */
+    private JsonNode resolve(Snapshot snap, JsonNode node, Deque<String> stack, Set<String> openCuts) {
+        if (node.isObject()) {
+            JsonNode ref = node.get("$ref");
+            if (ref != null && ref.isTextual()) {
+                JsonNode target = resolveComponent(snap, ref.asText(), stack, openCuts);
+                if (node.size() == 1) return target;
+                // Siblings refine the target; merge into a copy so the memoized component stays intact
+                ObjectNode merged = target.isObject()
+                        ? (ObjectNode) target.deepCopy()
+                        : JsonNodeFactory.instance.objectNode();
+                for (Map.Entry<String, JsonNode> property : node.properties()) {
+                    if (!"$ref".equals(property.getKey())) {
+                        merged.set(property.getKey(), resolve(snap, property.getValue(), stack, openCuts));
+                    }
+                }
+                return merged;
+            }
+            ObjectNode copy = JsonNodeFactory.instance.objectNode();
+            for (Map.Entry<String, JsonNode> property : node.properties()) {
+                copy.set(property.getKey(), resolve(snap, property.getValue(), stack, openCuts));
+            }
+            return copy;
+        }
+        if (node.isArray()) {
+            ArrayNode copy = JsonNodeFactory.instance.arrayNode(node.size());
+            for (JsonNode element : node) {
+                copy.add(resolve(snap, element, stack, openCuts));
+            }
+            return copy;
+        }
+        return node;
+    }
+
+    private JsonNode resolveComponent(Snapshot snap, String ref, Deque<String> stack, Set<String> openCuts) {
+        JsonNode cached = snap.components().get(ref);
+        if (cached != null) return cached;
+
+        if (stack.contains(ref)) {
+            openCuts.add(ref);
+            return JsonNodeFactory.instance.objectNode().put("type", "object");
+        }
+
+        stack.addLast(ref);
+        Set<String> cuts = new HashSet<>();
+        JsonNode resolved = resolve(snap, pointer(snap.document(), ref), stack, cuts);
+        stack.removeLast();
+
+        cuts.remove(ref);
+        if (cuts.isEmpty()) {
+            snap.components().put(ref, resolved);
+        } else {
+            openCuts.addAll(cuts);
+        }
+        return resolved;
+    }
+
+    private static JsonNode pointer(JsonNode doc, String ref) {
+        if (!ref.startsWith(LOCAL_PREFIX)) {
+            throw new IllegalArgumentException("Only local references are supported: " + ref);
+        }
+        JsonNode target = doc.at(ref.substring(1));
+        if (target.isMissingNode()) {
+            throw new IllegalArgumentException("Unresolvable reference: " + ref);
+        }
+        return target;
+    }
+
+    private static JsonNode findOperation(JsonNode doc, String operationId) {
+        for (JsonNode pathItem : doc.path("paths")) {
+            for (JsonNode operation : pathItem) {
+                if (operationId.equals(operation.path("operationId").asText(null))) {
+                    return operation;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static JsonNode jsonSchema(JsonNode content) {
+        for (Map.Entry<String, JsonNode> mediaType : content.properties()) {
+            if (mediaType.getKey().contains("json") && mediaType.getValue().has("schema")) {
+                return mediaType.getValue().get("schema");
+            }
+        }
+        return null;
+    }
+
+    private static boolean hasRef(JsonNode node) {
+        if (node.isObject() && node.has("$ref")) return true;
+        for (JsonNode child : node) {
+            if (hasRef(child)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,78 @@
+package io.github.rexrk.swagger.helper.schema;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springdoc.api.AbstractOpenApiResource;
+import org.springdoc.core.providers.ObjectMapperProvider;
+import org.springdoc.core.service.OpenAPIService;
+import org.springdoc.webmvc.api.OpenApiResource;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Reads the OpenAPI document from springdoc's model in-process, so it needs
+ * no request and is unaffected by TLS, security on the api-docs path or the
+ * server address. The document is always read in the default locale, not the
+ * caller's: the resolver keeps a single snapshot, and per-request locales
+ * would make each Accept-Language a new version. The version is springdoc's
+ * cached model, so the document is reloaded whenever springdoc rebuilds it.
+ * <p>
+ * The springdoc beans are looked up on first use, since they may be defined
+ * after ours.
+ */
+public class SpringDocDocumentSource implements OpenApiSchemaResolver.DocumentSource {
+
+    private static final Logger log = LoggerFactory.getLogger(SpringDocDocumentSource.class);
+
+    // The model behind the api-docs endpoint; springdoc has no public accessor for it
+    private static final Method GET_OPEN_API = findGetOpenApi();
+
+    private final Supplier<OpenApiResource> openApiResource;
+    private final Supplier<OpenAPIService> openApiService;
+    private final Supplier<ObjectMapperProvider> objectMapperProvider;
+    private final Locale locale = Locale.getDefault();
+
+    public SpringDocDocumentSource(Supplier<OpenApiResource> openApiResource,
+                                   Supplier<OpenAPIService> openApiService,
+                                   Supplier<ObjectMapperProvider> objectMapperProvider) {
+        this.openApiResource = openApiResource;
+        this.openApiService = openApiService;
+        this.objectMapperProvider = objectMapperProvider;
+    }
+
+    @Override
+    public byte[] load(HttpServletRequest request) throws Exception {
+        OpenApiResource resource = openApiResource.get();
+        ObjectMapperProvider mappers = objectMapperProvider.get();
+        if (GET_OPEN_API == null) {
+            throw new IllegalStateException("this springdoc version has no AbstractOpenApiResource.getOpenApi(Locale)");
+        }
+        if (resource == null || mappers == null) {
+            throw new IllegalStateException("springdoc api-docs endpoint is not available");
+        }
+        OpenAPI openApi = (OpenAPI) ReflectionUtils.invokeMethod(GET_OPEN_API, resource, locale);
+        return mappers.jsonMapper().writerFor(OpenAPI.class).writeValueAsBytes(openApi);
+    }
+
+    @Override
+    public Object version(HttpServletRequest request) {
+        OpenAPIService service = openApiService.get();
+        return service != null ? service.getCachedOpenAPI(locale) : null;
+    }
+
+    private static Method findGetOpenApi() {
+        Method method = ReflectionUtils.findMethod(AbstractOpenApiResource.class, "getOpenApi", Locale.class);
+        if (method == null) {
+            log.warn("springdoc's AbstractOpenApiResource.getOpenApi(Locale) was not found; "
+                    + "operationId and $ref lookups are unavailable with this springdoc version");
+            return null;
+        }
+        ReflectionUtils.makeAccessible(method);
+        return method;
+    }
+}
@@ -0,0 +1,198 @@
+package io.github.rexrk.swagger.helper.ui;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springdoc.core.properties.SwaggerUiConfigProperties;
+import org.springdoc.core.properties.SwaggerUiOAuthProperties;
+import org.springdoc.core.providers.ObjectMapperProvider;
+import org.springdoc.webmvc.ui.SwaggerIndexPageTransformer;
+import org.springdoc.webmvc.ui.SwaggerWelcomeCommon;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceTransformerChain;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+import org.springframework.web.servlet.resource.TransformedResource;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Injects the request body plugin into the Swagger UI page and registers it in
+ * {@code swagger-initializer.js}.
+ * <p>
+ * The transformed bytes are cached per source resource and per request base
+ * (scheme, host and context path, which springdoc bakes into the initializer),
+ * and rebuilt when the source's last-modified time or length changes. Each
+ * entry carries a strong ETag and a gzipped copy: clients that accept gzip get
+ * the compressed bytes, and a matching {@code If-None-Match} is answered with
+ * an empty 304. The ETag is checked here rather than through the resource
+ * handler, whose ETag generator belongs to springdoc and is left alone. The
+ * plugin script itself is referenced through its content-hashed URL so it can
+ * be cached for a year.
+ */
+public class AiSwaggerIndexTransformer extends SwaggerIndexPageTransformer {
+
+    public static final String PLUGIN_PATH = "/devtools/ai/assets/ai-generate-body-plugin.js";
+
+    private static final String INDEX = "index.html";
+    private static final String INITIALIZER = "swagger-initializer.js";
+    private static final int MAX_ENTRIES = 32;
+
+    private final Supplier<ResourceUrlProvider> urlProvider;
+    private final Map<String, Page> pages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Page> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    public AiSwaggerIndexTransformer(SwaggerUiConfigProperties swaggerUiConfig,
+                                     SwaggerUiOAuthProperties swaggerUiOAuthProperties,
+                                     SwaggerWelcomeCommon swaggerWelcomeCommon,
+                                     ObjectMapperProvider objectMapperProvider,
+                                     Supplier<ResourceUrlProvider> urlProvider) {
+        super(swaggerUiConfig, swaggerUiOAuthProperties, swaggerWelcomeCommon, objectMapperProvider);
+        this.urlProvider = urlProvider;
+    }
+
+    @Override
+    public Resource transform(HttpServletRequest request, Resource resource,
+                              ResourceTransformerChain chain) throws IOException {
+        String filename = resource.getFilename();
+        if (!INDEX.equals(filename) && !INITIALIZER.equals(filename)) {
+            return super.transform(request, resource, chain);
+        }
+
+        String key = resource.getURL() + "|" + resource.lastModified() + "|" + resource.contentLength()
+                + "|" + ServletUriComponentsBuilder.fromContextPath(request).toUriString()
+                + "|" + request.getHeader("X-Forwarded-Prefix");
+        Page page;
+        synchronized (pages) {
+            page = pages.get(key);
+        }
+        if (page == null) {
+            page = render(request, resource, chain, filename);
+            synchronized (pages) {
+                pages.put(key, page);
+            }
+        }
+        boolean gzipped = acceptsGzip(request) && page.gzipped().length < page.bytes().length;
+        String etag = gzipped ? page.etag() + "-gz" : page.etag();
+        if (notModified(request, etag)) {
+            return new CachedResource(resource, new byte[0], etag, false);
+        }
+        return new CachedResource(resource, gzipped ? page.gzipped() : page.bytes(), etag, gzipped);
+    }
+
+    public int cachedPages() {
+        synchronized (pages) {
+            return pages.size();
+        }
+    }
+
+    private Page render(HttpServletRequest request, Resource resource, ResourceTransformerChain chain,
+                        String filename) throws IOException {
+        Resource transformed = super.transform(request, resource, chain);
+        String text = new String(transformed.getContentAsByteArray(), StandardCharsets.UTF_8);
+
+        if (INDEX.equals(filename)) {
+            // Inject plugin script BEFORE swagger-ui-bundle.js
+            String pluginScript = "<script src=\"" + request.getContextPath() + pluginUrl() + "\"></script>\n";
+            text = text.replace("<script src=\"./swagger-ui-bundle.js\"",
+                    pluginScript + "    <script src=\"./swagger-ui-bundle.js\"");
+        } else if (text.contains("plugins:")) {
+            text = text.replaceFirst(
+                    "(plugins:\\s*\\[)",
+                    "$1\n window.AiGenerateBodyPlugin,"
+            );
+        } else {
+            // If no plugins array exists, add it before layout
+            text = text.replaceFirst(
+                    "(layout:)",
+                    "plugins: [window.AiGenerateBodyPlugin],\n    $1"
+            );
+        }
+
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        return new Page(bytes, gzip(bytes), etag(bytes));
+    }
+
+    private String pluginUrl() {
+        ResourceUrlProvider provider = urlProvider.get();
+        String versioned = provider != null ? provider.getForLookupPath(PLUGIN_PATH) : null;
+        return versioned != null ? versioned : PLUGIN_PATH;
+    }
+
+    /** Marks the current response 304 when {@code If-None-Match} matches. */
+    private static boolean notModified(HttpServletRequest request, String etag) {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)
+                || attributes.getResponse() == null) {
+            return false;
+        }
+        return new ServletWebRequest(request, attributes.getResponse()).checkNotModified("\"" + etag + "\"");
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (accept == null) return false;
+        for (String coding : accept.split(",")) {
+            String[] parts = coding.split(";");
+            if (parts[0].strip().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 3 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static String etag(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Page(byte[] bytes, byte[] gzipped, String etag) {}
+
+    private static final class CachedResource extends TransformedResource implements HttpResource {
+
+        private final String etag;
+        private final boolean gzipped;
+
+        private CachedResource(Resource original, byte[] bytes, String etag, boolean gzipped) {
+            super(original, bytes);
+            this.etag = "\"" + etag + "\"";
+            this.gzipped = gzipped;
+        }
+
+        @Override
+        public HttpHeaders getResponseHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setETag(etag);
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (gzipped) headers.add(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return headers;
+        }
+    }
+}
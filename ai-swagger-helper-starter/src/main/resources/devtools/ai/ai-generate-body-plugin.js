@@ -12,34 +12,36 @@ const AiGenerateBodyPlugin = (system) => {
 
     console.log("✅ AiGenerateBodyPlugin initializing");
 
-    // Resolve $ref in schema
-    function resolveSchema(schema, specJson, depth = 0) {
-        if (!schema || depth > 10) return schema;
-
-        if (schema.$ref) {
-            const parts = schema.$ref.split("/");
-            let resolved = specJson;
-            for (let i = 1; i < parts.length; i++) {
-                if (!resolved[parts[i]]) return schema;
-                resolved = resolved[parts[i]];
-            }
-            return resolveSchema(resolved, specJson, depth + 1);
-        }
+    // Refs are resolved server-side against the app's OpenAPI document, so
+    // send the cheapest description of the body the backend can look up.
+    function generateRequest(operation, schema) {
+        if (operation.operationId) return { operationId: operation.operationId };
+        if (schema.$ref) return { $ref: schema.$ref };
+        return { schema };
+    }
 
-        // Recursively resolve nested schemas
-        if (schema.properties) {
-            const resolvedProps = {};
-            for (const [key, value] of Object.entries(schema.properties)) {
-                resolvedProps[key] = resolveSchema(value, specJson, depth + 1);
+    // Reads the stream endpoint's server-sent events: "partial" pieces of the
+    // body while the model writes it, then one "body" event with the result.
+    async function readEvents(response, onEvent) {
+        const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+        let buffer = "";
+        for (;;) {
+            const { value, done } = await reader.read();
+            if (done) return;
+            buffer += value;
+            let end;
+            while ((end = buffer.indexOf("\n\n")) >= 0) {
+                const frame = buffer.slice(0, end);
+                buffer = buffer.slice(end + 2);
+                let event = "message";
+                const data = [];
+                for (const line of frame.split("\n")) {
+                    if (line.startsWith("event:")) event = line.slice(6).trim();
+                    else if (line.startsWith("data:")) data.push(line.slice(5));
+                }
+                onEvent(event, data.join("\n"));
             }
-            return { ...schema, properties: resolvedProps };
         }
-
-        if (schema.items) {
-            return { ...schema, items: resolveSchema(schema.items, specJson, depth + 1) };
-        }
-
-        return schema;
     }
 
     return {
@@ -59,6 +61,7 @@ const AiGenerateBodyPlugin = (system) => {
                         // Find schema
                         const paths = specJson.paths || {};
                         let foundSchema = null;
+                        let foundOperation = null;
 
                         for (const [pathKey, pathItem] of Object.entries(paths)) {
                             for (const [methodKey, operation] of Object.entries(pathItem)) {
@@ -67,6 +70,7 @@ const AiGenerateBodyPlugin = (system) => {
                                     const mediaType = Object.keys(content).find(k => k.includes('json'));
                                     if (mediaType && content[mediaType].schema) {
                                         foundSchema = content[mediaType].schema;
+                                        foundOperation = operation;
                                         break;
                                     }
                                 }
@@ -79,26 +83,31 @@ const AiGenerateBodyPlugin = (system) => {
                             return;
                         }
 
-                        // Resolve all $ref in the schema
-                        const resolvedSchema = resolveSchema(foundSchema, specJson);
-                        console.log("📝 Resolved schema:", resolvedSchema);
-
                         // Call Spring Boot backend
-                        const response = await fetch("/devtools/ai/request-body/generate", {
+                        const response = await fetch("/devtools/ai/request-body/stream", {
                             method: "POST",
                             headers: { "Content-Type": "application/json" },
-                            body: JSON.stringify({ schema: resolvedSchema })
+                            body: JSON.stringify(generateRequest(foundOperation, foundSchema))
                         });
 
-                        const result = await response.json();
-
-                        if (result.success && onChange) {
-                            onChange(result.body);
-                            console.log("✅ Generated body");
-                        } else {
-                            alert("Error: " + (result.error || "Unknown error"));
+                        if (!response.ok) {
+                            const error = await response.json();
+                            alert("Error: " + (error.error || "Unknown error"));
+                            return;
                         }
 
+                        let partial = "";
+                        await readEvents(response, (event, data) => {
+                            if (event === "partial") {
+                                partial += data;
+                                if (onChange) onChange(partial);
+                            } else if (event === "body") {
+                                const result = JSON.parse(data);
+                                if (onChange) onChange(result.body);
+                                console.log("✅ Generated body");
+                            }
+                        });
+
                     } catch (error) {
                         console.error("❌ Error:", error);
                         alert("Error: " + error.message);
@@ -0,0 +1,97 @@
+package io.github.rexrk.swagger.helper.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeneratedBodyPoolTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void schemaHash_ignoresKeyOrderAndNumberRepresentation() throws Exception {
+        JsonNode a = mapper.readTree("{\"type\":\"object\",\"properties\":{\"age\":{\"type\":\"integer\",\"minimum\":1},\"name\":{\"type\":\"string\"}}}");
+        JsonNode b = mapper.readTree("{\"properties\":{\"name\":{\"type\":\"string\"},\"age\":{\"minimum\":1.0,\"type\":\"integer\"}},\"type\":\"object\"}");
+        JsonNode c = mapper.readTree("{\"type\":\"object\",\"properties\":{\"age\":{\"type\":\"integer\",\"minimum\":2},\"name\":{\"type\":\"string\"}}}");
+
+        assertEquals(SchemaHash.of(a), SchemaHash.of(b));
+        assertNotEquals(SchemaHash.of(a), SchemaHash.of(c));
+    }
+
+    @Test
+    void pooledBodies_areServedRoundRobinAndRefilledInBackground() throws Exception {
+        JsonNode schema = mapper.readTree("{\"type\":\"object\"}");
+        AtomicInteger calls = new AtomicInteger();
+        try (GeneratedBodyPool pool = new GeneratedBodyPool(3, 16)) {
+            assertEquals("body-1", pool.next(schema, () -> "body-" + calls.incrementAndGet()));
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (calls.get() < 4 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            Thread.sleep(50);
+            assertEquals(4, calls.get(), "one synchronous call plus one background refill of three");
+
+            Set<String> served = new HashSet<>();
+            for (int i = 0; i < 3; i++) {
+                served.add(pool.next(schema, () -> {
+                    throw new AssertionError("pooled schema must not generate synchronously");
+                }));
+            }
+            assertEquals(Set.of("body-2", "body-3", "body-4"), served);
+        }
+    }
+
+    @Test
+    void concurrentFirstRequests_shareOneGeneration() throws Exception {
+        JsonNode schema = mapper.readTree("{\"type\":\"object\"}");
+        AtomicInteger calls = new AtomicInteger();
+        Callable<String> slowModel = () -> {
+            int n = calls.incrementAndGet();
+            Thread.sleep(100);
+            return "body-" + n;
+        };
+        try (GeneratedBodyPool pool = new GeneratedBodyPool(3, 16);
+             ExecutorService clicks = Executors.newFixedThreadPool(8)) {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<String>> first = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                first.add(clicks.submit(() -> {
+                    start.await();
+                    return pool.next(schema, slowModel);
+                }));
+            }
+            start.countDown();
+            for (Future<String> body : first) {
+                assertEquals("body-1", body.get());
+            }
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (calls.get() < 4 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            Thread.sleep(150);
+            assertEquals(4, calls.get(), "one shared call plus one background refill of three");
+
+            Set<String> served = new HashSet<>();
+            for (int i = 0; i < 6; i++) {
+                served.add(pool.next(schema, slowModel));
+            }
+            assertEquals(Set.of("body-2", "body-3", "body-4"), served, "the pool never grows past its size");
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package io.github.rexrk.swagger.helper.generator;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RandomBodyGeneratorTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final RandomBodyGenerator generator = new RandomBodyGenerator(mapper.getFactory(), 16);
+
+    @Test
+    void generatedBody_followsSchemaInPropertyOrder() throws Exception {
+        JsonNode schema = mapper.readTree("""
+                {"type":"object","properties":{
+                  "id":{"type":"string","format":"uuid"},
+                  "age":{"type":"integer","minimum":18,"maximum":21},
+                  "role":{"enum":["ADMIN","USER"]},
+                  "tags":{"type":"array","minItems":3,"items":{"type":"string"}},
+                  "active":{"type":"boolean"}
+                }}""");
+
+        for (int i = 0; i < 100; i++) {
+            JsonNode body = mapper.readTree(generator.generate(schema, ThreadLocalRandom.current()));
+
+            assertEquals(List.of("id", "age", "role", "tags", "active"),
+                    body.properties().stream().map(Map.Entry::getKey).toList());
+            assertEquals(4, UUID.fromString(body.get("id").asText()).version());
+            assertTrue(body.get("age").asInt() >= 18 && body.get("age").asInt() <= 21);
+            assertTrue(body.get("role").asText().matches("ADMIN|USER"));
+            assertEquals(3, body.get("tags").size());
+            assertTrue(body.get("active").isBoolean());
+        }
+    }
+
+    @Test
+    void schemasAreCompiledOncePerHash() throws Exception {
+        JsonNode a = mapper.readTree("{\"type\":\"object\",\"properties\":{\"a\":{\"type\":\"integer\"},\"b\":{\"type\":\"string\"}}}");
+        JsonNode b = mapper.readTree("{\"properties\":{\"b\":{\"type\":\"string\"},\"a\":{\"type\":\"integer\"}},\"type\":\"object\"}");
+
+        assertSame(generator.compile(a), generator.compile(b));
+        assertEquals(generator.generate(a, new SplittableRandom(7)), generator.generate(a, new SplittableRandom(7)));
+    }
+
+    @Test
+    void samples_supplyTextValuesWhileIdsStayRandom() throws Exception {
+        JsonNode schema = mapper.readTree("""
+                {"type":"object","properties":{
+                  "name":{"type":"string"},
+                  "id":{"type":"string","format":"uuid"},
+                  "tags":{"type":"array","minItems":2,"items":{"type":"string"}}
+                }}""");
+        List<JsonNode> samples = List.of(
+                mapper.readTree("{\"name\":\"Ada Lovelace\",\"id\":\"x\",\"tags\":[\"math\"]}"),
+                mapper.readTree("{\"name\":\"Alan Turing\",\"tags\":[\"logic\",\"crypto\"]}"));
+        BodyGenerator compiled = generator.compile(schema, samples);
+
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < 50; i++) {
+            StringWriter out = new StringWriter();
+            try (JsonGenerator json = mapper.getFactory().createGenerator(out)) {
+                compiled.write(json, random);
+            }
+            JsonNode body = mapper.readTree(out.toString());
+            assertTrue(body.get("name").asText().matches("Ada Lovelace|Alan Turing"));
+            assertEquals(4, UUID.fromString(body.get("id").asText()).version());
+            body.get("tags").forEach(tag -> assertTrue(tag.asText().matches("math|logic|crypto")));
+        }
+    }
+
+    @Test
+    void constraints_areHonoured() throws Exception {
+        JsonNode schema = mapper.readTree("""
+                {"allOf":[
+                  {"type":"object","required":["code","qty"],"properties":{
+                    "code":{"type":"string","pattern":"^[A-Z]{3}-\\\\d{2,4}(-[a-f0-9]{2})?$"},
+                    "qty":{"type":"integer","minimum":10,"exclusiveMaximum":20,"multipleOf":3}
+                  }},
+                  {"properties":{
+                    "note":{"type":["string","null"],"minLength":12,"maxLength":14},
+                    "price":{"type":"number","exclusiveMinimum":0,"maximum":1,"multipleOf":0.25},
+                    "level":{"enum":[1,2,3]},
+                    "tags":{"type":"array","minItems":2,"maxItems":3,"uniqueItems":true,"items":{"enum":["a","b","c","d"]}},
+                    "attrs":{"type":"object","additionalProperties":{"type":"integer","minimum":5,"maximum":5}},
+                    "payment":{"oneOf":[
+                      {"type":"object","required":["iban"],"properties":{"iban":{"type":"string","pattern":"DE\\\\d{20}"}}},
+                      {"type":"object","required":["card"],"properties":{"card":{"type":"string","pattern":"4\\\\d{15}"}}}
+                    ]}
+                  }}
+                ]}""");
+        assertTrue(generator.isExact(schema));
+
+        for (int i = 0; i < 200; i++) {
+            JsonNode body = mapper.readTree(generator.generate(schema, ThreadLocalRandom.current()));
+
+            assertTrue(body.get("code").asText().matches("[A-Z]{3}-\\d{2,4}(-[a-f0-9]{2})?"), body.toString());
+            assertTrue(List.of(12, 15, 18).contains(body.get("qty").asInt()), body.toString());
+            assertTrue(body.get("note").asText().length() >= 12 && body.get("note").asText().length() <= 14);
+            double price = body.get("price").asDouble();
+            assertTrue(List.of(0.25, 0.5, 0.75, 1.0).contains(price), body.toString());
+            assertTrue(body.get("level").isInt());
+            JsonNode tags = body.get("tags");
+            assertTrue(tags.size() >= 2 && tags.size() <= 3);
+            assertEquals(tags.size(), tags.valueStream().map(JsonNode::asText).distinct().count());
+            assertEquals(5, body.get("attrs").properties().iterator().next().getValue().asInt());
+            JsonNode payment = body.get("payment");
+            assertTrue(payment.has("iban") ? payment.get("iban").asText().matches("DE\\d{20}")
+                    : payment.get("card").asText().matches("4\\d{15}"), body.toString());
+        }
+    }
+
+    @Test
+    void schemasLocalGenerationCannotSatisfy_areNotExact() throws Exception {
+        assertFalse(generator.isExact(mapper.readTree("{\"type\":\"string\",\"pattern\":\"^(?!admin).*$\"}")));
+        assertFalse(generator.isExact(mapper.readTree("{\"type\":\"object\",\"not\":{\"required\":[\"a\"]}}")));
+        assertFalse(generator.isExact(mapper.readTree("{\"$ref\":\"#/components/schemas/Missing\"}")));
+    }
+
+    @Test
+    void patternThatCanMissTheLengthBounds_isNotExact() throws Exception {
+        assertFalse(generator.isExact(mapper.readTree("{\"type\":\"string\",\"pattern\":\"[a-z]{2,8}\",\"minLength\":5}")));
+        assertFalse(generator.isExact(mapper.readTree("{\"type\":\"string\",\"pattern\":\"[a-z]{20}\",\"maxLength\":10}")));
+
+        JsonNode inside = mapper.readTree("{\"type\":\"string\",\"pattern\":\"^[a-z]{5,8}$\",\"minLength\":5,\"maxLength\":8}");
+        assertTrue(generator.isExact(inside));
+        for (int i = 0; i < 50; i++) {
+            assertTrue(mapper.readTree(generator.generate(inside, ThreadLocalRandom.current())).asText().matches("[a-z]{5,8}"));
+        }
+    }
+
+    @Test
+    void uniqueItemsFromTooFewValues_isNotExact() throws Exception {
+        assertFalse(generator.isExact(mapper.readTree(
+                "{\"type\":\"array\",\"minItems\":3,\"uniqueItems\":true,\"items\":{\"type\":\"boolean\"}}")));
+        assertFalse(generator.isExact(mapper.readTree(
+                "{\"type\":\"array\",\"minItems\":2,\"uniqueItems\":true,\"items\":{\"const\":\"x\"}}")));
+
+        // more items are allowed than there are values: the count stays within the values
+        JsonNode schema = mapper.readTree(
+                "{\"type\":\"array\",\"minItems\":1,\"maxItems\":5,\"uniqueItems\":true,\"items\":{\"enum\":[\"a\",\"b\"]}}");
+        assertTrue(generator.isExact(schema));
+        for (int i = 0; i < 50; i++) {
+            JsonNode body = mapper.readTree(generator.generate(schema, ThreadLocalRandom.current()));
+            assertTrue(body.size() >= 1 && body.size() <= 2, body.toString());
+            assertEquals(body.size(), body.valueStream().map(JsonNode::asText).distinct().count());
+        }
+    }
+
+    @Test
+    void oneOfBranchesThatOverlap_areNotExact() throws Exception {
+        assertFalse(generator.isExact(mapper.readTree("""
+                {"oneOf":[
+                  {"type":"object","properties":{"iban":{"type":"string"}}},
+                  {"type":"object","properties":{"card":{"type":"string"}}}
+                ]}""")));
+        assertFalse(generator.isExact(mapper.readTree("{\"oneOf\":[{\"type\":\"integer\"},{\"type\":\"number\"}]}")));
+
+        assertTrue(generator.isExact(mapper.readTree("{\"oneOf\":[{\"type\":\"string\"},{\"type\":\"integer\"}]}")));
+        JsonNode discriminated = mapper.readTree("""
+                {"type":"object","properties":{"kind":{"type":"string"}},"oneOf":[
+                  {"properties":{"kind":{"const":"cat"},"lives":{"type":"integer"}}},
+                  {"properties":{"kind":{"enum":["dog","wolf"]},"bark":{"type":"string"}}}
+                ]}""");
+        assertTrue(generator.isExact(discriminated));
+        for (int i = 0; i < 50; i++) {
+            JsonNode body = mapper.readTree(generator.generate(discriminated, ThreadLocalRandom.current()));
+            String kind = body.get("kind").asText();
+            assertTrue(body.has("lives") ? kind.equals("cat") : kind.matches("dog|wolf"), body.toString());
+        }
+        assertTrue(generator.isExact(mapper.readTree("{\"type\":\"object\",\"anyOf\":[{\"type\":\"object\"},{\"type\":\"object\"}]}")));
+    }
+
+    @Test
+    void formatsThatDoNotFitTheLengthBounds_areNotExactAndNeverCut() throws Exception {
+        JsonNode shortUuid = mapper.readTree("{\"type\":\"string\",\"format\":\"uuid\",\"maxLength\":10}");
+        assertFalse(generator.isExact(shortUuid));
+        UUID.fromString(mapper.readTree(generator.generate(shortUuid, ThreadLocalRandom.current())).asText());
+        assertFalse(generator.isExact(mapper.readTree("{\"type\":\"string\",\"format\":\"date-time\",\"minLength\":25}")));
+        assertFalse(generator.isExact(mapper.readTree("{\"type\":\"string\",\"format\":\"email\",\"maxLength\":5}")));
+
+        JsonNode date = mapper.readTree("{\"type\":\"string\",\"format\":\"date\",\"minLength\":10,\"maxLength\":10}");
+        assertTrue(generator.isExact(date));
+        LocalDate.parse(mapper.readTree(generator.generate(date, ThreadLocalRandom.current())).asText());
+        // RFC 3339 needs the seconds, including zero ones (about 1 in 60 values)
+        JsonNode dateTime = mapper.readTree("{\"type\":\"string\",\"format\":\"date-time\",\"maxLength\":20}");
+        assertTrue(generator.isExact(dateTime));
+        SeededRandom corpus = new SeededRandom(3);
+        for (int i = 0; i < 2_000; i++) {
+            String value = mapper.readTree(generator.generate(dateTime, corpus.forBody(i))).asText();
+            assertTrue(value.matches("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}Z"), value);
+        }
+        // free text is padded or cut
+        JsonNode text = mapper.readTree("{\"type\":\"string\",\"minLength\":3,\"maxLength\":4}");
+        assertTrue(generator.isExact(text));
+        assertTrue(mapper.readTree(generator.generate(text, ThreadLocalRandom.current())).asText().length() <= 4);
+    }
+
+    @Test
+    void integerBoundsAtAndBeyondTheLongRange_areHandled() throws Exception {
+        JsonNode top = mapper.readTree("{\"type\":\"integer\",\"minimum\":9223372036854775800}");
+        assertTrue(generator.isExact(top));
+        JsonNode wide = mapper.readTree("{\"type\":\"integer\",\"minimum\":-1e30,\"maximum\":5}");
+        assertTrue(generator.isExact(wide));
+        for (int i = 0; i < 200; i++) {
+            JsonNode value = mapper.readTree(generator.generate(top, ThreadLocalRandom.current()));
+            assertTrue(value.canConvertToLong() && value.asLong() >= 9223372036854775800L, value.toString());
+            assertTrue(mapper.readTree(generator.generate(wide, ThreadLocalRandom.current())).asLong() <= 5);
+        }
+
+        JsonNode beyond = mapper.readTree("{\"type\":\"integer\",\"minimum\":1e30}");
+        assertFalse(generator.isExact(beyond));
+        assertDoesNotThrow(() -> generator.generate(beyond, ThreadLocalRandom.current()));
+    }
+
+    @Test
+    void seededGeneration_isByteIdenticalAndIndependentOfOrderAndSiblings() throws Exception {
+        JsonNode schema = mapper.readTree("""
+                {"type":"object","properties":{
+                  "id":{"type":"string","format":"uuid"},
+                  "created":{"type":"string","format":"date-time"},
+                  "day":{"type":"string","format":"date"},
+                  "score":{"type":"number","minimum":0,"maximum":100},
+                  "tags":{"type":"array","minItems":1,"maxItems":4,"items":{"type":"string","pattern":"[a-z]{3,6}"}}
+                }}""");
+        Instant base = Instant.parse("2024-06-01T12:00:00Z");
+
+        String first = generator.generate(schema, new SeededRandom(42, base));
+        String again = new RandomBodyGenerator(mapper.getFactory(), 16).generate(schema, new SeededRandom(42, base));
+        assertEquals(first, again);
+        assertNotEquals(first, generator.generate(schema, new SeededRandom(43, base)));
+
+        JsonNode body = mapper.readTree(first);
+        Instant created = OffsetDateTime.parse(body.get("created").asText()).toInstant();
+        assertTrue(!created.isAfter(base) && created.isAfter(base.minus(Duration.ofDays(366))), body.toString());
+
+        // a new sibling field leaves existing fields alone
+        ObjectNode extended = schema.deepCopy();
+        ((ObjectNode) extended.get("properties")).putObject("note").put("type", "string");
+        JsonNode extendedBody = mapper.readTree(generator.generate(extended, new SeededRandom(42, base)));
+        body.properties().forEach(field -> assertEquals(field.getValue(), extendedBody.get(field.getKey())));
+
+        // corpus bodies can be generated in any order or in parallel
+        SeededRandom corpus = new SeededRandom(7, base);
+        List<String> sequential = IntStream.range(0, 200).mapToObj(i -> generator.generate(schema, corpus.forBody(i))).toList();
+        List<String> parallel = IntStream.range(0, 200).parallel()
+                .mapToObj(i -> generator.generate(schema, corpus.forBody(i))).toList();
+        assertEquals(sequential, parallel);
+        assertEquals(200, new HashSet<>(sequential).size());
+    }
+}
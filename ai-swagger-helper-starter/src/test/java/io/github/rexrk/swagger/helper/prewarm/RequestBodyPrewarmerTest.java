@@ -0,0 +1,78 @@
+package io.github.rexrk.swagger.helper.prewarm;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.rexrk.swagger.helper.AiSwaggerHelperProperties;
+import io.github.rexrk.swagger.helper.generator.RandomBodyGenerator;
+import io.github.rexrk.swagger.helper.metrics.RequestBodyGeneratorMetrics;
+import io.github.rexrk.swagger.helper.request.AiRequestBodyGeneratorService;
+import io.github.rexrk.swagger.helper.schema.OpenApiSchemaResolver;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestBodyPrewarmerTest {
+
+    private static final String DOCUMENT = """
+            {
+              "paths": {
+                "/pets": {
+                  "get": {"operationId": "listPets"},
+                  "post": {
+                    "operationId": "createPet",
+                    "requestBody": {"content": {"application/json": {"schema": {"$ref": "#/components/schemas/Pet"}}}}
+                  }
+                },
+                "/owners": {
+                  "post": {
+                    "operationId": "createOwner",
+                    "requestBody": {"content": {"application/json": {"schema": {"$ref": "#/components/schemas/Missing"}}}}
+                  }
+                }
+              },
+              "components": {
+                "schemas": {
+                  "Pet": {"type": "object", "properties": {"name": {"type": "string"}}}
+                }
+              }
+            }
+            """;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final OpenApiSchemaResolver resolver = new OpenApiSchemaResolver(
+            request -> DOCUMENT.getBytes(StandardCharsets.UTF_8), mapper);
+    private final AiRequestBodyGeneratorService service = new AiRequestBodyGeneratorService(null, mapper,
+            new AiSwaggerHelperProperties(), RequestBodyGeneratorMetrics.NOOP, null,
+            new RandomBodyGenerator(mapper.getFactory(), 16));
+
+    @Test
+    void warmsEveryRequestBodyOperationAndCountsFailures() throws Exception {
+        try (RequestBodyPrewarmer prewarmer = new RequestBodyPrewarmer(resolver, service, 2, 256)) {
+            assertEquals(RequestBodyPrewarmer.State.PENDING, prewarmer.progress().state());
+            prewarmer.start();
+
+            assertEquals(new RequestBodyPrewarmer.Progress(RequestBodyPrewarmer.State.DONE, 2, 2, 1, 0),
+                    awaitDone(prewarmer));
+        }
+    }
+
+    @Test
+    void warmsNoMoreOperationsThanTheCacheKeeps() throws Exception {
+        try (RequestBodyPrewarmer prewarmer = new RequestBodyPrewarmer(resolver, service, 2, 1)) {
+            prewarmer.start();
+
+            assertEquals(new RequestBodyPrewarmer.Progress(RequestBodyPrewarmer.State.DONE, 1, 1, 0, 0),
+                    awaitDone(prewarmer));
+        }
+    }
+
+    private static RequestBodyPrewarmer.Progress awaitDone(RequestBodyPrewarmer prewarmer) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (prewarmer.progress().state() == RequestBodyPrewarmer.State.RUNNING && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return prewarmer.progress();
+    }
+}
@@ -0,0 +1,118 @@
+package io.github.rexrk.swagger.helper.request;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.rexrk.swagger.helper.AiSwaggerHelperProperties;
+import io.github.rexrk.swagger.helper.AiSwaggerHelperProperties.Mode;
+import io.github.rexrk.swagger.helper.cache.GeneratedBodyPool;
+import io.github.rexrk.swagger.helper.generator.RandomBodyGenerator;
+import io.github.rexrk.swagger.helper.metrics.RequestBodyGeneratorMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AiRequestBodyGeneratorServiceTest {
+
+    @Test
+    void streaming_cancelsAtFirstInvalidTokenAndFallsBackToLocalBody() throws Exception {
+        AtomicInteger subscriptions = new AtomicInteger();
+        AtomicInteger emitted = new AtomicInteger();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Flux<ChatResponse> tokens = Flux.fromIterable(List.of("{\"name\": ", "\"Ada\", ", "age: 3", ", \"x\": 1", "}"))
+                .map(text -> new ChatResponse(List.of(new Generation(new AssistantMessage(text)))))
+                .doOnSubscribe(subscription -> subscriptions.incrementAndGet())
+                .doOnNext(response -> emitted.incrementAndGet())
+                .doOnCancel(() -> cancelled.set(true));
+        ChatClient chatClient = mock(ChatClient.class, RETURNS_DEEP_STUBS);
+        when(chatClient.prompt().user(any(String.class)).stream().chatResponse()).thenReturn(tokens);
+
+        ObjectMapper mapper = new ObjectMapper();
+        AiSwaggerHelperProperties properties = new AiSwaggerHelperProperties();
+        properties.setMode(Mode.AI);
+        properties.getResilience().setInitialBackoff(Duration.ZERO);
+        properties.getResilience().setMaxBackoff(Duration.ZERO);
+        properties.getStreaming().setEnabled(true);
+        properties.getStreaming().setMaxBodyBytes(1024);
+        AiRequestBodyGeneratorService service = new AiRequestBodyGeneratorService(chatClient, mapper, properties,
+                RequestBodyGeneratorMetrics.NOOP, null, new RandomBodyGenerator(mapper.getFactory(), 16));
+        JsonNode schema = mapper.readTree("""
+                {"type": "object", "required": ["name"], "properties": {"name": {"type": "string"}}}
+                """);
+
+        StringBuilder partial = new StringBuilder();
+        String body = service.generateBody(schema, partial::append);
+
+        assertTrue(cancelled.get(), "the stream should be cancelled");
+        assertEquals(3, emitted.get(), "nothing after the invalid token should be requested");
+        assertEquals("{\"name\": \"Ada\", ", partial.toString());
+        assertTrue(mapper.readTree(body).get("name").asText().startsWith("string_"), "falls back to a local body");
+        assertEquals(1, subscriptions.get(), "invalid output is not retried");
+    }
+
+    @Test
+    void samples_areFreshModelCallsNotPooledCopies() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        ChatClient chatClient = mock(ChatClient.class, RETURNS_DEEP_STUBS);
+        when(chatClient.prompt().user(any(String.class)).call().chatResponse()).thenAnswer(invocation ->
+                new ChatResponse(List.of(new Generation(
+                        new AssistantMessage("{\"name\": \"sample " + calls.incrementAndGet() % 4 + "\"}")))));
+
+        ObjectMapper mapper = new ObjectMapper();
+        AiSwaggerHelperProperties properties = new AiSwaggerHelperProperties();
+        properties.setMode(Mode.AI);
+        try (GeneratedBodyPool pool = new GeneratedBodyPool(3, 16)) {
+            AiRequestBodyGeneratorService service = new AiRequestBodyGeneratorService(chatClient, mapper, properties,
+                    RequestBodyGeneratorMetrics.NOOP, pool, new RandomBodyGenerator(mapper.getFactory(), 16));
+            JsonNode schema = mapper.readTree("""
+                    {"type": "object", "properties": {"name": {"type": "string"}}}
+                    """);
+
+            List<JsonNode> samples = service.generateSamples(schema, 6);
+
+            assertEquals(6, calls.get(), "one model call per sample");
+            assertEquals(4, samples.size(), "repeated answers are dropped");
+        }
+    }
+
+    @Test
+    void streaming_retryAfterPiecesWereSentDoesNotAppendToThem() throws Exception {
+        AtomicInteger subscriptions = new AtomicInteger();
+        Flux<ChatResponse> tokens = Flux.defer(() -> subscriptions.incrementAndGet() == 1
+                        ? Flux.just("{\"name\": ").concatWith(Flux.error(new IllegalStateException("connection reset")))
+                        : Flux.just("{\"name\": ", "\"Ada\"}"))
+                .map(text -> new ChatResponse(List.of(new Generation(new AssistantMessage(text)))));
+        ChatClient chatClient = mock(ChatClient.class, RETURNS_DEEP_STUBS);
+        when(chatClient.prompt().user(any(String.class)).stream().chatResponse()).thenReturn(tokens);
+
+        ObjectMapper mapper = new ObjectMapper();
+        AiSwaggerHelperProperties properties = new AiSwaggerHelperProperties();
+        properties.setMode(Mode.AI);
+        properties.getResilience().setInitialBackoff(Duration.ZERO);
+        properties.getResilience().setMaxBackoff(Duration.ZERO);
+        properties.getStreaming().setEnabled(true);
+        AiRequestBodyGeneratorService service = new AiRequestBodyGeneratorService(chatClient, mapper, properties,
+                RequestBodyGeneratorMetrics.NOOP, null, new RandomBodyGenerator(mapper.getFactory(), 16));
+        JsonNode schema = mapper.readTree("""
+                {"type": "object", "properties": {"name": {"type": "string"}}}
+                """);
+
+        StringBuilder partial = new StringBuilder();
+        String body = service.generateBody(schema, partial::append);
+
+        assertEquals(2, subscriptions.get(), "the broken stream is retried");
+        assertEquals("Ada", mapper.readTree(body).get("name").asText());
+        assertEquals("{\"name\": ", partial.toString(), "pieces come from the first attempt only");
+    }
+}
@@ -0,0 +1,199 @@
+package io.github.rexrk.swagger.helper.request;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.rexrk.swagger.helper.AiSwaggerHelperAutoConfiguration;
+import io.github.rexrk.swagger.helper.AiSwaggerHelperProperties;
+import io.github.rexrk.swagger.helper.AiSwaggerHelperProperties.Mode;
+import io.github.rexrk.swagger.helper.generator.RandomBodyGenerator;
+import io.github.rexrk.swagger.helper.metrics.RequestBodyGeneratorMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.JacksonJsonHttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AiSwaggerHelperControllerTest {
+
+    private static final Map<String, Object> REQUEST = Map.of("schema", Map.of(
+            "type", "object",
+            "properties", Map.of("name", Map.of("type", "string"))));
+
+    @Test
+    void slowModel_fallsBackToLocalBodyAtTheDeadlineWithoutHoldingTheCaller() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ChatClient chatClient = mock(ChatClient.class, RETURNS_DEEP_STUBS);
+        when(chatClient.prompt().user(any(String.class)).call().chatResponse()).thenAnswer(invocation -> {
+            release.await();
+            return null;
+        });
+        ObjectMapper mapper = new ObjectMapper();
+        AiSwaggerHelperProperties properties = new AiSwaggerHelperProperties();
+        properties.setMode(Mode.AI);
+        properties.getAsync().setDeadline(Duration.ofMillis(200));
+        properties.getAsync().setMaxConcurrency(1);
+        properties.getAsync().setQueueCapacity(1);
+        RandomBodyGenerator random = new RandomBodyGenerator(mapper.getFactory(), 16);
+        AiRequestBodyGeneratorService service = new AiRequestBodyGeneratorService(chatClient, mapper, properties,
+                RequestBodyGeneratorMetrics.NOOP, null, random);
+
+        try (AiSwaggerHelperController controller =
+                     new AiSwaggerHelperController(service, mapper, null, random, properties)) {
+            service.generateRandomBody(mapper.valueToTree(REQUEST.get("schema"))); // warm up Jackson
+
+            long start = System.nanoTime();
+            var first = controller.generateBodyAsync(REQUEST, null);
+            var second = controller.generateBodyAsync(REQUEST, null);
+            var rejected = controller.generateBodyAsync(REQUEST, null);
+            long elapsed = Duration.ofNanos(System.nanoTime() - start).toMillis();
+            assertTrue(elapsed < 150, "callers must not wait on the model, took " + elapsed + " ms");
+
+            assertTrue(rejected.isDone(), "a saturated pool answers immediately");
+            for (var response : List.of(first, second, rejected)) {
+                Map<String, Object> body = response.get(2, TimeUnit.SECONDS);
+                assertEquals(true, body.get("success"));
+                assertTrue(mapper.readTree((String) body.get("body")).get("name").asText().startsWith("string_"));
+            }
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void stalledStream_sendsLocalBodyAtTheDeadlineAndNoMorePieces() throws Exception {
+        Flux<ChatResponse> tokens = Flux.just("{\"name\": ")
+                .map(text -> new ChatResponse(List.of(new Generation(new AssistantMessage(text)))))
+                .concatWith(Flux.never());
+        ChatClient chatClient = mock(ChatClient.class, RETURNS_DEEP_STUBS);
+        when(chatClient.prompt().user(any(String.class)).stream().chatResponse()).thenReturn(tokens);
+        ObjectMapper mapper = new ObjectMapper();
+        AiSwaggerHelperProperties properties = new AiSwaggerHelperProperties();
+        properties.setMode(Mode.AI);
+        properties.getStreaming().setEnabled(true);
+        properties.getAsync().setDeadline(Duration.ofMillis(200));
+        RandomBodyGenerator random = new RandomBodyGenerator(mapper.getFactory(), 16);
+        AiRequestBodyGeneratorService service = new AiRequestBodyGeneratorService(chatClient, mapper, properties,
+                RequestBodyGeneratorMetrics.NOOP, null, random);
+
+        try (AiSwaggerHelperController controller =
+                     new AiSwaggerHelperController(service, mapper, null, random, properties)) {
+            List<String> pieces = new CopyOnWriteArrayList<>();
+            CompletableFuture<Map<String, Object>> body = new CompletableFuture<>();
+            controller.streamBody(REQUEST, null).accept(new AiSwaggerHelperController.BodyEvents() {
+                @Override
+                public void partial(String piece) {
+                    assertFalse(body.isDone(), "no pieces after the body");
+                    pieces.add(piece);
+                }
+
+                @Override
+                public void body(Map<String, Object> response) {
+                    assertTrue(Thread.currentThread().getName().startsWith("swagger-reply-"),
+                            "not on the shared timeout thread: " + Thread.currentThread().getName());
+                    assertTrue(body.complete(response), "exactly one body");
+                }
+            });
+
+            Map<String, Object> response = body.get(2, TimeUnit.SECONDS);
+            assertTrue(mapper.readTree((String) response.get("body")).get("name").asText().startsWith("string_"));
+            assertEquals(List.of("{\"name\": "), pieces);
+        }
+    }
+
+    @Test
+    void bulkRoute_rejectsOutOfRangeCountsAndSampleCounts() throws Exception {
+        AiSwaggerHelperProperties properties = new AiSwaggerHelperProperties();
+        properties.getBulk().setMaxCount(100);
+        properties.getBulk().setMaxAiSamples(2);
+
+        try (AiSwaggerHelperController controller = randomController(properties)) {
+            RouterFunction<ServerResponse> routes = routes(controller, properties);
+            for (String body : List.of("{\"count\": null}", "{\"count\": 0}", "{\"count\": 101}",
+                    "{\"count\": \"many\"}", "{\"count\": 5, \"aiSamples\": 3}", "{\"count\": 5, \"aiSamples\": -1}")) {
+                MockHttpServletResponse response = postBulk(routes, body.replace("}", SCHEMA + "}"));
+                assertEquals(400, response.getStatus(), body);
+                assertTrue(response.getContentAsString().contains("\"success\":false"), body);
+            }
+        }
+    }
+
+    @Test
+    void bulkRoute_streamsOneCompleteDocumentPerLineAndRepeatsForASeed() throws Exception {
+        AiSwaggerHelperProperties properties = new AiSwaggerHelperProperties();
+        ObjectMapper mapper = new ObjectMapper();
+
+        try (AiSwaggerHelperController controller = randomController(properties)) {
+            RouterFunction<ServerResponse> routes = routes(controller, properties);
+            MockHttpServletResponse first = postBulk(routes, "{\"count\": 250, \"seed\": 7" + SCHEMA + "}");
+            MockHttpServletResponse again = postBulk(routes, "{\"count\": 250, \"seed\": 7" + SCHEMA + "}");
+            MockHttpServletResponse other = postBulk(routes, "{\"count\": 250, \"seed\": 8" + SCHEMA + "}");
+
+            assertEquals(200, first.getStatus());
+            assertEquals("application/x-ndjson", first.getContentType());
+            String corpus = first.getContentAsString(StandardCharsets.UTF_8);
+            assertTrue(corpus.endsWith("\n"), "the last document is terminated too");
+            String[] lines = corpus.split("\n");
+            assertEquals(250, lines.length);
+            for (String line : lines) {
+                assertTrue(mapper.readTree(line).get("name").isTextual(), line);
+            }
+            assertArrayEquals(first.getContentAsByteArray(), again.getContentAsByteArray(), "same seed, same corpus");
+            assertNotEquals(corpus, other.getContentAsString(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static final String SCHEMA =
+            ", \"schema\": {\"type\": \"object\", \"properties\": {\"name\": {\"type\": \"string\"}}}";
+
+    private static final List<HttpMessageConverter<?>> CONVERTERS = List.of(new JacksonJsonHttpMessageConverter());
+
+    private static AiSwaggerHelperController randomController(AiSwaggerHelperProperties properties) {
+        ObjectMapper mapper = new ObjectMapper();
+        properties.setMode(Mode.RANDOM);
+        RandomBodyGenerator random = new RandomBodyGenerator(mapper.getFactory(), 16);
+        AiRequestBodyGeneratorService service = new AiRequestBodyGeneratorService(null, mapper, properties,
+                RequestBodyGeneratorMetrics.NOOP, null, random);
+        return new AiSwaggerHelperController(service, mapper, null, random, properties);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RouterFunction<ServerResponse> routes(AiSwaggerHelperController controller,
+                                                         AiSwaggerHelperProperties properties) {
+        return new AiSwaggerHelperAutoConfiguration(properties)
+                .aiSwaggerRoutes(controller, mock(ObjectProvider.class));
+    }
+
+    private static MockHttpServletResponse postBulk(RouterFunction<ServerResponse> routes, String body)
+            throws Exception {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("POST", "/devtools/ai/request-body/bulk");
+        servletRequest.setContentType("application/json");
+        servletRequest.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        ServerRequest request = ServerRequest.create(servletRequest, CONVERTERS);
+        ServerResponse response = routes.route(request).orElseThrow().handle(request);
+        response.writeTo(servletRequest, servletResponse, () -> CONVERTERS);
+        return servletResponse;
+    }
+}
@@ -0,0 +1,48 @@
+package io.github.rexrk.swagger.helper.request;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingJsonExtractorTest {
+
+    private final JsonFactory factory = new JsonFactory();
+
+    @Test
+    void extractsDocumentSplitAcrossChunks_skippingFencesAndTrailingText() {
+        List<String> pieces = new ArrayList<>();
+        StreamingJsonExtractor extractor = new StreamingJsonExtractor(factory, 1024, pieces::add);
+
+        List<String> chunks = List.of("Sure!\n```json\n", "{\"na", "me\": \"Ad", "a\", \"tags\": [\"a\", ", "\"b\"]}",
+                "\n```\nHope this helps");
+        int fed = 0;
+        for (String chunk : chunks) {
+            fed++;
+            if (extractor.feed(chunk)) break;
+        }
+
+        assertEquals(5, fed, "feeding should stop at the closing brace");
+        String expected = "{\"name\": \"Ada\", \"tags\": [\"a\", \"b\"]}";
+        assertEquals(expected, extractor.result());
+        assertEquals(expected, String.join("", pieces));
+    }
+
+    @Test
+    void rejectsAtFirstInvalidTokenOrSizeLimit() {
+        StreamingJsonExtractor invalid = new StreamingJsonExtractor(factory, 1024, null);
+        assertFalse(invalid.feed("{\"name\": \"Ada\", "));
+        assertThrows(StreamingJsonExtractor.InvalidOutputException.class, () -> invalid.feed("age: 3"));
+
+        StreamingJsonExtractor large = new StreamingJsonExtractor(factory, 16, null);
+        assertFalse(large.feed("{\"name\": "));
+        assertThrows(StreamingJsonExtractor.InvalidOutputException.class, () -> large.feed("\"Ada Lovelace\""));
+
+        StreamingJsonExtractor truncated = new StreamingJsonExtractor(factory, 1024, null);
+        assertFalse(truncated.feed("{\"name\": \"Ada\""));
+        assertThrows(StreamingJsonExtractor.InvalidOutputException.class, truncated::result);
+    }
+}
@@ -0,0 +1,139 @@
+package io.github.rexrk.swagger.helper.schema;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.swagger.v3.oas.models.OpenAPI;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springdoc.core.service.OpenAPIService;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OpenApiSchemaResolverTest {
+
+    private static final String DOCUMENT = """
+            {
+              "paths": {
+                "/teams": {
+                  "post": {
+                    "operationId": "createTeam",
+                    "requestBody": {
+                      "content": {"application/json": {"schema": {"$ref": "#/components/schemas/Team"}}}
+                    }
+                  }
+                }
+              },
+              "components": {
+                "schemas": {
+                  "Team": {
+                    "type": "object",
+                    "properties": {
+                      "lead": {"$ref": "#/components/schemas/Person"},
+                      "coach": {"$ref": "#/components/schemas/Person", "description": "Optional coach", "nullable": true},
+                      "members": {"type": "array", "items": {"$ref": "#/components/schemas/Person"}}
+                    }
+                  },
+                  "Person": {
+                    "type": "object",
+                    "properties": {
+                      "name": {"type": "string"},
+                      "manager": {"$ref": "#/components/schemas/Person"}
+                    }
+                  }
+                }
+              }
+            }
+            """;
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final OpenApiSchemaResolver resolver = new OpenApiSchemaResolver(request -> {
+        loads.incrementAndGet();
+        return DOCUMENT.getBytes(StandardCharsets.UTF_8);
+    }, new ObjectMapper());
+
+    @Test
+    void operationId_resolvesNestedAndRecursiveReferences() {
+        JsonNode schema = resolver.resolveOperation("createTeam", null);
+
+        JsonNode lead = schema.at("/properties/lead");
+        assertEquals("string", lead.at("/properties/name/type").asText());
+        assertEquals("object", lead.at("/properties/manager/type").asText());
+        assertFalse(lead.at("/properties/manager").has("properties"), "recursion is cut after one level");
+        assertFalse(schema.toString().contains("$ref"));
+    }
+
+    @Test
+    void components_areResolvedOncePerDocumentAndCallersGetCopies() {
+        JsonNode first = resolver.resolveRef("#/components/schemas/Team", null);
+        ((ObjectNode) first.at("/properties/lead/properties")).remove("name");
+        JsonNode second = resolver.resolveRef("#/components/schemas/Team", null);
+
+        assertNotSame(first, second);
+        assertEquals("string", second.at("/properties/lead/properties/name/type").asText());
+        assertEquals(second.at("/properties/lead"), second.at("/properties/members/items"));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void refSiblings_areMergedOverTheReferencedSchema() {
+        JsonNode schema = resolver.resolveOperation("createTeam", null);
+
+        JsonNode coach = schema.at("/properties/coach");
+        assertEquals("Optional coach", coach.path("description").asText());
+        assertTrue(coach.path("nullable").asBoolean());
+        assertEquals("string", coach.at("/properties/name/type").asText());
+        assertFalse(schema.at("/properties/lead").has("description"), "the shared component is left untouched");
+    }
+
+    @Test
+    void newSourceVersion_reloadsTheDocument() {
+        AtomicReference<Object> version = new AtomicReference<>(new Object());
+        OpenApiSchemaResolver versioned = new OpenApiSchemaResolver(new OpenApiSchemaResolver.DocumentSource() {
+            @Override
+            public byte[] load(HttpServletRequest request) {
+                loads.incrementAndGet();
+                return DOCUMENT.getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public Object version(HttpServletRequest request) {
+                return version.get();
+            }
+        }, new ObjectMapper());
+
+        versioned.resolveOperation("createTeam", null);
+        versioned.resolveOperation("createTeam", null);
+        assertEquals(1, loads.get());
+
+        version.set(new Object());
+        versioned.resolveOperation("createTeam", null);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void unknownReference_isRejected() {
+        assertThrows(IllegalArgumentException.class, () -> resolver.resolveRef("#/components/schemas/Nope", null));
+        assertThrows(IllegalArgumentException.class, () -> resolver.resolveOperation("nope", null));
+    }
+
+    @Test
+    void springDocVersion_ignoresTheCallersLocale() {
+        OpenAPI model = new OpenAPI();
+        OpenAPIService service = mock(OpenAPIService.class);
+        when(service.getCachedOpenAPI(Locale.getDefault())).thenReturn(model);
+        SpringDocDocumentSource source = new SpringDocDocumentSource(() -> null, () -> service, () -> null);
+        MockHttpServletRequest japanese = new MockHttpServletRequest();
+        japanese.addPreferredLocale(Locale.JAPANESE);
+
+        assertSame(model, source.version(japanese), "one snapshot whatever the Accept-Language");
+        assertSame(model, source.version(null), "prewarm shares it");
+    }
+}
@@ -0,0 +1,139 @@
+package io.github.rexrk.swagger.helper.ui;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springdoc.core.properties.SwaggerUiConfigProperties;
+import org.springdoc.core.properties.SwaggerUiOAuthProperties;
+import org.springdoc.core.providers.ObjectMapperProvider;
+import org.springdoc.webmvc.ui.SwaggerWelcomeCommon;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceTransformerChain;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class AiSwaggerIndexTransformerTest {
+
+    private static final String INDEX = """
+            <html>
+              <body>
+                <div id="swagger-ui"></div>
+                <script src="./swagger-ui-bundle.js" charset="UTF-8"></script>
+                <script src="./swagger-ui-standalone-preset.js" charset="UTF-8"></script>
+                <script src="./swagger-initializer.js" charset="UTF-8"></script>
+              </body>
+            </html>
+            """;
+
+    @TempDir
+    Path dir;
+
+    private final AiSwaggerIndexTransformer transformer = new AiSwaggerIndexTransformer(
+            new SwaggerUiConfigProperties(), new SwaggerUiOAuthProperties(), mock(SwaggerWelcomeCommon.class),
+            mock(ObjectMapperProvider.class), () -> null);
+
+    @AfterEach
+    void resetRequestContext() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void page_keepsAStableEtagUntilTheSourceChanges() throws Exception {
+        Resource source = page(INDEX);
+        Resource first = transform(request(), new MockHttpServletResponse(), source);
+        Resource second = transform(request(), new MockHttpServletResponse(), source);
+
+        assertTrue(text(first).contains(AiSwaggerIndexTransformer.PLUGIN_PATH));
+        assertNotNull(headers(first).getETag());
+        assertEquals(headers(first).getETag(), headers(second).getETag());
+        assertEquals(1, transformer.cachedPages());
+
+        Resource changed = page(INDEX.replace("</body>", "<!-- v2 --></body>"));
+        Resource third = transform(request(), new MockHttpServletResponse(), changed);
+
+        assertTrue(text(third).contains("v2"));
+        assertNotEquals(headers(first).getETag(), headers(third).getETag());
+        assertEquals(2, transformer.cachedPages());
+    }
+
+    @Test
+    void matchingIfNoneMatch_isAnsweredWithAnEmpty304() throws Exception {
+        Resource source = page(INDEX);
+        String etag = headers(transform(request(), new MockHttpServletResponse(), source)).getETag();
+
+        MockHttpServletRequest conditional = request();
+        conditional.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Resource notModified = transform(conditional, response, source);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, notModified.contentLength());
+        assertEquals(etag, headers(notModified).getETag());
+
+        MockHttpServletRequest stale = request();
+        stale.addHeader(HttpHeaders.IF_NONE_MATCH, "\"stale\"");
+        MockHttpServletResponse fresh = new MockHttpServletResponse();
+        assertTrue(transform(stale, fresh, source).contentLength() > 0);
+        assertEquals(200, fresh.getStatus());
+    }
+
+    @Test
+    void gzipClients_getCompressedBytesWithTheirOwnEtag() throws Exception {
+        Resource source = page(INDEX);
+        Resource plain = transform(request(), new MockHttpServletResponse(), source);
+
+        MockHttpServletRequest gzipRequest = request();
+        gzipRequest.addHeader(HttpHeaders.ACCEPT_ENCODING, "deflate, gzip;q=0.8");
+        Resource gzipped = transform(gzipRequest, new MockHttpServletResponse(), source);
+
+        assertNull(headers(plain).getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("gzip", headers(gzipped).getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, headers(plain).getFirst(HttpHeaders.VARY));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, headers(gzipped).getFirst(HttpHeaders.VARY));
+        assertNotEquals(headers(plain).getETag(), headers(gzipped).getETag());
+        assertArrayEquals(plain.getContentAsByteArray(), gunzip(gzipped.getContentAsByteArray()));
+    }
+
+    private Resource transform(MockHttpServletRequest request, MockHttpServletResponse response,
+                               Resource source) throws IOException {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        return transformer.transform(request, source, mock(ResourceTransformerChain.class));
+    }
+
+    private Resource page(String html) throws IOException {
+        return new FileSystemResource(Files.writeString(dir.resolve("index.html"), html));
+    }
+
+    private static MockHttpServletRequest request() {
+        return new MockHttpServletRequest("GET", "/swagger-ui/index.html");
+    }
+
+    private static HttpHeaders headers(Resource resource) {
+        return ((HttpResource) resource).getResponseHeaders();
+    }
+
+    private static String text(Resource resource) throws IOException {
+        return new String(resource.getContentAsByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gunzip(byte[] data) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.rexrk.ai.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+/**
+ * Micrometer meters shared by the AI starters' model calls, registered under
+ * {@code prefix}: attempt latency, final outcomes, parse failures, prompt and
+ * response sizes and provider-reported tokens. Each starter extends it with
+ * its own metrics interface and gauges.
+ *
+ * @param <O> the starter's outcome enum, one {@code .requests} counter per constant
+ */
+public class MicrometerAiMetrics<O extends Enum<O>> {
+
+    protected final MeterRegistry registry;
+    protected final String prefix;
+
+    private final Timer attemptSuccess;
+    private final Timer attemptFailure;
+    private final Map<O, Counter> outcomes;
+    private final Counter parseFailures;
+    private final DistributionSummary promptChars;
+    private final DistributionSummary responseChars;
+    private final Counter usagePromptTokens;
+    private final Counter usageCompletionTokens;
+
+    public MicrometerAiMetrics(MeterRegistry registry, String prefix, Class<O> outcomeType) {
+        this.registry = registry;
+        this.prefix = prefix;
+        this.attemptSuccess = attemptTimer("success");
+        this.attemptFailure = attemptTimer("failure");
+        this.outcomes = new EnumMap<>(outcomeType);
+        for (O outcome : outcomeType.getEnumConstants()) {
+            outcomes.put(outcome, Counter.builder(prefix + ".requests")
+                    .description("Model requests by final outcome, after retries")
+                    .tag("outcome", outcome.name().toLowerCase())
+                    .register(registry));
+        }
+        this.parseFailures = Counter.builder(prefix + ".parse.failures")
+                .description("Model responses that could not be parsed")
+                .register(registry);
+        this.promptChars = DistributionSummary.builder(prefix + ".prompt.size")
+                .description("Prompt length sent to the model")
+                .baseUnit("chars")
+                .register(registry);
+        this.responseChars = DistributionSummary.builder(prefix + ".response.size")
+                .description("Response length returned by the model")
+                .baseUnit("chars")
+                .register(registry);
+        this.usagePromptTokens = tokenCounter("prompt");
+        this.usageCompletionTokens = tokenCounter("completion");
+    }
+
+    public void recordAttempt(Duration latency, boolean success) {
+        (success ? attemptSuccess : attemptFailure).record(latency);
+    }
+
+    public void recordOutcome(O outcome) {
+        outcomes.get(outcome).increment();
+    }
+
+    public void recordParseFailure() {
+        parseFailures.increment();
+    }
+
+    public void recordPromptSize(int chars) {
+        promptChars.record(chars);
+    }
+
+    public void recordResponseSize(int chars) {
+        responseChars.record(chars);
+    }
+
+    public void recordTokenUsage(long promptTokens, long completionTokens) {
+        usagePromptTokens.increment(promptTokens);
+        usageCompletionTokens.increment(completionTokens);
+    }
+
+    protected void gauge(String name, String description, IntSupplier value) {
+        Gauge.builder(prefix + "." + name, value::getAsInt)
+                .description(description)
+                .register(registry);
+    }
+
+    private Timer attemptTimer(String outcome) {
+        return Timer.builder(prefix + ".call")
+                .description("Latency of a single chat model attempt")
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private Counter tokenCounter(String type) {
+        return Counter.builder(prefix + ".tokens")
+                .description("Tokens reported by the model provider")
+                .tag("type", type)
+                .register(registry);
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.rexrk.ai.resilience;
+
+import java.time.Duration;
+
+/**
+ * Thrown instead of calling the model while the circuit breaker is open.
+ */
+public class CallNotPermittedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public CallNotPermittedException(Duration retryAfter) {
+        super("AI circuit breaker is open, retry after " + retryAfter.toMillis() + " ms");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.rexrk.ai.resilience;
+
+import org.springframework.ai.retry.NonTransientAiException;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Wraps blocking model calls with a per-attempt deadline, bounded retries
+ * with full-jitter exponential backoff, and a {@link CircuitBreaker}.
+ * <p>
+ * Each attempt runs on a virtual thread so a hung HTTP call only costs the
+ * caller {@code callTimeout}, not the transport's own (much longer) timeout.
+ */
+public class ChatCallGuard {
+
+    private final Duration callTimeout;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final CircuitBreaker circuitBreaker;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ChatCallGuard(Duration callTimeout,
+                         int maxAttempts,
+                         Duration initialBackoff,
+                         Duration maxBackoff,
+                         CircuitBreaker circuitBreaker) {
+        this.callTimeout = callTimeout;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public <T> T call(Supplier<T> call) throws Exception {
+        if (!circuitBreaker.tryAcquire()) {
+            throw new CallNotPermittedException(circuitBreaker.remainingOpenTime());
+        }
+
+        Exception last = null;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                T result = attempt(call);
+                circuitBreaker.onSuccess();
+                return result;
+            } catch (NonTransientAiException e) {
+                last = e;
+                break; // bad request, auth failure, etc. — retrying won't help
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                last = e;
+                break;
+            } catch (Exception e) {
+                last = e;
+            }
+
+            if (attempt < maxAttempts && !sleepBackoff(attempt)) break;
+        }
+
+        circuitBreaker.onFailure();
+        throw last;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    private <T> T attempt(Supplier<T> call) throws Exception {
+        Future<T> future = executor.submit(call::get);
+        try {
+            return future.get(callTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new TimeoutException("AI call exceeded " + callTimeout.toMillis() + " ms");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        }
+    }
+
+    private boolean sleepBackoff(int attempt) {
+        long cap = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(cap + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.rexrk.ai.resilience;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Consecutive-failure circuit breaker. While OPEN every call is rejected
+ * without touching the model; after {@code openDuration} a single probe is
+ * let through (HALF_OPEN) and its outcome decides whether the circuit closes.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Clock clock;
+    private final List<Runnable> closeListeners = new CopyOnWriteArrayList<>();
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private Instant openedAt;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this(failureThreshold, openDuration, Clock.systemUTC());
+    }
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration, Clock clock) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDuration = openDuration;
+        this.clock = clock;
+    }
+
+    public synchronized boolean tryAcquire() {
+        return switch (state) {
+            case CLOSED -> true;
+            case HALF_OPEN -> false; // probe already in flight
+            case OPEN -> {
+                if (remainingOpenTime().isZero()) {
+                    state = State.HALF_OPEN;
+                    yield true;
+                }
+                yield false;
+            }
+        };
+    }
+
+    public void onSuccess() {
+        boolean reclosed;
+        synchronized (this) {
+            reclosed = state != State.CLOSED;
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+            openedAt = null;
+        }
+        // listeners run outside the lock so they may call back into the breaker
+        if (reclosed) {
+            closeListeners.forEach(Runnable::run);
+        }
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.instant();
+        }
+    }
+
+    /**
+     * Time left before the next probe is allowed. While a probe is in flight
+     * the full open duration is reported, since its outcome is still unknown.
+     */
+    public synchronized Duration remainingOpenTime() {
+        if (state == State.CLOSED) return Duration.ZERO;
+        if (state == State.HALF_OPEN) return openDuration;
+        Duration elapsed = Duration.between(openedAt, clock.instant());
+        return elapsed.compareTo(openDuration) >= 0 ? Duration.ZERO : openDuration.minus(elapsed);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public void onClose(Runnable listener) {
+        closeListeners.add(listener);
+    }
+}
@@ -0,0 +1,14 @@
+package io.github.rexrk.collector;
+
+import io.github.rexrk.collector.store.CollectedEventStore;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+public class CollectorConfiguration {
+
+    @Bean
+    public CollectedEventStore collectedEventStore(CollectorProperties props) {
+        return new CollectedEventStore(props.getMaxEvents());
+    }
+}
@@ -0,0 +1,19 @@
+package io.github.rexrk.collector;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(CollectorProperties.prefix)
+public class CollectorProperties {
+    public static final String prefix = "devtools.collector";
+
+    private int maxEvents = 500;
+    private DataSize maxRequestSize = DataSize.ofMegabytes(16);
+
+    // getters and setters
+    public int getMaxEvents()                            { return maxEvents; }
+    public void setMaxEvents(int maxEvents)              { this.maxEvents = maxEvents; }
+
+    public DataSize getMaxRequestSize()                  { return maxRequestSize; }
+    public void setMaxRequestSize(DataSize size)         { this.maxRequestSize = size; }
+}
@@ -0,0 +1,145 @@
+package io.github.rexrk.collector.store;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.ArrayNode;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Events from all nodes, deduplicated by fingerprint.
+ * <p>
+ * Each fingerprint keeps the latest full event, an occurrence count and the
+ * nodes it was seen on. Its view keeps the id of the first event so dashboards
+ * update one row as more nodes report it; any reported id resolves to it.
+ * The least recently reported fingerprints are evicted beyond {@code maxEvents}.
+ */
+public class CollectedEventStore {
+
+    private static final int MAX_IDS_PER_FINGERPRINT = 32;
+
+    private final int maxEvents;
+    private final LinkedHashMap<String, Entry> byFingerprint = new LinkedHashMap<>();
+    private final Map<String, Entry> byId = new HashMap<>();
+
+    public CollectedEventStore(int maxEvents) {
+        this.maxEvents = maxEvents;
+    }
+
+    /**
+     * Records a captured event and returns the updated view.
+     *
+     * @throws IllegalArgumentException if the event has no {@code id}
+     */
+    public synchronized ObjectNode addCaptured(String node, ObjectNode event) {
+        String id = text(event, "id");
+        if (id == null) throw new IllegalArgumentException("captured event without an id");
+        String fingerprint = text(event, "fingerprint");
+        String key = fingerprint != null ? fingerprint : id;
+
+        Entry entry = byFingerprint.remove(key);
+        if (entry == null) {
+            entry = new Entry(id);
+        }
+        byFingerprint.put(key, entry); // most recently reported last
+        entry.latest = event;
+        entry.occurrences++;
+        entry.nodes.add(node);
+        if (event.hasNonNull("aiExplanation")) {
+            entry.explanation = event.get("aiExplanation");
+        }
+        remember(entry, id);
+
+        while (byFingerprint.size() > maxEvents) {
+            forget(byFingerprint.pollFirstEntry().getValue());
+        }
+        return entry.view();
+    }
+
+    /** Attaches an explanation to the event it belongs to, if that is still stored. */
+    public synchronized Optional<ObjectNode> addExplanation(String id, String fingerprint, JsonNode explanation) {
+        Entry entry = id != null ? byId.get(id) : null;
+        if (entry == null && fingerprint != null) {
+            entry = byFingerprint.get(fingerprint);
+        }
+        if (entry == null || explanation == null || explanation.isNull()) {
+            return Optional.empty();
+        }
+        entry.explanation = explanation;
+        return Optional.of(entry.view());
+    }
+
+    public synchronized List<ObjectNode> getRecent(int limit) {
+        List<ObjectNode> recent = new ArrayList<>(Math.min(limit, byFingerprint.size()));
+        for (Entry entry : byFingerprint.sequencedValues().reversed()) {
+            if (recent.size() == limit) break;
+            recent.add(entry.view());
+        }
+        return recent;
+    }
+
+    public synchronized Optional<ObjectNode> findById(String id) {
+        return Optional.ofNullable(byId.get(id)).map(Entry::view);
+    }
+
+    public synchronized void clear() {
+        byFingerprint.clear();
+        byId.clear();
+    }
+
+    public synchronized int size() {
+        return byFingerprint.size();
+    }
+
+    private void remember(Entry entry, String id) {
+        if (id == null || byId.putIfAbsent(id, entry) != null || id.equals(entry.firstId)) return;
+        // the first id is the view id and stays resolvable; later ones are capped
+        entry.laterIds.addLast(id);
+        if (entry.laterIds.size() > MAX_IDS_PER_FINGERPRINT) {
+            byId.remove(entry.laterIds.pollFirst());
+        }
+    }
+
+    private void forget(Entry entry) {
+        if (entry.firstId != null) byId.remove(entry.firstId);
+        entry.laterIds.forEach(byId::remove);
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value != null && !value.isNull() ? value.asString() : null;
+    }
+
+    private static final class Entry {
+        private final String firstId;
+        private final Set<String> nodes = new LinkedHashSet<>();
+        private final Deque<String> laterIds = new ArrayDeque<>();
+        private ObjectNode latest;
+        private JsonNode explanation;
+        private int occurrences;
+
+        private Entry(String firstId) {
+            this.firstId = firstId;
+        }
+
+        private ObjectNode view() {
+            ObjectNode view = latest.deepCopy();
+            view.remove("kind");
+            if (firstId != null) view.put("id", firstId);
+            view.put("occurrences", occurrences);
+            ArrayNode nodeList = view.putArray("nodes");
+            nodes.forEach(nodeList::add);
+            if (explanation != null) view.set("aiExplanation", explanation);
+            return view;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.rexrk.collector.web;
+
+import io.github.rexrk.collector.store.CollectedEventStore;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.util.List;
+
+/**
+ * Serves the same {@code /exception-insights} contract as a single node, so
+ * the bundled dashboard works unchanged against the collector.
+ */
+@RestController
+@RequestMapping("/exception-insights")
+public class CollectedEventsController {
+
+    private final CollectedEventStore store;
+
+    public CollectedEventsController(CollectedEventStore store) {
+        this.store = store;
+    }
+
+    @GetMapping("/events")
+    public List<ObjectNode> getEvents(@RequestParam(defaultValue = "20", name = "limit") int limit) {
+        return store.getRecent(limit);
+    }
+
+    @GetMapping("/events/{id}")
+    public ResponseEntity<ObjectNode> getEvent(@PathVariable("id") String id) {
+        return store.findById(id)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/events")
+    public ResponseEntity<Void> clearAll() {
+        store.clear();
+        return ResponseEntity.noContent().build();
+    }
+}
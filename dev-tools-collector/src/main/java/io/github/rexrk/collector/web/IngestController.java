@@ -0,0 +1,122 @@
+package io.github.rexrk.collector.web;
+
+import io.github.rexrk.collector.CollectorProperties;
+import io.github.rexrk.collector.store.CollectedEventStore;
+import io.github.rexrk.ui.dashboard.SseEmitterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Accepts NDJSON batches (optionally gzip-encoded) from the exception insights
+ * {@code COLLECTOR} output and pushes one {@code error-batch} per request to
+ * the dashboard.
+ */
+@RestController
+public class IngestController {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestController.class);
+
+    private final CollectedEventStore store;
+    private final SseEmitterRegistry registry;
+    private final JsonMapper mapper;
+    private final long maxRequestBytes;
+
+    public IngestController(CollectedEventStore store, SseEmitterRegistry registry, JsonMapper mapper,
+                            CollectorProperties props) {
+        this.store = store;
+        this.registry = registry;
+        this.mapper = mapper;
+        this.maxRequestBytes = props.getMaxRequestSize().toBytes();
+    }
+
+    @PostMapping("/collector/ingest")
+    public ResponseEntity<Map<String, Integer>> ingest(
+            @RequestHeader(name = "X-Node-Id", defaultValue = "unknown") String node,
+            @RequestHeader(name = "Content-Encoding", required = false) String encoding,
+            HttpServletRequest request) throws IOException {
+        InputStream body = request.getInputStream();
+        if ("gzip".equalsIgnoreCase(encoding)) {
+            body = new GZIPInputStream(body);
+        }
+
+        // dashboard events keyed by view id, so several lines for one event collapse into one update
+        Map<String, ObjectNode> captured = new LinkedHashMap<>();
+        Map<String, ObjectNode> explained = new LinkedHashMap<>();
+        int accepted = 0;
+        int rejected = 0;
+        long read = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                read += line.length() + 1;
+                if (read > maxRequestBytes) {
+                    throw new ResponseStatusException(HttpStatus.CONTENT_TOO_LARGE, "batch exceeds " + maxRequestBytes + " bytes");
+                }
+                if (line.isBlank()) continue;
+                try {
+                    JsonNode json = mapper.readTree(line);
+                    if (!(json instanceof ObjectNode record)) {
+                        rejected++;
+                        continue;
+                    }
+                    switch (record.path("kind").asString()) {
+                        case "error-captured" -> {
+                            ObjectNode view = store.addCaptured(node, record);
+                            captured.put(view.get("id").asString(), view);
+                        }
+                        case "ai-explanation" -> store.addExplanation(
+                                        text(record, "id"), text(record, "fingerprint"), record.get("aiExplanation"))
+                                .ifPresent(view -> explained.put(view.get("id").asString(), view));
+                        default -> {
+                            rejected++;
+                            continue;
+                        }
+                    }
+                    accepted++;
+                } catch (JacksonException | IllegalArgumentException e) {
+                    rejected++;
+                }
+            }
+        }
+        if (rejected > 0) {
+            log.debug("Rejected {} malformed line(s) from node {}", rejected, node);
+        }
+
+        if (!captured.isEmpty() || !explained.isEmpty()) {
+            List<Map<String, Object>> errors = new ArrayList<>(captured.size());
+            captured.values().forEach(view -> errors.add(Map.of("event", view, "count", view.get("occurrences").asInt())));
+            registry.broadcast("error-batch", Map.of(
+                    "errors", errors,
+                    "insights", List.copyOf(explained.values()),
+                    "omitted", 0));
+        }
+        return ResponseEntity.accepted().body(Map.of("accepted", accepted, "rejected", rejected));
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value != null && !value.isNull() ? value.asString() : null;
+    }
+}
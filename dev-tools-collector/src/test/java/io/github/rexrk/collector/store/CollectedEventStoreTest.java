@@ -0,0 +1,74 @@
+package io.github.rexrk.collector.store;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CollectedEventStoreTest {
+
+    private final JsonMapper mapper = new JsonMapper();
+
+    @Test
+    void sameFingerprintFromSeveralNodes_collapsesIntoOneEvent() {
+        CollectedEventStore store = new CollectedEventStore(10);
+
+        store.addCaptured("node-a", event("id-1", "fp-1"));
+        store.addCaptured("node-b", event("id-2", "fp-1"));
+        ObjectNode view = store.addCaptured("node-a", event("id-3", "fp-1"));
+
+        assertEquals(1, store.size());
+        assertEquals("id-1", view.get("id").asString(), "the view keeps the first id");
+        assertEquals(3, view.get("occurrences").asInt());
+        assertEquals(List.of("node-a", "node-b"), view.get("nodes").valueStream().map(n -> n.asString()).toList());
+        assertEquals("id-1", store.findById("id-3").orElseThrow().get("id").asString());
+    }
+
+    @Test
+    void explanation_isAttachedByAnyReportedId() {
+        CollectedEventStore store = new CollectedEventStore(10);
+        store.addCaptured("node-a", event("id-1", "fp-1"));
+        store.addCaptured("node-b", event("id-2", "fp-1"));
+
+        ObjectNode view = store.addExplanation("id-2", "fp-1", mapper.readTree("{\"summary\":\"pool exhausted\"}"))
+                .orElseThrow();
+
+        assertEquals("pool exhausted", view.get("aiExplanation").get("summary").asString());
+        assertEquals("pool exhausted", store.getRecent(10).getFirst().get("aiExplanation").get("summary").asString());
+    }
+
+    @Test
+    void leastRecentlyReportedFingerprints_areEvicted() {
+        CollectedEventStore store = new CollectedEventStore(2);
+        store.addCaptured("node-a", event("id-1", "fp-1"));
+        store.addCaptured("node-a", event("id-2", "fp-2"));
+        store.addCaptured("node-b", event("id-3", "fp-1"));
+        store.addCaptured("node-a", event("id-4", "fp-3"));
+
+        assertEquals(2, store.size());
+        assertTrue(store.findById("id-2").isEmpty());
+        assertEquals(List.of("id-4", "id-1"), store.getRecent(10).stream().map(v -> v.get("id").asString()).toList());
+    }
+
+    @Test
+    void capturedEventWithoutId_isRejected() {
+        CollectedEventStore store = new CollectedEventStore(10);
+        ObjectNode event = event("id-1", "fp-1");
+        event.remove("id");
+
+        assertThrows(IllegalArgumentException.class, () -> store.addCaptured("node-a", event));
+        assertEquals(0, store.size());
+    }
+
+    private ObjectNode event(String id, String fingerprint) {
+        ObjectNode event = mapper.createObjectNode();
+        event.put("kind", "error-captured");
+        event.put("id", id);
+        event.put("fingerprint", fingerprint);
+        event.put("exceptionClass", "java.lang.IllegalStateException");
+        return event;
+    }
+}
@@ -1,16 +1,26 @@
 package io.github.rexrk.ui.dashboard;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tools.jackson.databind.json.JsonMapper;
 
 @AutoConfiguration
+@EnableConfigurationProperties(DevToolsUiProperties.class)
 public class DevToolsUiAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
-    public SseEmitterRegistry sseEmitterRegistry() {
-        return new SseEmitterRegistry();
+    public SseEmitterRegistry sseEmitterRegistry(DevToolsUiProperties props, ObjectProvider<JsonMapper> jsonMapper) {
+        SseFrameEncoder encoder = new SseFrameEncoder(jsonMapper.getIfAvailable(JsonMapper::new), props.isCompactPayloads());
+        return new SseEmitterRegistry(encoder, props.getSubscriberQueueCapacity(), props.getStallTimeout(),
+                props.getReplayBufferSize(), props.getHeartbeatInterval(), props.getIdleTimeout(),
+                props.getEmitterTimeout(), props.getMaxSubscribers());
     }
 
     @Bean
@@ -18,4 +28,20 @@ public class DevToolsUiAutoConfiguration {
     public DashboardController dashboardController(SseEmitterRegistry registry) {
         return new DashboardController(registry);
     }
-}
\ No newline at end of file
+
+    // --- Metrics ---
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class MetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public SseConnectionMetrics sseConnectionMetrics(SseEmitterRegistry registry,
+                                                         ObjectProvider<MeterRegistry> meterRegistry) {
+            SseConnectionMetrics metrics = new SseConnectionMetrics(registry);
+            meterRegistry.ifUnique(metrics::bindTo);
+            return metrics;
+        }
+    }
+}
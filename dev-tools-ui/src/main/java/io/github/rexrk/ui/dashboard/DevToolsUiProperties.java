@@ -0,0 +1,44 @@
+package io.github.rexrk.ui.dashboard;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(DevToolsUiProperties.prefix)
+public class DevToolsUiProperties {
+    public static final String prefix = "devtools.ui";
+
+    private int subscriberQueueCapacity = 256;
+    private Duration stallTimeout = Duration.ofSeconds(10);
+    private boolean compactPayloads = false;
+    private int replayBufferSize = 256;
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+    private Duration idleTimeout = Duration.ofSeconds(60);
+    private Duration emitterTimeout = Duration.ofMinutes(30);
+    private int maxSubscribers = 32;
+
+    // getters and setters
+    public int getSubscriberQueueCapacity()                  { return subscriberQueueCapacity; }
+    public void setSubscriberQueueCapacity(int capacity)     { this.subscriberQueueCapacity = capacity; }
+
+    public Duration getStallTimeout()                        { return stallTimeout; }
+    public void setStallTimeout(Duration stallTimeout)       { this.stallTimeout = stallTimeout; }
+
+    public boolean isCompactPayloads()                       { return compactPayloads; }
+    public void setCompactPayloads(boolean compact)          { this.compactPayloads = compact; }
+
+    public int getReplayBufferSize()                         { return replayBufferSize; }
+    public void setReplayBufferSize(int replayBufferSize)    { this.replayBufferSize = replayBufferSize; }
+
+    public Duration getHeartbeatInterval()                   { return heartbeatInterval; }
+    public void setHeartbeatInterval(Duration interval)      { this.heartbeatInterval = interval; }
+
+    public Duration getIdleTimeout()                         { return idleTimeout; }
+    public void setIdleTimeout(Duration idleTimeout)         { this.idleTimeout = idleTimeout; }
+
+    public Duration getEmitterTimeout()                      { return emitterTimeout; }
+    public void setEmitterTimeout(Duration emitterTimeout)   { this.emitterTimeout = emitterTimeout; }
+
+    public int getMaxSubscribers()                           { return maxSubscribers; }
+    public void setMaxSubscribers(int maxSubscribers)        { this.maxSubscribers = maxSubscribers; }
+}
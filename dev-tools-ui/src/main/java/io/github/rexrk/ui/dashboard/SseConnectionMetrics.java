@@ -0,0 +1,31 @@
+package io.github.rexrk.ui.dashboard;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Publishes dashboard connection counts from {@link SseEmitterRegistry}.
+ */
+public class SseConnectionMetrics {
+
+    static final String PREFIX = "devtools.ui.sse.connections";
+
+    private final SseEmitterRegistry registry;
+
+    public SseConnectionMetrics(SseEmitterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder(PREFIX + ".active", registry, SseEmitterRegistry::getSubscriberCount)
+                .description("Connected dashboard subscribers")
+                .register(meterRegistry);
+        FunctionCounter.builder(PREFIX + ".dropped", registry, SseEmitterRegistry::getDroppedCount)
+                .description("Subscribers disconnected because they stalled, went idle or failed a write")
+                .register(meterRegistry);
+        FunctionCounter.builder(PREFIX + ".rejected", registry, SseEmitterRegistry::getRejectedCount)
+                .description("Connections refused because the subscriber limit was reached")
+                .register(meterRegistry);
+    }
+}
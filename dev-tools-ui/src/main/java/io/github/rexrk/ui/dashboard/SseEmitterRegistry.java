@@ -1,35 +1,270 @@
 package io.github.rexrk.ui.dashboard;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.json.JsonMapper;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
-public class SseEmitterRegistry {
+/**
+ * Fans events out to dashboard subscribers without blocking the publisher.
+ * <p>
+ * Every subscriber gets its own bounded queue drained by a virtual thread, so
+ * {@link #broadcast} only enqueues. When a queue overflows during a burst the
+ * oldest queued event is discarded; if the subscriber's writer has not
+ * completed a send within {@code stallTimeout} it is disconnected instead.
+ * Browsers reconnect on their own.
+ * <p>
+ * Payloads are encoded once per broadcast into an {@link SseFrame} and the
+ * same bytes are written to every subscriber.
+ * <p>
+ * Every frame carries an increasing id and the most recent frames are kept in
+ * a replay buffer. A reconnecting browser sends its {@code Last-Event-ID} and
+ * is sent only what it missed; when that is no longer buffered it gets a
+ * {@value #RESYNC_EVENT} event and reloads the full list instead. Ids start at
+ * the startup time in milliseconds so that ids from before a restart are not
+ * mistaken for current ones.
+ * <p>
+ * One shared scheduler writes a heartbeat comment to every subscriber so that
+ * connections dropped by a proxy surface as write failures, and reaps
+ * subscribers that have not completed a write within {@code idleTimeout}.
+ * Emitters expire after {@code emitterTimeout}, and registrations beyond
+ * {@code maxSubscribers} are rejected.
+ */
+public class SseEmitterRegistry implements AutoCloseable {
 
-    private final Map<String, SseEmitter> emitters = new ConcurrentHashMap<>();
+    private static final Logger log = LoggerFactory.getLogger(SseEmitterRegistry.class);
+
+    public static final String RESYNC_EVENT = "resync";
+
+    private final Map<String, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final SseFrameEncoder encoder;
+    private final int queueCapacity;
+    private final long stallTimeoutNanos;
+    private final long idleTimeoutNanos;
+    private final long emitterTimeoutMillis;
+    private final int maxSubscribers;
+    private final ScheduledExecutorService heartbeats;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    // sequence, replay buffer and fan-out order are guarded by this lock
+    private final Object lock = new Object();
+    private final SseReplayBuffer replay;
+    private long sequence = System.currentTimeMillis();
+
+    public SseEmitterRegistry() {
+        this(new SseFrameEncoder(new JsonMapper(), false), 256, Duration.ofSeconds(10), 256);
+    }
+
+    public SseEmitterRegistry(SseFrameEncoder encoder, int queueCapacity, Duration stallTimeout, int replayBufferSize) {
+        this(encoder, queueCapacity, stallTimeout, replayBufferSize,
+                Duration.ofSeconds(15), Duration.ofSeconds(60), Duration.ofMinutes(30), 32);
+    }
+
+    public SseEmitterRegistry(SseFrameEncoder encoder, int queueCapacity, Duration stallTimeout, int replayBufferSize,
+                              Duration heartbeatInterval, Duration idleTimeout, Duration emitterTimeout,
+                              int maxSubscribers) {
+        boolean heartbeat = heartbeatInterval.isPositive();
+        if (heartbeat && idleTimeout.compareTo(heartbeatInterval) <= 0) {
+            throw new IllegalArgumentException("idleTimeout must be longer than heartbeatInterval");
+        }
+        this.encoder = encoder;
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.stallTimeoutNanos = stallTimeout.toNanos();
+        this.replay = replayBufferSize > 0 ? new SseReplayBuffer(replayBufferSize) : null;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.emitterTimeoutMillis = emitterTimeout.isPositive() ? emitterTimeout.toMillis() : Long.MAX_VALUE;
+        this.maxSubscribers = maxSubscribers > 0 ? maxSubscribers : Integer.MAX_VALUE;
+
+        if (heartbeat) {
+            this.heartbeats = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("sse-heartbeat").daemon().factory());
+            long period = heartbeatInterval.toMillis();
+            heartbeats.scheduleAtFixedRate(this::heartbeat, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            this.heartbeats = null;
+        }
+    }
 
     public SseEmitter register(String clientId) {
-        SseEmitter emitter = new SseEmitter(Long.MAX_VALUE);
+        return register(clientId, (String) null);
+    }
+
+    /**
+     * Registers a subscriber, first replaying the events broadcast after
+     * {@code lastEventId} when one is given.
+     *
+     * @throws IllegalStateException if {@code maxSubscribers} are already connected
+     */
+    public SseEmitter register(String clientId, String lastEventId) {
+        return register(clientId, new SseEmitter(emitterTimeoutMillis), lastEventId);
+    }
+
+    SseEmitter register(String clientId, SseEmitter emitter) {
+        return register(clientId, emitter, null);
+    }
 
-        emitter.onCompletion(() -> emitters.remove(clientId));
-        emitter.onTimeout(() -> emitters.remove(clientId));
-        emitter.onError(e -> emitters.remove(clientId));
+    SseEmitter register(String clientId, SseEmitter emitter, String lastEventId) {
+        Subscriber subscriber = new Subscriber(clientId, emitter, new ArrayBlockingQueue<>(queueCapacity));
+        subscriber.writer = Thread.ofVirtual().name("sse-writer-" + clientId).unstarted(() -> drain(subscriber));
 
-        emitters.put(clientId, emitter);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> {
+            remove(subscriber);
+            emitter.complete(); // browsers reconnect and resume from their last id
+        });
+        emitter.onError(e -> remove(subscriber));
+
+        synchronized (lock) {
+            if (subscribers.size() >= maxSubscribers) {
+                rejected.incrementAndGet();
+                throw new IllegalStateException("Dashboard subscriber limit of " + maxSubscribers + " reached");
+            }
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                missedSince(lastEventId).ifPresentOrElse(
+                        missed -> missed.forEach(subscriber.queue::add),
+                        () -> subscriber.queue.add(encoder.encode(sequence, RESYNC_EVENT, "{}")));
+            }
+            subscribers.put(clientId, subscriber);
+        }
+        subscriber.writer.start();
         return emitter;
     }
 
     public void broadcast(String eventName, Object data) {
-        emitters.forEach((clientId, emitter) -> {
-            try {
-                emitter.send(SseEmitter.event()
-                    .name(eventName)
-                    .data(data));
-            } catch (IOException e) {
-                emitters.remove(clientId);
+        if (replay == null && subscribers.isEmpty()) return;
+
+        byte[] payload = encoder.serialize(data);
+        synchronized (lock) {
+            SseFrame frame = SseFrame.of(++sequence, eventName, payload);
+            if (replay != null) replay.add(frame);
+            subscribers.values().forEach(subscriber -> offer(subscriber, frame));
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /** Subscribers disconnected by the server because they stalled, went idle or failed a write. */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    @Override
+    public void close() {
+        if (heartbeats != null) heartbeats.shutdownNow();
+        subscribers.values().forEach(subscriber -> {
+            if (remove(subscriber)) Thread.ofVirtual().start(subscriber.emitter::complete);
+        });
+    }
+
+    private void heartbeat() {
+        long now = System.nanoTime();
+        subscribers.values().forEach(subscriber -> {
+            if (now - subscriber.lastWrite > idleTimeoutNanos) {
+                drop(subscriber, "idle");
+            } else {
+                subscriber.queue.offer(SseFrame.HEARTBEAT); // skipped when events are already pending
             }
         });
     }
-}
\ No newline at end of file
+
+    /** Missed frames that fit in a subscriber queue, or empty if the client must resync. */
+    private Optional<List<SseFrame>> missedSince(String lastEventId) {
+        long lastId;
+        try {
+            lastId = Long.parseLong(lastEventId.strip());
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+        if (lastId == sequence) return Optional.of(List.of());
+        if (replay == null) return Optional.empty();
+        return replay.since(lastId).filter(missed -> missed.size() <= queueCapacity);
+    }
+
+    private void offer(Subscriber subscriber, SseFrame frame) {
+        while (!subscriber.queue.offer(frame)) {
+            if (subscriber.isStalled(stallTimeoutNanos)) {
+                drop(subscriber, "stalled");
+                return;
+            }
+            subscriber.queue.poll(); // keep up by skipping the oldest pending event
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            while (!subscriber.closed) {
+                SseFrame frame = subscriber.queue.take();
+                subscriber.sendingSince = System.nanoTime();
+                subscriber.emitter.send(frame.items());
+                subscriber.sendingSince = 0;
+                subscriber.lastWrite = System.nanoTime();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | IllegalStateException e) {
+            // client went away or the emitter was already completed
+            if (remove(subscriber)) dropped.incrementAndGet();
+        }
+    }
+
+    private void drop(Subscriber subscriber, String reason) {
+        if (remove(subscriber)) {
+            log.debug("Dropping {} dashboard subscriber {}", reason, subscriber.clientId);
+            dropped.incrementAndGet();
+            // completing takes the emitter's write lock, which a blocked send holds
+            Thread.ofVirtual().start(subscriber.emitter::complete);
+        }
+    }
+
+    private boolean remove(Subscriber subscriber) {
+        if (subscribers.remove(subscriber.clientId, subscriber)) {
+            subscriber.closed = true;
+            subscriber.queue.clear();
+            subscriber.writer.interrupt();
+            return true;
+        }
+        return false;
+    }
+
+    private static final class Subscriber {
+        private final String clientId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseFrame> queue;
+        private Thread writer;
+        private volatile boolean closed;
+        private volatile long sendingSince;
+        private volatile long lastWrite = System.nanoTime();
+
+        private Subscriber(String clientId, SseEmitter emitter, BlockingQueue<SseFrame> queue) {
+            this.clientId = clientId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+
+        /** True while a single send has been blocked for longer than the timeout. */
+        private boolean isStalled(long timeoutNanos) {
+            long since = sendingSince;
+            return since != 0 && System.nanoTime() - since > timeoutNanos;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.rexrk.ui.dashboard;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * A complete, already encoded SSE message ({@code id:}, {@code event:},
+ * {@code data:} lines and the terminating blank line). The same instance is written to every
+ * subscriber, so a broadcast costs one serialization regardless of audience.
+ */
+public final class SseFrame {
+
+    private final long id;
+    private final String eventName;
+    private final byte[] bytes;
+    private final Set<DataWithMediaType> items;
+
+    private SseFrame(long id, String eventName, byte[] bytes) {
+        this.id = id;
+        this.eventName = eventName;
+        this.bytes = bytes;
+        this.items = Set.of(new DataWithMediaType(bytes, MediaType.TEXT_EVENT_STREAM));
+    }
+
+    static SseFrame of(long id, String eventName, byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length + eventName.length() + 40);
+        out.writeBytes(("id:" + id + "\nevent:" + eventName + "\n").getBytes(StandardCharsets.UTF_8));
+
+        // every line of the payload needs its own data: prefix
+        int start = 0;
+        for (int i = 0; i <= data.length; i++) {
+            if (i == data.length || data[i] == '\n') {
+                out.writeBytes(DATA);
+                out.write(data, start, i - start);
+                out.write('\n');
+                start = i + 1;
+            }
+        }
+        out.write('\n');
+        return new SseFrame(id, eventName, out.toByteArray());
+    }
+
+    private static final byte[] DATA = "data:".getBytes(StandardCharsets.UTF_8);
+
+    /** An SSE comment line; keeps the connection active without touching the client's last event id. */
+    static final SseFrame HEARTBEAT = new SseFrame(-1, null, ":ping\n\n".getBytes(StandardCharsets.UTF_8));
+
+    public long id() {
+        return id;
+    }
+
+    public String eventName() {
+        return eventName;
+    }
+
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    /** The frame as emitter items, ready for {@code ResponseBodyEmitter.send(Set)}. */
+    public Set<DataWithMediaType> items() {
+        return items;
+    }
+}
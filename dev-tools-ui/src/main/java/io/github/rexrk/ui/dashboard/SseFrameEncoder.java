@@ -0,0 +1,33 @@
+package io.github.rexrk.ui.dashboard;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serializes broadcast payloads once into {@link SseFrame}s. In compact mode
+ * null and empty properties are left out of the JSON.
+ */
+public class SseFrameEncoder {
+
+    private final JsonMapper mapper;
+
+    public SseFrameEncoder(JsonMapper mapper, boolean compact) {
+        this.mapper = compact
+                ? mapper.rebuild()
+                        .changeDefaultPropertyInclusion(incl -> incl.withValueInclusion(JsonInclude.Include.NON_EMPTY))
+                        .build()
+                : mapper;
+    }
+
+    public SseFrame encode(long id, String eventName, Object data) {
+        return SseFrame.of(id, eventName, serialize(data));
+    }
+
+    public byte[] serialize(Object data) {
+        return data instanceof CharSequence text
+                ? text.toString().getBytes(StandardCharsets.UTF_8)
+                : mapper.writeValueAsBytes(data);
+    }
+}
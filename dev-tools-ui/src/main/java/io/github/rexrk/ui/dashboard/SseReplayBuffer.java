@@ -0,0 +1,42 @@
+package io.github.rexrk.ui.dashboard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Fixed-size ring of the most recently broadcast frames, indexed by event id.
+ * Not thread-safe; {@link SseEmitterRegistry} guards it.
+ */
+final class SseReplayBuffer {
+
+    private final SseFrame[] ring;
+    private long size;
+
+    SseReplayBuffer(int capacity) {
+        this.ring = new SseFrame[Math.max(1, capacity)];
+    }
+
+    void add(SseFrame frame) {
+        ring[(int) (size++ % ring.length)] = frame;
+    }
+
+    /**
+     * Frames broadcast after {@code lastEventId}, oldest first, or empty when
+     * the id is unknown or older than anything still buffered.
+     */
+    Optional<List<SseFrame>> since(long lastEventId) {
+        if (size == 0) return Optional.empty();
+
+        long stored = Math.min(size, ring.length);
+        long newest = ring[(int) ((size - 1) % ring.length)].id();
+        long oldest = ring[(int) ((size - stored) % ring.length)].id();
+        if (lastEventId > newest || lastEventId < oldest - 1) return Optional.empty();
+
+        List<SseFrame> missed = new ArrayList<>((int) (newest - lastEventId));
+        for (long i = size - (newest - lastEventId); i < size; i++) {
+            missed.add(ring[(int) (i % ring.length)]);
+        }
+        return Optional.of(missed);
+    }
+}
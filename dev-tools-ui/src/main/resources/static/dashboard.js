@@ -112,6 +112,7 @@
         <div class="error-item-row1">
           <span class="badge badge-${esc(e.type)}">${esc(e.type.replace(/_/g, ' '))}</span>
           ${e.isNew ? '<span class="new-chip">NEW</span>' : ''}
+          ${e.occurrences > 1 ? `<span class="count-chip">×${e.occurrences}</span>` : ''}
           ${!e.aiExplanation ? '<span class="analyzing-chip">analyzing…</span>' : ''}
         </div>
         <div class="error-exc">${esc(shortClass(e.exceptionClass))}</div>
@@ -180,9 +181,24 @@
       </div>
     ` : '';
 
+    const stackHtml = e.stackTrace ? `
+      <div class="card-section">
+        <div class="section-title">stack trace</div>
+        <pre class="stack-trace">${esc(e.stackTrace)}</pre>
+      </div>
+    ` : e.hasStackTrace ? `
+      <div class="card-section">
+        <div class="section-title">stack trace</div>
+        <button class="btn-stack" id="btnStack">show stack trace</button>
+      </div>
+    ` : '';
+
     const aiHtml = e.aiExplanation ? `
       <div class="card">
-        <div class="ai-header"><div class="ai-orb"></div>AI analysis</div>
+        <div class="ai-header"><div class="ai-orb"></div>AI analysis
+          ${e.aiExplanation.origin === 'INFERRED' ? '<span class="ai-origin">reused from a similar error</span>' : ''}
+          ${e.aiExplanation.origin === 'RULE' ? '<span class="ai-origin">built-in rule</span>' : ''}
+        </div>
         <div class="ai-body">
           <div class="ai-summary">${esc(e.aiExplanation.summary)}</div>
           <div>
@@ -215,9 +231,13 @@
         ${httpHtml}
         ${ctxHtml}
         ${logsHtml}
+        ${stackHtml}
       </div>
       ${aiHtml}
     `;
+
+    const btnStack = document.getElementById('btnStack');
+    if (btnStack) btnStack.addEventListener('click', () => loadStackTrace(e.id));
   }
 
   // ── State mutations ───────────────────────────────────────
@@ -234,6 +254,53 @@
     selectError(e.id);
   }
 
+  // Stream payloads carry everything except the stack trace, fetched on demand
+  async function loadStackTrace(id) {
+    try {
+      const { stackTrace } = await fetchById(id);
+      errors = errors.map(e => e.id === id ? { ...e, stackTrace } : e);
+      if (selectedId === id) renderDetail(errors.find(x => x.id === id));
+    } catch (e) {
+      console.error('Failed to fetch stack trace for id:', id, e);
+    }
+  }
+
+  // One coalesced window from the server: merge it all, then render once
+  function applyBatch(batch) {
+    const byId = new Map(errors.map(e => [e.id, { ...e, isNew: false }]));
+    const added = [];
+    for (const { event, count } of batch.errors || []) {
+      const existing = byId.get(event.id);
+      if (existing) {
+        existing.occurrences = (existing.occurrences || 1) + count;
+      } else {
+        const e = { ...event, occurrences: count, isNew: true };
+        byId.set(e.id, e);
+        added.unshift(e);
+      }
+    }
+    for (const event of batch.insights || []) {
+      const existing = byId.get(event.id);
+      if (existing) {
+        existing.aiExplanation = event.aiExplanation;
+      } else {
+        const e = { ...event, isNew: true };
+        byId.set(e.id, e);
+        added.unshift(e);
+      }
+    }
+    const addedIds = new Set(added.map(e => e.id));
+    errors = [...added, ...errors.map(e => byId.get(e.id)).filter(e => !addedIds.has(e.id))];
+
+    if (added.length) {
+      selectError(added[0].id);
+    } else {
+      renderList();
+      const selected = errors.find(x => x.id === selectedId);
+      if (selected) renderDetail(selected);
+    }
+  }
+
   function updateAi(id, aiExplanation) {
     errors = errors.map(e => e.id === id ? { ...e, aiExplanation } : e);
     renderList();
@@ -248,26 +315,25 @@
     try {
       eventSource = new EventSource(`${BASE_UI}/stream`);
 
-      eventSource.addEventListener('error-captured', async ev => {
-        const { id } = JSON.parse(ev.data);
-        try {
-          const fullEvent = await fetchById(id);
-          addError(fullEvent);
-        } catch (e) {
-          console.error('Failed to fetch error by id:', id, e);
-        }
+      eventSource.addEventListener('error-captured', ev => {
+        const event = JSON.parse(ev.data);
+        if (!errors.some(e => e.id === event.id)) addError(event);
       });
 
-      eventSource.addEventListener('ai-insight-ready', async ev => {
-        const { id } = JSON.parse(ev.data);
-        try {
-          const fullEvent = await fetchById(id);
-          updateAi(fullEvent.id, fullEvent.aiExplanation);
-        } catch (e) {
-          console.error('Failed to fetch ai update for id:', id, e);
+      eventSource.addEventListener('ai-insight-ready', ev => {
+        const event = JSON.parse(ev.data);
+        if (errors.some(e => e.id === event.id)) {
+          updateAi(event.id, event.aiExplanation);
+        } else {
+          addError(event);
         }
       });
 
+      eventSource.addEventListener('error-batch', ev => applyBatch(JSON.parse(ev.data)));
+
+      // Sent on reconnect when the missed events are no longer buffered server-side
+      eventSource.addEventListener('resync', () => fetchEvents());
+
       eventSource.onopen = () => {
         document.getElementById('sseDot').className = 'sse-dot live';
         document.getElementById('sseLabel').textContent = 'SSE connected';
@@ -276,6 +342,10 @@
       eventSource.onerror = () => {
         document.getElementById('sseDot').className = 'sse-dot';
         document.getElementById('sseLabel').textContent = 'SSE disconnected';
+        // The browser gives up after a rejected (503) connection; retry later from a fresh list
+        if (eventSource.readyState === EventSource.CLOSED) {
+          setTimeout(() => { connectSSE(); fetchEvents(); }, 30000);
+        }
       };
 
     } catch {
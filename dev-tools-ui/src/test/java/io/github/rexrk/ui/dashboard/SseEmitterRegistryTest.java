@@ -0,0 +1,274 @@
+package io.github.rexrk.ui.dashboard;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SseEmitterRegistryTest {
+
+    @Test
+    void stalledClient_doesNotSlowDownPublisherOrOtherClients() throws Exception {
+        SseEmitterRegistry registry = registry(16, Duration.ofMillis(100));
+        CountDownLatch release = new CountDownLatch(1);
+        StalledEmitter stalled = new StalledEmitter(release);
+        CountingEmitter healthy = new CountingEmitter();
+        registry.register("stalled", stalled);
+        registry.register("healthy", healthy);
+
+        registry.broadcast("error-captured", "warm-up");
+        assertTrue(stalled.sendEntered.await(1, TimeUnit.SECONDS), "stalled client should be blocked in send");
+        Thread.sleep(150);
+
+        int events = 1_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < events; i++) {
+            registry.broadcast("error-captured", "event-" + i);
+        }
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertTrue(elapsedMillis < 500, "publishing took " + elapsedMillis + " ms");
+        assertEquals(1, registry.getSubscriberCount(), "stalled client should have been dropped");
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!"event-999".equals(healthy.last) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals("event-999", healthy.last, "a healthy client may skip events in a burst but always catches up");
+        release.countDown();
+    }
+
+    @Test
+    void failingClient_isRemoved() throws Exception {
+        SseEmitterRegistry registry = registry(16, Duration.ofSeconds(10));
+        registry.register("broken", new SseEmitter() {
+            @Override
+            public void send(Set<DataWithMediaType> items) throws IOException {
+                throw new IOException("broken pipe");
+            }
+        });
+
+        registry.broadcast("error-captured", "event");
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (registry.getSubscriberCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, registry.getSubscriberCount());
+    }
+
+    @Test
+    void broadcast_serializesOncePerEventRegardlessOfSubscriberCount() throws Exception {
+        SseEmitterRegistry registry = registry(64, Duration.ofSeconds(10));
+        List<CountingEmitter> emitters = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            CountingEmitter emitter = new CountingEmitter();
+            emitters.add(emitter);
+            registry.register("client-" + i, emitter);
+        }
+
+        AtomicInteger serializations = new AtomicInteger();
+        int events = 50;
+        for (int i = 0; i < events; i++) {
+            registry.broadcast("error-captured", new Payload("id-" + i, serializations));
+        }
+
+        assertEquals(events, serializations.get(), "each payload must be serialized exactly once");
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (emitters.stream().anyMatch(e -> e.frames.size() < events) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        byte[] first = emitters.getFirst().frames.getFirst();
+        assertTrue(new String(first, StandardCharsets.UTF_8).matches("id:\\d+\nevent:error-captured\ndata:\\{\"id\":\"id-0\"}\n\n"));
+        for (CountingEmitter emitter : emitters) {
+            assertEquals(events, emitter.frames.size());
+            assertSame(first, emitter.frames.getFirst(), "every subscriber gets the same encoded bytes");
+        }
+    }
+
+    @Test
+    void compactFormat_omitsNullAndEmptyProperties() {
+        SseFrameEncoder encoder = new SseFrameEncoder(new JsonMapper(), true);
+
+        SseFrame frame = encoder.encode(7, "ai-insight-ready", new Sparse("id-1", null, List.of()));
+
+        assertEquals("id:7\nevent:ai-insight-ready\ndata:{\"id\":\"id-1\"}\n\n",
+                new String(frame.bytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void reconnectingClient_receivesOnlyMissedEvents() throws Exception {
+        SseEmitterRegistry registry = registry(16, Duration.ofSeconds(10));
+        CountingEmitter before = new CountingEmitter();
+        registry.register("before", before);
+        for (int i = 0; i < 5; i++) {
+            registry.broadcast("error-captured", "event-" + i);
+        }
+        awaitFrames(before, 5);
+        String lastSeen = idOf(before.frames.get(1));
+
+        CountingEmitter resumed = new CountingEmitter();
+        registry.register("resumed", resumed, lastSeen);
+        registry.broadcast("error-captured", "event-5");
+
+        awaitFrames(resumed, 4);
+        assertEquals(List.of("event-2", "event-3", "event-4", "event-5"), resumed.payloads());
+        assertEquals(Long.parseLong(lastSeen) + 4, Long.parseLong(idOf(resumed.frames.getLast())));
+    }
+
+    @Test
+    void reconnectBeyondReplayBuffer_isToldToResync() throws Exception {
+        SseEmitterRegistry registry = new SseEmitterRegistry(new SseFrameEncoder(new JsonMapper(), false),
+                16, Duration.ofSeconds(10), 4);
+        CountingEmitter before = new CountingEmitter();
+        registry.register("before", before);
+        for (int i = 0; i < 10; i++) {
+            registry.broadcast("error-captured", "event-" + i);
+        }
+        awaitFrames(before, 10);
+
+        CountingEmitter tooOld = new CountingEmitter();
+        registry.register("too-old", tooOld, idOf(before.frames.get(2)));
+        CountingEmitter unknown = new CountingEmitter();
+        registry.register("unknown", unknown, "not-an-id");
+
+        awaitFrames(tooOld, 1);
+        awaitFrames(unknown, 1);
+        assertTrue(new String(tooOld.frames.getFirst(), StandardCharsets.UTF_8).contains("event:resync\n"));
+        assertTrue(new String(unknown.frames.getFirst(), StandardCharsets.UTF_8).contains("event:resync\n"));
+    }
+
+    @Test
+    void heartbeats_keepHealthyClientsAndIdleOnesAreReaped() throws Exception {
+        SseEmitterRegistry registry = new SseEmitterRegistry(new SseFrameEncoder(new JsonMapper(), false),
+                16, Duration.ofSeconds(10), 16, Duration.ofMillis(50), Duration.ofMillis(300), Duration.ZERO, 0);
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        new SseConnectionMetrics(registry).bindTo(meters);
+
+        CountDownLatch release = new CountDownLatch(1);
+        CountingEmitter healthy = new CountingEmitter();
+        registry.register("healthy", healthy);
+        registry.register("dead", new StalledEmitter(release));
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (registry.getSubscriberCount() > 1 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        release.countDown();
+        registry.close();
+
+        assertTrue(healthy.heartbeats.get() > 3, "heartbeats sent: " + healthy.heartbeats.get());
+        assertEquals(1, registry.getDroppedCount());
+        assertEquals(1, meters.get("devtools.ui.sse.connections.dropped").functionCounter().count());
+        assertEquals(0, meters.get("devtools.ui.sse.connections.active").gauge().value());
+    }
+
+    @Test
+    void subscribersBeyondTheLimit_areRejected() {
+        SseEmitterRegistry registry = new SseEmitterRegistry(new SseFrameEncoder(new JsonMapper(), false),
+                16, Duration.ofSeconds(10), 16, Duration.ZERO, Duration.ZERO, Duration.ZERO, 2);
+        registry.register("first", new CountingEmitter());
+        registry.register("second", new CountingEmitter());
+
+        assertThrows(IllegalStateException.class, () -> registry.register("third", new CountingEmitter()));
+        assertEquals(2, registry.getSubscriberCount());
+        assertEquals(1, registry.getRejectedCount());
+    }
+
+    private static SseEmitterRegistry registry(int capacity, Duration stallTimeout) {
+        return new SseEmitterRegistry(new SseFrameEncoder(new JsonMapper(), false), capacity, stallTimeout, 256,
+                Duration.ZERO, Duration.ZERO, Duration.ZERO, 0);
+    }
+
+    private static void awaitFrames(CountingEmitter emitter, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (emitter.frames.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, emitter.frames.size());
+    }
+
+    private static String idOf(byte[] frame) {
+        String text = new String(frame, StandardCharsets.UTF_8);
+        return text.substring(3, text.indexOf('\n'));
+    }
+
+    record Sparse(String id, String message, List<String> causes) {}
+
+    static final class Payload {
+        private final String id;
+        private final AtomicInteger serializations;
+
+        Payload(String id, AtomicInteger serializations) {
+            this.id = id;
+            this.serializations = serializations;
+        }
+
+        public String getId() {
+            serializations.incrementAndGet();
+            return id;
+        }
+    }
+
+    private static final class StalledEmitter extends SseEmitter {
+        private final CountDownLatch release;
+        private final CountDownLatch sendEntered = new CountDownLatch(1);
+
+        private StalledEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            sendEntered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+    }
+
+    private static final class CountingEmitter extends SseEmitter {
+        private final List<byte[]> frames = new CopyOnWriteArrayList<>();
+        private final AtomicInteger heartbeats = new AtomicInteger();
+        private volatile String last;
+
+        private List<String> payloads() {
+            return frames.stream()
+                    .map(frame -> new String(frame, StandardCharsets.UTF_8))
+                    .map(text -> text.substring(text.indexOf("data:") + 5).strip())
+                    .toList();
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) {
+            for (DataWithMediaType item : items) {
+                byte[] frame = (byte[]) item.getData();
+                if (frame[0] == ':') {
+                    heartbeats.incrementAndGet();
+                    continue;
+                }
+                frames.add(frame);
+                String text = new String(frame, StandardCharsets.UTF_8);
+                last = text.substring(text.indexOf("data:") + 5).strip();
+            }
+        }
+    }
+}